@@ -0,0 +1,68 @@
+/*****************************************************************************
+ * Copyright 2017 Chris Engelsma
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+package com.hypotemoose.cal.astro;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks each {@link Accuracy} tier of the Meeus computations.
+ *
+ * @author Chris Engelsma
+ * @since 2017.08.11
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccuracyBenchmark {
+
+  @Param({"FAST", "STANDARD", "PRECISE"})
+  public Accuracy accuracy;
+
+  private final double[] _nutation = new double[2];
+  private final double[] _quarters = new double[4];
+  private int _year = 1;
+  private double _jd = Meeus.J2000;
+
+  @Benchmark
+  public double equinox() {
+    // Years outside the table, so the series is computed every time
+    _year = (_year % 997) + 3001;
+    return Meeus.equinox(_year, Season.SPRING, accuracy);
+  }
+
+  @Benchmark
+  public double equationOfTime() {
+    _jd += 0.37;
+    return Meeus.equationOfTime(_jd, accuracy);
+  }
+
+  @Benchmark
+  public double nutation() {
+    _jd += 0.37;
+    return Meeus.nutation(_jd, _nutation, accuracy)[0];
+  }
+
+  @Benchmark
+  public double lunationQuarters() {
+    _year = (_year % 997) + 1;
+    return Meeus.getLunationQuarters(_year, _quarters, accuracy)[2];
+  }
+}
@@ -0,0 +1,120 @@
+/*****************************************************************************
+ * Copyright 2017 Chris Engelsma
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+package com.hypotemoose.cal.astro;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the astronomical routines in {@link Meeus}.
+ *
+ * @author Chris Engelsma
+ * @since 2017.08.11
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MeeusBenchmark {
+
+  @Param({"1000", "2017"})
+  public int year;
+
+  private double _jd;
+  private final double[] _position = new double[12];
+  private final double[] _nutation = new double[2];
+  private final double[] _quarters = new double[4];
+  private final double[] _phases = new double[365];
+  private final double[] _illuminations = new double[365];
+
+  @Setup
+  public void setUp() {
+    _jd = Meeus.J2000 + ((year - 2000) * Meeus.TROPICAL_YEAR);
+  }
+
+  @Benchmark
+  public double equinox() {
+    return Meeus.equinox(year, Season.SPRING);
+  }
+
+  @Benchmark
+  public double deltat() {
+    return Meeus.deltat(year);
+  }
+
+  @Benchmark
+  public double equationOfTime() {
+    return Meeus.equationOfTime(_jd);
+  }
+
+  @Benchmark
+  public double fittedEquationOfTime() {
+    return SolarEphemeris.getEquationOfTime(_jd);
+  }
+
+  @Benchmark
+  public double[] nutation() {
+    return Meeus.nutation(_jd);
+  }
+
+  @Benchmark
+  public double[] nutationInto() {
+    return Meeus.nutation(_jd, _nutation);
+  }
+
+  @Benchmark
+  public double[] sunPosition() {
+    return Meeus.sunPosition(_jd);
+  }
+
+  @Benchmark
+  public double[] sunPositionInto() {
+    return Meeus.sunPosition(_jd, _position);
+  }
+
+  @Benchmark
+  public double lunarPhase() {
+    return Meeus.getLunarPhase(_jd);
+  }
+
+  @Benchmark
+  public double[] lunarPhasesOfYear() {
+    for (int i = 0; i < _phases.length; ++i) {
+      _phases[i] = Meeus.getLunarPhase(_jd + i);
+      _illuminations[i] = Meeus.getLunarIlluminationFromPhase(_phases[i]);
+    }
+    return _illuminations;
+  }
+
+  @Benchmark
+  public double[] lunarPhaseSeriesOfYear() {
+    LunarPhaseSeries.compute(_jd, 1.0, _phases, _illuminations);
+    return _illuminations;
+  }
+
+  @Benchmark
+  public double[] moonQuarters() {
+    return Meeus.getMoonQuarters(year, 3, 10);
+  }
+
+  @Benchmark
+  public double[] moonQuartersInto() {
+    return Meeus.getMoonQuarters(year, 3, 10, _quarters);
+  }
+}
@@ -0,0 +1,109 @@
+/*****************************************************************************
+ * Copyright 2017 Chris Engelsma
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+package com.hypotemoose.cal.astro;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.hypotemoose.cal.util.Util.dtr;
+import static java.lang.Math.*;
+
+/**
+ * Benchmarks {@link Nutation} over an hourly sweep of one year.
+ *
+ * @author Chris Engelsma
+ * @since 2017.08.11
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NutationBenchmark {
+
+  private static final int _hours = 365 * 24;
+  private final Nutation _nutation = new Nutation();
+  private final double[] _result = new double[2];
+
+  @Benchmark
+  public double compute() {
+    double sum = 0.0;
+    for (int i = 0; i < _hours; ++i)
+      sum += _nutation.compute(Meeus.J2000 + (i / 24.0), _result)[0];
+    return sum;
+  }
+
+  @Benchmark
+  public double interpolate() {
+    double sum = 0.0;
+    for (int i = 0; i < _hours; ++i)
+      sum += _nutation.interpolate(Meeus.J2000 + (i / 24.0), _result)[0];
+    return sum;
+  }
+
+  @Benchmark
+  public double meeus() {
+    double sum = 0.0;
+    for (int i = 0; i < _hours; ++i)
+      sum += Meeus.nutation(Meeus.J2000 + (i / 24.0))[0];
+    return sum;
+  }
+
+  @Benchmark
+  public double baseline() {
+    double sum = 0.0;
+    for (int i = 0; i < _hours; ++i)
+      sum += _baseline(Meeus.J2000 + (i / 24.0))[0];
+    return sum;
+  }
+
+/////////////////////////////////////////////////////////////////////////////
+// private
+
+  /**
+   * The nutation as Meeus computed it before the engine, with a sine or
+   * cosine per term and a new array per call.
+   */
+  private static double[] _baseline(double jd) {
+    double t, t2, t3, to10, dp = 0.0, de = 0.0, ang;
+    double[] ta = new double[5];
+
+    t = (jd - 2451545.0) / (36525.0);
+    t2 = t * t;
+    t3 = t2 * t;
+
+    ta[0] = dtr(297.850363 + 445267.111480 * t - 0.0019142 * t2 + t3 / 189474.0);
+    ta[1] = dtr(357.527720 + 35999.050340 * t - 0.0001603 * t2 - t3 / 300000.0);
+    ta[2] = dtr(134.962980 + 477198.867398 * t + 0.0086972 * t2 + t3 / 56250.0);
+    ta[3] = dtr(93.271910 + 483202.017538 * t - 0.0036825 * t2 + t3 / 327170.0);
+    ta[4] = dtr(125.044520 - 1934.136261 * t + 0.0020708 * t2 + t3 / 450000.0);
+
+    to10 = t / 10.0;
+    for (int i = 0; i < 63; ++i) {
+      ang = 0.0;
+      for (int j = 0; j < 5; ++j) {
+        int k = i * 5 + j;
+        if (Nutation.nutArgMult[k] != 0) ang += Nutation.nutArgMult[k] * ta[j];
+      }
+      dp += (Nutation.nutArgCoeff[(i * 4) + 0] + Nutation.nutArgCoeff[(i * 4) + 1] * to10) * sin(ang);
+      de += (Nutation.nutArgCoeff[(i * 4) + 2] + Nutation.nutArgCoeff[(i * 4) + 3] * to10) * cos(ang);
+    }
+
+    return new double[]{dp / (3600.0 * 10000.0), de / (3600.0 * 10000.0)};
+  }
+}
@@ -0,0 +1,84 @@
+/*****************************************************************************
+ * Copyright 2017 Chris Engelsma
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+package com.hypotemoose.cal.date;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.hypotemoose.cal.util.AlmanacConverter.*;
+
+/**
+ * Benchmarks stepping through a year of dates one day at a time, and
+ * adding and subtracting a year of days at once, in each calendar.
+ *
+ * @author Chris Engelsma
+ * @since 2017.08.11
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NextDayBenchmark {
+
+  static final int DAYS = 365;
+
+  @Param({"GREGORIAN", "JULIAN", "FRENCH_REPUBLICAN", "MAYA", "ISLAMIC",
+    "HEBREW", "PERSIAN", "INDIAN_CIVIL"})
+  public String calendar;
+
+  private Almanac _start;
+  private Almanac _date;
+
+  @Setup
+  public void setUp() {
+    _start = _convert(calendar, new GregorianCalendar(2000, 1, 1));
+    _date = _convert(calendar, _start);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(DAYS)
+  public Almanac nextDay() {
+    Almanac date = _convert(calendar, _start);
+    for (int i = 0; i < DAYS; ++i)
+      date.nextDay();
+    return date;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(2)
+  public Almanac addDays() {
+    _date.addDays(DAYS);
+    _date.subtractDays(DAYS);
+    return _date;
+  }
+
+  private static Almanac _convert(String calendar, Almanac a) {
+    switch (calendar) {
+      case "GREGORIAN": return new GregorianCalendar(toGregorianCalendar(a));
+      case "JULIAN": return new JulianCalendar(toJulianCalendar(a));
+      case "FRENCH_REPUBLICAN": return new FrenchRepublicanCalendar(toFrenchRepublicanCalendar(a));
+      case "MAYA": return new MayaCalendar(toMayaCalendar(a));
+      case "ISLAMIC": return new IslamicCalendar(toIslamicCalendar(a));
+      case "HEBREW": return new HebrewCalendar(toHebrewCalendar(a));
+      case "PERSIAN": return new PersianCalendar(toPersianCalendar(a));
+      case "INDIAN_CIVIL": return new IndianCivilCalendar(toIndianCivilCalendar(a));
+      default: throw new IllegalArgumentException("Unknown calendar " + calendar);
+    }
+  }
+}
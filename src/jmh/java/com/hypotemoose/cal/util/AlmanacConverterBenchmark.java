@@ -0,0 +1,112 @@
+/*****************************************************************************
+ * Copyright 2017 Chris Engelsma
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+package com.hypotemoose.cal.util;
+
+import com.hypotemoose.cal.date.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks conversions between the Gregorian calendar and each other
+ * calendar over a range of years.
+ *
+ * @author Chris Engelsma
+ * @since 2017.08.11
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AlmanacConverterBenchmark {
+
+  static final int DATES = 1024;
+
+  @Param({"GREGORIAN", "JULIAN", "FRENCH_REPUBLICAN", "MAYA", "ISLAMIC",
+    "HEBREW", "PERSIAN", "INDIAN_CIVIL"})
+  public String calendar;
+
+  @Param({"1900:2100", "1000:1900", "-500:500"})
+  public String years;
+
+  private GregorianCalendar[] _gregorian;
+  private Almanac[] _dates;
+
+  @Setup
+  public void setUp() {
+    String[] range = years.split(":");
+    int first = Integer.parseInt(range[0]);
+    int last = Integer.parseInt(range[1]);
+    long start = new GregorianCalendar(first, 1, 1).toEpochDay();
+    long end = new GregorianCalendar(last, 12, 31).toEpochDay();
+
+    Random r = new Random(42);
+    _gregorian = new GregorianCalendar[DATES];
+    _dates = new Almanac[DATES];
+    for (int i = 0; i < DATES; ++i) {
+      GregorianCalendar date = new GregorianCalendar(first, 1, 1);
+      date.addDays(r.nextInt((int) (end - start)));
+      _gregorian[i] = date;
+      _dates[i] = convert(calendar, date);
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(DATES)
+  public void fromGregorian(Blackhole bh) {
+    for (GregorianCalendar date : _gregorian)
+      bh.consume(convert(calendar, date));
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(DATES)
+  public void toGregorian(Blackhole bh) {
+    for (Almanac date : _dates)
+      bh.consume(AlmanacConverter.toGregorianCalendar(date));
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(DATES)
+  public void roundTrip(Blackhole bh) {
+    for (GregorianCalendar date : _gregorian)
+      bh.consume(AlmanacConverter.toGregorianCalendar(convert(calendar, date)));
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(DATES)
+  public void toJulianDay(Blackhole bh) {
+    for (Almanac date : _dates)
+      bh.consume(AlmanacConverter.toJulianDay(date));
+  }
+
+  static Almanac convert(String calendar, Almanac a) {
+    switch (calendar) {
+      case "GREGORIAN": return AlmanacConverter.toGregorianCalendar(a);
+      case "JULIAN": return AlmanacConverter.toJulianCalendar(a);
+      case "FRENCH_REPUBLICAN": return AlmanacConverter.toFrenchRepublicanCalendar(a);
+      case "MAYA": return AlmanacConverter.toMayaCalendar(a);
+      case "ISLAMIC": return AlmanacConverter.toIslamicCalendar(a);
+      case "HEBREW": return AlmanacConverter.toHebrewCalendar(a);
+      case "PERSIAN": return AlmanacConverter.toPersianCalendar(a);
+      case "INDIAN_CIVIL": return AlmanacConverter.toIndianCivilCalendar(a);
+      default: throw new IllegalArgumentException("Unknown calendar " + calendar);
+    }
+  }
+}
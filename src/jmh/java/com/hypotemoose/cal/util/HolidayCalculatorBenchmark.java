@@ -0,0 +1,51 @@
+/*****************************************************************************
+ * Copyright 2017 Chris Engelsma
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+package com.hypotemoose.cal.util;
+
+import com.hypotemoose.cal.constants.Holiday;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks computing every holiday in a year.
+ *
+ * @author Chris Engelsma
+ * @since 2017.08.11
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HolidayCalculatorBenchmark {
+
+  @Param({"1900", "2017"})
+  public int year;
+
+  @Benchmark
+  public void allHolidays(Blackhole bh) {
+    for (Holiday holiday : Holiday.values())
+      bh.consume(HolidayCalculator.get(holiday, year));
+  }
+
+  @Benchmark
+  public void easter(Blackhole bh) {
+    bh.consume(HolidayCalculator.get(Holiday.EASTER, year));
+  }
+}
@@ -0,0 +1,53 @@
+/*****************************************************************************
+ * Copyright 2017 Chris Engelsma
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+package com.hypotemoose.cal.astro;
+
+/**
+ * How accurately an astronomical quantity is computed.
+ * <p>
+ * The bounds below are the largest differences from the standard tier
+ * found over the years -1000 to 3000.
+ *
+ * @author Chris Engelsma
+ * @since 2017.08.11
+ */
+public enum Accuracy {
+
+  /**
+   * Truncated series, for when only the civil day matters. Equinoxes are
+   * the mean instants, within 0.015 days. Nutation keeps its four largest
+   * terms, within 1.1 arcseconds in longitude and 0.4 in obliquity, which
+   * changes the equation of time by less than 1.0E-6 days. Lunar quarters
+   * keep the two largest periodic terms, within 0.05 days.
+   */
+  FAST,
+
+  /**
+   * The series as given by Meeus, truncated where this library always has
+   * been. Lunar quarters omit the seven smallest planetary arguments and
+   * the periodic terms below 0.00005 days.
+   */
+  STANDARD,
+
+  /**
+   * Adds the terms that the standard tier omits. Lunar quarters include
+   * all fourteen planetary arguments and every periodic term, which moves
+   * them by up to 40 seconds. Equinoxes, nutation and the equation of time
+   * are already computed from their full series and are the same as in the
+   * standard tier.
+   */
+  PRECISE
+}
@@ -0,0 +1,79 @@
+/*****************************************************************************
+ * Copyright 2017 Chris Engelsma
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+package com.hypotemoose.cal.astro;
+
+import static com.hypotemoose.cal.astro.Meeus.J2000;
+
+/**
+ * A source of Delta T, the difference in seconds between Dynamical Time and
+ * Universal Time.
+ * <p>
+ * Delta T depends on the irregular rotation of the Earth and can only be
+ * predicted roughly, so providers differ mostly in how they tabulate past
+ * observations. {@link #MEEUS} reproduces {@link Meeus#deltat(int)}, and
+ * {@link DeltaTTable#BUILT_IN} interpolates a denser table with a cubic
+ * spline.
+ *
+ * @author Chris Engelsma
+ * @since 2017.08.11
+ */
+public abstract class DeltaTProvider {
+
+  /**
+   * The mean length of a Gregorian year in days.
+   */
+  public static final double GREGORIAN_YEAR = 365.2425;
+
+  /**
+   * Delta T from {@link Meeus#deltat(int)}, evaluated at the year in
+   * progress.
+   */
+  public static final DeltaTProvider MEEUS = new DeltaTProvider() {
+    public double getDeltaT(double year) {
+      return Meeus.deltat((int) Math.floor(year));
+    }
+  };
+
+  /**
+   * Gets Delta T at a decimal year.
+   *
+   * @param year a decimal year, such as 2017.5 for the middle of 2017.
+   * @return Delta T in seconds.
+   */
+  public abstract double getDeltaT(double year);
+
+  /**
+   * Gets Delta T at an instant.
+   *
+   * @param jd a Julian Day.
+   * @return Delta T in seconds.
+   */
+  public double getDeltaTAtJulianDay(double jd) {
+    return getDeltaT(toDecimalYear(jd));
+  }
+
+  /**
+   * Converts a Julian Day to a decimal year. Years are counted in mean
+   * Gregorian years from J2000, so the result is within about a day of the
+   * Gregorian date.
+   *
+   * @param jd a Julian Day.
+   * @return the decimal year.
+   */
+  public static double toDecimalYear(double jd) {
+    return 2000.0 + ((jd - J2000) / GREGORIAN_YEAR);
+  }
+}
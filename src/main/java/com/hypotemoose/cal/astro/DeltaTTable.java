@@ -0,0 +1,326 @@
+/*****************************************************************************
+ * Copyright 2017 Chris Engelsma
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+package com.hypotemoose.cal.astro;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import static java.lang.Math.floor;
+
+/**
+ * Delta T interpolated from a table with a natural cubic spline.
+ * <p>
+ * The spline's coefficients are computed once when the table is built, and
+ * an index from whole years to spline segments is kept alongside them, so
+ * each value costs an array lookup and a cubic polynomial. Where the
+ * spacing of the table changes abruptly, as it does at 1600, a natural
+ * spline swings far beyond the values it passes through; its slopes are
+ * therefore limited as Fritsch and Carlson describe, so that between two
+ * entries it stays within their values.
+ * <p>
+ * Outside the table, Delta T is extrapolated with the expressions of
+ * Espenak and Meeus: the long-term parabola of Morrison and Stephenson
+ * before the table and their predictions after it. The difference between
+ * those expressions and the table at its ends is carried into the
+ * extrapolation and fades out over a century, so Delta T has no jump at
+ * either end.
+ * <p>
+ * A newer table can be loaded from a text file with {@link #load(File)}.
+ * Tables are immutable and thread-safe.
+ *
+ * @author Chris Engelsma
+ * @since 2017.08.11
+ */
+public final class DeltaTTable extends DeltaTProvider {
+
+  /* Morrison and Stephenson (2004) through 1600, every century */
+  private static final double[] _ancient = {
+    17190.0, 15530.0, 14080.0, 12790.0, 11640.0, 10580.0, 9600.0, 8640.0,
+    7680.0, 6700.0, 5710.0, 4740.0, 3810.0, 2960.0, 2200.0, 1570.0, 1090.0,
+    740.0, 490.0, 320.0, 200.0, 120.0
+  };
+
+  /* Meeus, Table 10.A, from 1620 through 1972, every two years */
+  private static final double[] _historic = {
+    121.0, 112.0, 103.0, 95.0, 88.0, 82.0, 77.0, 72.0, 68.0, 63.0,
+    60.0, 56.0, 53.0, 51.0, 48.0, 46.0, 44.0, 42.0, 40.0, 38.0,
+    35.0, 33.0, 31.0, 29.0, 26.0, 24.0, 22.0, 20.0, 18.0, 16.0,
+    14.0, 12.0, 11.0, 10.0, 9.0, 8.0, 7.0, 7.0, 7.0, 7.0,
+    7.0, 7.0, 8.0, 8.0, 9.0, 9.0, 9.0, 9.0, 9.0, 10.0,
+    10.0, 10.0, 10.0, 10.0, 10.0, 10.0, 10.0, 11.0, 11.0, 11.0,
+    11.0, 11.0, 12.0, 12.0, 12.0, 12.0, 13.0, 13.0, 13.0, 14.0,
+    14.0, 14.0, 14.0, 15.0, 15.0, 15.0, 15.0, 15.0, 16.0, 16.0,
+    16.0, 16.0, 16.0, 16.0, 16.0, 16.0, 15.0, 15.0, 14.0, 13.0,
+    13.1, 12.5, 12.2, 12.0, 12.0, 12.0, 12.0, 12.0, 12.0, 11.9,
+    11.6, 11.0, 10.2, 9.2, 8.2, 7.1, 6.2, 5.6, 5.4, 5.3,
+    5.4, 5.6, 5.9, 6.2, 6.5, 6.8, 7.1, 7.3, 7.5, 7.6,
+    7.7, 7.3, 6.2, 5.2, 2.7, 1.4, -1.2, -2.8, -3.8, -4.8,
+    -5.5, -5.3, -5.6, -5.7, -5.9, -6.0, -6.3, -6.5, -6.2, -4.7,
+    -2.8, -0.1, 2.6, 5.3, 7.7, 10.4, 13.3, 16.0, 18.2, 20.2,
+    21.1, 22.4, 23.5, 23.8, 24.3, 24.0, 23.9, 23.9, 23.7, 24.0,
+    24.3, 25.3, 26.2, 27.3, 28.2, 29.1, 30.0, 30.7, 31.4, 32.2,
+    33.1, 34.0, 35.0, 36.5, 38.3, 40.2, 42.2
+  };
+
+  /* Observed values at the start of each year from 1973 through 2017 */
+  private static final double[] _modern = {
+    43.37, 44.49, 45.48, 46.46, 47.52, 48.53, 49.59, 50.54, 51.38, 52.17,
+    52.96, 53.79, 54.34, 54.87, 55.32, 55.82, 56.30, 56.86, 57.57, 58.31,
+    59.12, 59.98, 60.78, 61.63, 62.29, 62.97, 63.47, 63.83, 64.09, 64.30,
+    64.47, 64.57, 64.69, 64.85, 65.15, 65.46, 65.78, 66.07, 66.32, 66.60,
+    66.91, 67.28, 67.64, 68.10, 68.59
+  };
+
+  /* Years over which the offset between the table and extrapolation fades */
+  private static final double _blendYears = 100.0;
+
+  /**
+   * The built-in table, from -500 through 2017. It is spaced a century
+   * apart through 1600, two years apart through 1972 and one year apart
+   * thereafter.
+   */
+  public static final DeltaTTable BUILT_IN = _builtIn();
+
+  private final double[] _years;
+  private final double[] _a, _b, _c, _d;
+  private final int _firstIndexYear;
+  private final int[] _index;
+  private final double _firstOffset, _lastOffset;
+
+  /**
+   * Constructs a table.
+   *
+   * @param years  the decimal years, in increasing order.
+   * @param deltaT the values of Delta T in seconds at those years.
+   */
+  public DeltaTTable(double[] years, double[] deltaT) {
+    int n = years.length;
+    if (deltaT.length != n)
+      throw new IllegalArgumentException("Array lengths differ");
+    if (n < 2)
+      throw new IllegalArgumentException("Table needs at least two values");
+    for (int i = 0; i < n; ++i) {
+      if (Double.isNaN(years[i]) || Double.isInfinite(years[i]) ||
+        Double.isNaN(deltaT[i]) || Double.isInfinite(deltaT[i]))
+        throw new IllegalArgumentException("Value " + i + " is not finite");
+      if (i > 0 && !(years[i] > years[i - 1]))
+        throw new IllegalArgumentException("Years must increase: " + years[i]);
+    }
+    _years = years.clone();
+    _a = deltaT.clone();
+    _b = new double[n - 1];
+    _c = new double[n];
+    _d = new double[n - 1];
+    _spline();
+    _limitSlopes();
+    _firstOffset = _a[0] - _before(_years[0]);
+    _lastOffset = _a[n - 1] - _after(_years[n - 1]);
+
+    _firstIndexYear = (int) floor(_years[0]);
+    _index = new int[(int) floor(_years[n - 1]) - _firstIndexYear + 1];
+    int s = 0;
+    for (int i = 0; i < _index.length; ++i) {
+      double year = Math.max(_years[0], _firstIndexYear + i);
+      while (s < n - 2 && year >= _years[s + 1]) ++s;
+      _index[i] = s;
+    }
+  }
+
+  /**
+   * Loads a table from a text file. Each line holds a decimal year and the
+   * value of Delta T in seconds, separated by whitespace. Blank lines and
+   * lines starting with '#' are ignored.
+   *
+   * @param file a file.
+   * @return the table.
+   * @throws IOException if the file cannot be read.
+   */
+  public static DeltaTTable load(File file) throws IOException {
+    double[] years = new double[64];
+    double[] values = new double[64];
+    int n = 0, line = 0;
+    try (BufferedReader reader =
+           Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+      for (String s; (s = reader.readLine()) != null; ) {
+        ++line;
+        s = s.trim();
+        if (s.isEmpty() || s.startsWith("#")) continue;
+        String[] fields = s.split("\\s+");
+        if (fields.length < 2)
+          throw new IllegalArgumentException(
+            file + ":" + line + ": expected a year and a value");
+        if (n == years.length) {
+          years = Arrays.copyOf(years, 2 * n);
+          values = Arrays.copyOf(values, 2 * n);
+        }
+        try {
+          years[n] = Double.parseDouble(fields[0]);
+          values[n] = Double.parseDouble(fields[1]);
+        } catch (NumberFormatException e) {
+          throw new IllegalArgumentException(file + ":" + line + ": " + s, e);
+        }
+        ++n;
+      }
+    }
+    return new DeltaTTable(Arrays.copyOf(years, n), Arrays.copyOf(values, n));
+  }
+
+  /**
+   * Gets the first year in this table.
+   *
+   * @return the first decimal year.
+   */
+  public double getFirstYear() {
+    return _years[0];
+  }
+
+  /**
+   * Gets the last year in this table.
+   *
+   * @return the last decimal year.
+   */
+  public double getLastYear() {
+    return _years[_years.length - 1];
+  }
+
+  @Override
+  public double getDeltaT(double year) {
+    int n = _years.length;
+    if (!(year >= _years[0] && year <= _years[n - 1]))
+      return _extrapolate(year);
+    int s = _index[(int) floor(year) - _firstIndexYear];
+    while (s < n - 2 && year >= _years[s + 1]) ++s;
+    double x = year - _years[s];
+    return _a[s] + (x * (_b[s] + (x * (_c[s] + (x * _d[s])))));
+  }
+
+/////////////////////////////////////////////////////////////////////////////
+// private
+
+  private static DeltaTTable _builtIn() {
+    int n = _ancient.length + _historic.length + _modern.length;
+    double[] years = new double[n];
+    double[] values = new double[n];
+    int k = 0;
+    for (int i = 0; i < _ancient.length; ++i, ++k) {
+      years[k] = -500.0 + (100.0 * i);
+      values[k] = _ancient[i];
+    }
+    for (int i = 0; i < _historic.length; ++i, ++k) {
+      years[k] = 1620.0 + (2.0 * i);
+      values[k] = _historic[i];
+    }
+    for (int i = 0; i < _modern.length; ++i, ++k) {
+      years[k] = 1973.0 + i;
+      values[k] = _modern[i];
+    }
+    return new DeltaTTable(years, values);
+  }
+
+  /**
+   * Computes the coefficients of the natural cubic spline through the
+   * table, by solving the tridiagonal system for the second derivatives.
+   */
+  private void _spline() {
+    int n = _years.length;
+    double[] h = new double[n - 1];
+    for (int i = 0; i < n - 1; ++i)
+      h[i] = _years[i + 1] - _years[i];
+
+    double[] mu = new double[n];
+    double[] z = new double[n];
+    for (int i = 1; i < n - 1; ++i) {
+      double alpha = (3.0 / h[i]) * (_a[i + 1] - _a[i]) -
+        (3.0 / h[i - 1]) * (_a[i] - _a[i - 1]);
+      double l = (2.0 * (_years[i + 1] - _years[i - 1])) - (h[i - 1] * mu[i - 1]);
+      mu[i] = h[i] / l;
+      z[i] = (alpha - (h[i - 1] * z[i - 1])) / l;
+    }
+    for (int i = n - 2; i >= 0; --i) {
+      _c[i] = z[i] - (mu[i] * _c[i + 1]);
+      _b[i] = ((_a[i + 1] - _a[i]) / h[i]) - (h[i] * (_c[i + 1] + (2.0 * _c[i])) / 3.0);
+      _d[i] = (_c[i + 1] - _c[i]) / (3.0 * h[i]);
+    }
+  }
+
+  /**
+   * Limits the slopes at the entries so that each segment is monotonic:
+   * zero at a local extremum of the table, and at most three times the
+   * slope of the chord on either side otherwise. The coefficients of every
+   * segment are then recomputed from its end values and slopes.
+   */
+  private void _limitSlopes() {
+    int n = _years.length;
+    double[] m = new double[n];
+    for (int i = 0; i < n - 1; ++i)
+      m[i] = _b[i];
+    double h = _years[n - 1] - _years[n - 2];
+    m[n - 1] = _b[n - 2] + (h * ((2.0 * _c[n - 2]) + (3.0 * h * _d[n - 2])));
+
+    for (int i = 0; i < n; ++i) {
+      double left = (i > 0) ? _chord(i - 1) : _chord(i);
+      double right = (i < n - 1) ? _chord(i) : _chord(i - 1);
+      if ((left * right) <= 0.0 || (m[i] * right) <= 0.0) {
+        m[i] = 0.0;
+      } else {
+        double limit = 3.0 * Math.min(Math.abs(left), Math.abs(right));
+        if (Math.abs(m[i]) > limit)
+          m[i] = Math.copySign(limit, m[i]);
+      }
+    }
+
+    for (int i = 0; i < n - 1; ++i) {
+      h = _years[i + 1] - _years[i];
+      double chord = _chord(i);
+      _b[i] = m[i];
+      _c[i] = ((3.0 * chord) - (2.0 * m[i]) - m[i + 1]) / h;
+      _d[i] = (m[i] + m[i + 1] - (2.0 * chord)) / (h * h);
+    }
+  }
+
+  private double _chord(int i) {
+    return (_a[i + 1] - _a[i]) / (_years[i + 1] - _years[i]);
+  }
+
+  private double _extrapolate(double year) {
+    if (year < _years[0])
+      return _before(year) + _fade(_firstOffset, _years[0] - year);
+    return _after(year) + _fade(_lastOffset, year - _years[_years.length - 1]);
+  }
+
+  private static double _fade(double offset, double years) {
+    return (years < _blendYears) ? offset * (1.0 - (years / _blendYears)) : 0.0;
+  }
+
+  private static double _before(double year) {
+    double u = (year - 1820.0) / 100.0;
+    return -20.0 + (32.0 * u * u);
+  }
+
+  private static double _after(double year) {
+    if (year >= 2150.0)
+      return _before(year);
+    if (year < 2050.0) {
+      double t = year - 2000.0;
+      return 62.92 + (0.32217 * t) + (0.005589 * t * t);
+    }
+    return _before(year) - (0.5628 * (2150.0 - year));
+  }
+}
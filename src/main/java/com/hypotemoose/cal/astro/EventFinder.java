@@ -0,0 +1,307 @@
+/*****************************************************************************
+ * Copyright 2017 Chris Engelsma
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+package com.hypotemoose.cal.astro;
+
+import java.util.Arrays;
+
+import static com.hypotemoose.cal.util.Util.fixAngle;
+import static java.lang.Math.*;
+
+/**
+ * Finds the instants at which an angle reaches a given value.
+ * <p>
+ * An event finder follows an angle that advances through 360 degrees at a
+ * roughly steady rate, such as the Sun's apparent longitude or the
+ * elongation of the Moon from the Sun. The time of an event is first
+ * estimated from the mean rate, then bracketed and refined with Brent's
+ * method to within {@link #TOLERANCE} days. A finder may remember a fixed
+ * number of solved events, the oldest being forgotten first, so asking
+ * again for an event near one already found costs a lookup.
+ * <p>
+ * For example, the solar term at which the Sun reaches 45 degrees:
+ * <pre>
+ *   double jd = EventFinder.SOLAR_LONGITUDE.next(45.0, start);
+ * </pre>
+ * Event finders are thread-safe.
+ *
+ * @author Chris Engelsma
+ * @since 2017.08.11
+ */
+public final class EventFinder {
+
+  /**
+   * An angle that changes with time.
+   */
+  public interface Angle {
+
+    /**
+     * Gets the angle at an instant.
+     *
+     * @param jd a Julian Day.
+     * @return the angle in degrees.
+     */
+    double at(double jd);
+  }
+
+  /**
+   * The precision of a solved event in days.
+   */
+  public static final double TOLERANCE = 1.0E-7;
+
+  /**
+   * The Sun's apparent longitude. At 0, 90, 180 and 270 degrees, it gives
+   * the equinoxes and solstices.
+   */
+  public static final EventFinder SOLAR_LONGITUDE = new EventFinder(
+    new Angle() {
+      public double at(double jd) {
+        return SolarEphemeris.getApparentLongitude(jd);
+      }
+    }, 360.0 / Meeus.TROPICAL_YEAR, 64);
+
+  /**
+   * The elongation of the Moon from the Sun, derived from
+   * {@link Meeus#getLunarPhase(double)}. At 0, 90, 180 and 270 degrees, it
+   * gives the new moon, first quarter, full moon and last quarter.
+   */
+  public static final EventFinder LUNAR_ELONGATION = new EventFinder(
+    new Angle() {
+      public double at(double jd) {
+        return fixAngle(180.0 - Meeus.getLunarPhase(jd));
+      }
+    }, 360.0 / 29.530588853, 64);
+
+  /* Maximum number of times a bracket is widened */
+  private static final int _maxExpansions = 8;
+  /* Maximum number of iterations of Brent's method */
+  private static final int _maxIterations = 100;
+  private final Angle _angle;
+  private final double _rate;
+  private final double _period;
+  /* Values and instants of solved events, in a ring; NaN if empty */
+  private final double[] _solvedValues;
+  private final double[] _solvedDays;
+  private int _nextSolved;
+
+  /**
+   * Constructs an event finder that does not remember solved events.
+   *
+   * @param angle an angle that increases through 360 degrees.
+   * @param rate  the mean rate of the angle in degrees per day.
+   */
+  public EventFinder(Angle angle, double rate) {
+    this(angle, rate, 0);
+  }
+
+  /**
+   * Constructs an event finder that remembers solved events.
+   *
+   * @param angle    an angle that increases through 360 degrees.
+   * @param rate     the mean rate of the angle in degrees per day.
+   * @param capacity the number of solved events to remember.
+   */
+  public EventFinder(Angle angle, double rate, int capacity) {
+    if (!(rate > 0.0))
+      throw new IllegalArgumentException("Rate must be positive");
+    if (capacity < 0)
+      throw new IllegalArgumentException("Capacity must not be negative");
+    _angle = angle;
+    _rate = rate;
+    _period = 360.0 / rate;
+    _solvedValues = new double[capacity];
+    _solvedDays = new double[capacity];
+    Arrays.fill(_solvedValues, Double.NaN);
+  }
+
+  /**
+   * Finds the first instant after a given instant at which the angle
+   * reaches a value.
+   *
+   * @param value an angle in degrees.
+   * @param jd    a Julian Day.
+   * @return the Julian Day of the event.
+   */
+  public double next(double value, double jd) {
+    value = fixAngle(value);
+    double known = _known(value, jd, jd + _minimumSpacing());
+    if (!Double.isNaN(known))
+      return known;
+
+    double guess = jd + (fixAngle(value - _angle.at(jd)) / _rate);
+    double r = _solve(value, guess);
+    if (r <= jd)
+      r = _solve(value, guess + _period);
+    _remember(value, r);
+    return r;
+  }
+
+  /**
+   * Finds the last instant before a given instant at which the angle
+   * reaches a value.
+   *
+   * @param value an angle in degrees.
+   * @param jd    a Julian Day.
+   * @return the Julian Day of the event.
+   */
+  public double previous(double value, double jd) {
+    value = fixAngle(value);
+    double known = _known(value, jd - _minimumSpacing(), jd);
+    if (!Double.isNaN(known))
+      return known;
+
+    double guess = jd - (fixAngle(_angle.at(jd) - value) / _rate);
+    double r = _solve(value, guess);
+    if (r >= jd)
+      r = _solve(value, guess - _period);
+    _remember(value, r);
+    return r;
+  }
+
+  /**
+   * Forgets all solved events.
+   */
+  public void clear() {
+    synchronized (_solvedDays) {
+      Arrays.fill(_solvedValues, Double.NaN);
+      _nextSolved = 0;
+    }
+  }
+
+/////////////////////////////////////////////////////////////////////////////
+// private
+
+  /**
+   * Finds a remembered event of a value strictly between two instants. At
+   * most one event fits, as the interval is shorter than the spacing.
+   */
+  private double _known(double value, double from, double to) {
+    if (_solvedDays.length == 0)
+      return Double.NaN;
+    synchronized (_solvedDays) {
+      for (int i = 0; i < _solvedDays.length; ++i) {
+        double day = _solvedDays[i];
+        if (_solvedValues[i] == value && day > from && day < to)
+          return day;
+      }
+    }
+    return Double.NaN;
+  }
+
+  /* Remembers an event, replacing the oldest if the ring is full */
+  private void _remember(double value, double jd) {
+    if (_solvedDays.length == 0)
+      return;
+    synchronized (_solvedDays) {
+      _solvedValues[_nextSolved] = value;
+      _solvedDays[_nextSolved] = jd;
+      _nextSolved = (_nextSolved + 1) % _solvedDays.length;
+    }
+  }
+
+  /**
+   * Consecutive events of the same value are never closer than this, so a
+   * solved event this close to an instant must be the nearest one.
+   */
+  private double _minimumSpacing() {
+    return 0.9 * _period;
+  }
+
+  /* The signed difference from the value, in the range [-180,180) */
+  private double _difference(double value, double jd) {
+    return fixAngle(_angle.at(jd) - value + 180.0) - 180.0;
+  }
+
+  /**
+   * Finds the event nearest an estimate. The difference from the value is
+   * increasing through the event, so it is bracketed by widening an
+   * interval around the estimate until the difference changes sign.
+   */
+  private double _solve(double value, double guess) {
+    double w = 0.05 * _period;
+    double a = guess - w, b = guess + w;
+    double fa = _difference(value, a), fb = _difference(value, b);
+    for (int i = 0; (fa > 0.0 || fb < 0.0) && i < _maxExpansions; ++i) {
+      if (fa > 0.0) {
+        b = a;
+        fb = fa;
+        a -= w;
+        fa = _difference(value, a);
+      } else {
+        a = b;
+        fa = fb;
+        b += w;
+        fb = _difference(value, b);
+      }
+    }
+    if (fa > 0.0 || fb < 0.0)
+      throw new IllegalStateException("Unable to bracket event near " + guess);
+    return _brent(value, a, b, fa, fb);
+  }
+
+  private double _brent(double value, double a, double b, double fa, double fb) {
+    double c = a, fc = fa, d = b - a, e = d;
+    for (int i = 0; i < _maxIterations; ++i) {
+      if ((fb > 0.0 && fc > 0.0) || (fb < 0.0 && fc < 0.0)) {
+        c = a;
+        fc = fa;
+        d = e = b - a;
+      }
+      if (abs(fc) < abs(fb)) {
+        a = b;
+        b = c;
+        c = a;
+        fa = fb;
+        fb = fc;
+        fc = fa;
+      }
+      double tol = 0.5 * TOLERANCE;
+      double m = 0.5 * (c - b);
+      if (abs(m) <= tol || fb == 0.0)
+        return b;
+      if (abs(e) >= tol && abs(fa) > abs(fb)) {
+        // Inverse quadratic interpolation, or the secant method.
+        double p, q, r, s = fb / fa;
+        if (a == c) {
+          p = 2.0 * m * s;
+          q = 1.0 - s;
+        } else {
+          q = fa / fc;
+          r = fb / fc;
+          p = s * ((2.0 * m * q * (q - r)) - ((b - a) * (r - 1.0)));
+          q = (q - 1.0) * (r - 1.0) * (s - 1.0);
+        }
+        if (p > 0.0) q = -q;
+        else p = -p;
+        if (2.0 * p < min((3.0 * m * q) - abs(tol * q), abs(e * q))) {
+          e = d;
+          d = p / q;
+        } else {
+          d = m;
+          e = d;
+        }
+      } else {
+        // Bisection
+        d = m;
+        e = d;
+      }
+      a = b;
+      fa = fb;
+      b += (abs(d) > tol) ? d : ((m > 0.0) ? tol : -tol);
+      fb = _difference(value, b);
+    }
+    return b;
+  }
+}
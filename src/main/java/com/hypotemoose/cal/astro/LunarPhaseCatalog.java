@@ -0,0 +1,251 @@
+/*****************************************************************************
+ * Copyright 2017 Chris Engelsma
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+package com.hypotemoose.cal.astro;
+
+import static java.lang.Math.*;
+
+/**
+ * A catalog of the quarters of the moon, indexed by lunation.
+ * <p>
+ * The times of each lunation's four quarters are computed with
+ * {@link Meeus#getLunationQuarters(int, double[], Accuracy)} and stored in
+ * order in a single array, so that the phases surrounding an instant are
+ * found by binary search. Each {@link Accuracy} has its own array. It
+ * starts with the century around the first instant requested and grows, a
+ * century at a time or more, whenever an instant outside it is requested.
+ * The catalog is thread-safe.
+ *
+ * @author Chris Engelsma
+ * @since 2017.08.11
+ */
+public final class LunarPhaseCatalog {
+
+  /**
+   * A quarter of the moon.
+   */
+  public enum Phase {
+    NEW_MOON(0),
+    FIRST_QUARTER(1),
+    FULL_MOON(2),
+    LAST_QUARTER(3);
+
+    private final int value;
+
+    Phase(int value) {
+      this.value = value;
+    }
+
+    public int getValue() {
+      return value;
+    }
+  }
+
+  /* Julian Day of the new moon of lunation 0 */
+  private static final double _epoch = 2451550.09765;
+  private static final double _synodicMonth = 29.530588853;
+  /* Least number of lunations added when the catalog grows */
+  private static final int _growth = 1237;
+  private static final Tier[] _tiers = _tiers();
+
+  /**
+   * Gets the time of the first phase after an instant.
+   *
+   * @param phase a phase.
+   * @param jd    a Julian Day.
+   * @return the Julian Day of the phase.
+   */
+  public static double next(Phase phase, double jd) {
+    return next(phase, jd, Accuracy.STANDARD);
+  }
+
+  /**
+   * Gets the time of the first phase after an instant, computed to an
+   * accuracy.
+   *
+   * @param phase    a phase.
+   * @param jd       a Julian Day.
+   * @param accuracy an accuracy.
+   * @return the Julian Day of the phase.
+   */
+  public static double next(Phase phase, double jd, Accuracy accuracy) {
+    int k = _lunation(jd);
+    Table t = _covering(_tiers[accuracy.ordinal()], k - 2, k + 2);
+    int i = _search(t, jd, false) + 1;
+    while (i % 4 != phase.getValue()) ++i;
+    return t.times[i];
+  }
+
+  /**
+   * Gets the time of the last phase before an instant.
+   *
+   * @param phase a phase.
+   * @param jd    a Julian Day.
+   * @return the Julian Day of the phase.
+   */
+  public static double previous(Phase phase, double jd) {
+    return previous(phase, jd, Accuracy.STANDARD);
+  }
+
+  /**
+   * Gets the time of the last phase before an instant, computed to an
+   * accuracy.
+   *
+   * @param phase    a phase.
+   * @param jd       a Julian Day.
+   * @param accuracy an accuracy.
+   * @return the Julian Day of the phase.
+   */
+  public static double previous(Phase phase, double jd, Accuracy accuracy) {
+    int k = _lunation(jd);
+    Table t = _covering(_tiers[accuracy.ordinal()], k - 2, k + 2);
+    int i = _search(t, jd, true);
+    while (i % 4 != phase.getValue()) --i;
+    return t.times[i];
+  }
+
+  /**
+   * Gets the times of a phase within an interval.
+   *
+   * @param phase a phase.
+   * @param from  the first Julian Day, inclusive.
+   * @param to    the last Julian Day, inclusive.
+   * @return the Julian Days of the phase, in order.
+   */
+  public static double[] between(Phase phase, double from, double to) {
+    return between(phase, from, to, Accuracy.STANDARD);
+  }
+
+  /**
+   * Gets the times of a phase within an interval, computed to an accuracy.
+   *
+   * @param phase    a phase.
+   * @param from     the first Julian Day, inclusive.
+   * @param to       the last Julian Day, inclusive.
+   * @param accuracy an accuracy.
+   * @return the Julian Days of the phase, in order.
+   */
+  public static double[] between(Phase phase, double from, double to,
+                                 Accuracy accuracy) {
+    if (to < from)
+      return new double[0];
+    Table t = _covering(_tiers[accuracy.ordinal()],
+      _lunation(from) - 2, _lunation(to) + 2);
+    int first = _search(t, from, true) + 1;
+    int last = _search(t, to, false);
+    while (first % 4 != phase.getValue()) ++first;
+    if (first > last)
+      return new double[0];
+    double[] times = new double[((last - first) / 4) + 1];
+    for (int i = 0; i < times.length; ++i)
+      times[i] = t.times[first + (4 * i)];
+    return times;
+  }
+
+/////////////////////////////////////////////////////////////////////////////
+// private
+
+  /**
+   * An immutable run of consecutive lunations.
+   */
+  private static final class Table {
+    private final int first;
+    private final int last;
+    private final double[] times;
+
+    Table(int first, int last, double[] times) {
+      this.first = first;
+      this.last = last;
+      this.times = times;
+    }
+  }
+
+  /**
+   * The growing table of one accuracy.
+   */
+  private static final class Tier {
+    private final Accuracy accuracy;
+    private volatile Table table = new Table(0, -1, new double[0]);
+
+    Tier(Accuracy accuracy) {
+      this.accuracy = accuracy;
+    }
+  }
+
+  private static Tier[] _tiers() {
+    Accuracy[] accuracies = Accuracy.values();
+    Tier[] tiers = new Tier[accuracies.length];
+    for (int i = 0; i < tiers.length; ++i)
+      tiers[i] = new Tier(accuracies[i]);
+    return tiers;
+  }
+
+  /* Estimates the lunation in progress at an instant, within one */
+  private static int _lunation(double jd) {
+    return (int) floor((jd - _epoch) / _synodicMonth);
+  }
+
+  /**
+   * Finds, by binary search, the index of the last phase that is strictly
+   * before an instant if exclusive, or at or before the instant otherwise.
+   */
+  private static int _search(Table t, double jd, boolean exclusive) {
+    int lo = 0, hi = t.times.length - 1;
+    while (lo <= hi) {
+      int mid = (lo + hi) >>> 1;
+      double v = t.times[mid];
+      if (v < jd || (!exclusive && v == jd))
+        lo = mid + 1;
+      else
+        hi = mid - 1;
+    }
+    return hi;
+  }
+
+  private static Table _covering(Tier tier, int first, int last) {
+    Table t = tier.table;
+    if (first >= t.first && last <= t.last)
+      return t;
+    synchronized (tier) {
+      t = tier.table;
+      if (first >= t.first && last <= t.last)
+        return t;
+      if (t.times.length == 0) {
+        t = _build(tier.accuracy, null, first - _growth, last + _growth);
+      } else {
+        if (first < t.first) first = min(first, t.first - _growth);
+        if (last > t.last) last = max(last, t.last + _growth);
+        t = _build(tier.accuracy, t, min(first, t.first), max(last, t.last));
+      }
+      tier.table = t;
+      return t;
+    }
+  }
+
+  private static Table _build(Accuracy accuracy, Table old, int first, int last) {
+    double[] times = new double[4 * (last - first + 1)];
+    double[] quarters = new double[4];
+    for (int k = first; k <= last; ++k) {
+      if (old != null && k >= old.first && k <= old.last) {
+        System.arraycopy(old.times, 0, times, 4 * (k - first), old.times.length);
+        k = old.last;
+        continue;
+      }
+      Meeus.getLunationQuarters(k, quarters, accuracy);
+      System.arraycopy(quarters, 0, times, 4 * (k - first), 4);
+    }
+    return new Table(first, last, times);
+  }
+}
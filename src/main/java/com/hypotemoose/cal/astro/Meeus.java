@@ -34,6 +34,16 @@ public class Meeus {
   public static final double TROPICAL_YEAR = 365.24219878;
   public static final double ECLIPTIC_LONG_EPOCH = 278.833540;
   public static final double ECLIPTIC_LONG_PERIGREE = 282.596403;
+  /**
+   * The equinoxes and solstices of the years -1000 to 3000, indexed by
+   * {@link Season#getValue()}.
+   */
+  public static final YearTable EQUINOXES = new YearTable(-1000, 3000, 4) {
+    protected void compute(int year, double[] values, int offset) {
+      for (Season season : Season.values())
+        values[offset + season.getValue()] = computeEquinox(year, season);
+    }
+  };
   /* Coefficients for computing lunar quarters */
   private static final double[][] tblMoonA =
     {
@@ -58,10 +68,58 @@ public class Meeus {
         0.00032, -0.00028, 0.00027, -0.00017},
 
     };
+  /* The periodic terms of tblMoonA for the new and full moons, and for the
+     first and last quarters: multiples of M, M', F and Omega, and the
+     power of E */
+  private static final byte[][][] tblMoonTerms =
+    {
+      {
+        {0, 1, 0, 0, 0}, {1, 0, 0, 0, 1}, {0, 2, 0, 0, 0}, {0, 0, 2, 0, 0},
+        {-1, 1, 0, 0, 1}, {1, 1, 0, 0, 1}, {2, 0, 0, 0, 2}, {0, 1, -2, 0, 0},
+        {0, 1, 2, 0, 0}, {1, 2, 0, 0, 1}, {0, 3, 0, 0, 0}, {1, 0, 2, 0, 1},
+        {1, 0, -2, 0, 1}, {-1, 2, 0, 0, 1}, {0, 0, 0, 1, 0}, {2, 1, 0, 0, 0}
+      },
+      {
+        {0, 1, 0, 0, 0}, {1, 0, 0, 0, 1}, {1, 1, 0, 0, 1}, {0, 2, 0, 0, 0},
+        {0, 0, 2, 0, 0}, {-1, 1, 0, 0, 1}, {2, 0, 0, 0, 2}, {0, 1, -2, 0, 0},
+        {0, 1, 2, 0, 0}, {0, 3, 0, 0, 0}, {-1, 2, 0, 0, 1}, {1, 0, 2, 0, 1},
+        {1, 0, -2, 0, 1}, {2, 1, 0, 0, 2}, {1, 2, 0, 0, 1}, {0, 0, 0, 1, 0}
+      }
+    };
   private static final double[] tblMoonB =
     {
       0.000325, 0.000165, 0.000164, 0.000126, 0.000110, 0.000062, 0.000060
     };
+  /* The seven smallest planetary arguments: amplitude, phase and rate */
+  private static final double[][] tblMoonPlanets =
+    {
+      {0.000056, 154.84, 7.306860},
+      {0.000047, 34.52, 27.261239},
+      {0.000042, 207.19, 0.121824},
+      {0.000040, 291.34, 1.844379},
+      {0.000037, 161.72, 24.198154},
+      {0.000035, 239.56, 25.513099},
+      {0.000023, 331.55, 3.592518}
+    };
+  /* The smallest periodic terms of the new and full moons, and of the
+     first and last quarters: coefficient and multiples of M, M' and F */
+  private static final double[][][] tblMoonSmall =
+    {
+      {
+        {0.00004, 0, 2, -2}, {0.00004, 3, 0, 0},
+        {0.00003, 1, 1, -2}, {0.00003, 0, 2, 2},
+        {-0.00003, 1, 1, 2}, {0.00003, -1, 1, 2},
+        {-0.00002, -1, 1, -2}, {-0.00002, 1, 3, 0},
+        {0.00002, 0, 4, 0}
+      },
+      {
+        {-0.00005, -1, 1, -2}, {0.00004, 0, 2, 2},
+        {-0.00004, 1, 1, 2}, {0.00004, -2, 1, 0},
+        {0.00003, 1, 1, -2}, {0.00003, 3, 0, 0},
+        {0.00002, 0, 2, -2}, {0.00002, -1, 1, 2},
+        {-0.00002, 1, 3, 0}
+      }
+    };
   /* For years -1000 to +1000 */
   private static final double[][] tblA =
     {
@@ -127,161 +185,64 @@ public class Meeus {
     50.5, 52.2, 53.8, 54.9, 55.8, 56.9, 58.3, 60.0, 61.6, 63.0,
     65.0, 66.6
   };
-  // Constants for computing obliquity of the ecliptic.
-  private static final double[] oterms = {
-    -4680.93,
-    -1.55,
-    1999.25,
-    -51.38,
-    -249.67,
-    -39.05,
-    7.12,
-    27.87,
-    5.79,
-    2.45
-  };
-  private static final double[] nutArgMult = {
-    0.0, 0.0, 0.0, 0.0, 1.0,
-    -2.0, 0.0, 0.0, 2.0, 2.0,
-    0.0, 0.0, 0.0, 2.0, 2.0,
-    0.0, 0.0, 0.0, 0.0, 2.0,
-    0.0, 1.0, 0.0, 0.0, 0.0,
-    0.0, 0.0, 1.0, 0.0, 0.0,
-    -2.0, 1.0, 0.0, 2.0, 2.0,
-    0.0, 0.0, 0.0, 2.0, 1.0,
-    0.0, 0.0, 1.0, 2.0, 2.0,
-    -2.0, 1.0, 0.0, 2.0, 2.0,
-    -2.0, 0.0, 1.0, 0.0, 0.0,
-    -2.0, 0.0, 0.0, 2.0, 1.0,
-    0.0, 0.0, 1.0, 2.0, 2.0,
-    2.0, 0.0, 0.0, 0.0, 0.0,
-    0.0, 0.0, 1.0, 0.0, 1.0,
-    2.0, 0.0, 1.0, 2.0, 2.0,
-    0.0, 0.0, 1.0, 0.0, 1.0,
-    0.0, 0.0, 1.0, 2.0, 1.0,
-    -2.0, 0.0, 2.0, 0.0, 0.0,
-    0.0, 0.0, 2.0, 2.0, 1.0,
-    2.0, 0.0, 0.0, 2.0, 2.0,
-    0.0, 0.0, 2.0, 2.0, 2.0,
-    0.0, 0.0, 2.0, 0.0, 0.0,
-    -2.0, 0.0, 1.0, 2.0, 2.0,
-    0.0, 0.0, 0.0, 2.0, 0.0,
-    -2.0, 0.0, 0.0, 2.0, 0.0,
-    0.0, 0.0, 1.0, 2.0, 1.0,
-    0.0, 2.0, 0.0, 0.0, 0.0,
-    2.0, 0.0, 1.0, 0.0, 1.0,
-    -2.0, 2.0, 0.0, 2.0, 2.0,
-    0.0, 1.0, 0.0, 0.0, 1.0,
-    -2.0, 0.0, 1.0, 0.0, 1.0,
-    0.0, 1.0, 0.0, 0.0, 1.0,
-    0.0, 0.0, 2.0, 2.0, 0.0,
-    2.0, 0.0, 1.0, 2.0, 1.0,
-    2.0, 0.0, 1.0, 2.0, 2.0,
-    0.0, 1.0, 0.0, 2.0, 2.0,
-    -2.0, 1.0, 1.0, 0.0, 0.0,
-    0.0, 1.0, 0.0, 2.0, 2.0,
-    2.0, 0.0, 0.0, 2.0, 1.0,
-    2.0, 0.0, 1.0, 0.0, 0.0,
-    -2.0, 0.0, 2.0, 2.0, 2.0,
-    -2.0, 0.0, 1.0, 2.0, 1.0,
-    2.0, 0.0, 2.0, 0.0, 1.0,
-    2.0, 0.0, 0.0, 0.0, 1.0,
-    0.0, 1.0, 1.0, 0.0, 0.0,
-    -2.0, 1.0, 0.0, 2.0, 1.0,
-    -2.0, 0.0, 0.0, 0.0, 1.0,
-    0.0, 0.0, 2.0, 2.0, 1.0,
-    -2.0, 0.0, 2.0, 0.0, 1.0,
-    -2.0, 1.0, 0.0, 2.0, 1.0,
-    0.0, 0.0, 1.0, 2.0, 0.0,
-    -1.0, 0.0, 1.0, 0.0, 0.0,
-    -2.0, 1.0, 0.0, 0.0, 0.0,
-    1.0, 0.0, 0.0, 0.0, 0.0,
-    0.0, 0.0, 1.0, 2.0, 0.0,
-    -1.0, 1.0, 1.0, 0.0, 0.0,
-    0.0, 1.0, 1.0, 0.0, 0.0,
-    0.0, 1.0, 1.0, 2.0, 2.0,
-    2.0, 1.0, 1.0, 2.0, 2.0,
-    0.0, 0.0, 2.0, 2.0, 2.0,
-    0.0, 0.0, 3.0, 2.0, 2.0,
-    2.0, 1.0, 0.0, 2.0, 2.0
-  };
-  private static final double[] nutArgCoeff = {
-    -171996.0, -1742.0, 92095.0, 89.0,        /*  0,  0,  0,  0,  1 */
-    -13187.0, -16.0, 5736.0, -31.0,        /* -2,  0,  0,  2,  2 */
-    -2274.0, -2.0, 977.0, -5.0,        /*  0,  0,  0,  2,  2 */
-    2062.0, 2.0, -895.0, 5.0,        /*  0,  0,  0,  0,  2 */
-    1426.0, -34.0, 54.0, -1.0,        /*  0,  1,  0,  0,  0 */
-    712.0, 1.0, -7.0, 0.0,        /*  0,  0,  1,  0,  0 */
-    -517.0, 12.0, 224.0, -6.0,        /* -2,  1,  0,  2,  2 */
-    -386.0, -4.0, 200.0, 0.0,        /*  0,  0,  0,  2,  1 */
-    -301.0, 0.0, 129.0, -1.0,        /*  0,  0,  1,  2,  2 */
-    217.0, -5.0, -95.0, 3.0,        /* -2, -1,  0,  2,  2 */
-    -158.0, 0.0, 0.0, 0.0,        /* -2,  0,  1,  0,  0 */
-    129.0, 1.0, -70.0, 0.0,        /* -2,  0,  0,  2,  1 */
-    123.0, 0.0, -53.0, 0.0,        /*  0,  0, -1,  2,  2 */
-    63.0, 0.0, 0.0, 0.0,        /*  2,  0,  0,  0,  0 */
-    63.0, 1.0, -33.0, 0.0,        /*  0,  0,  1,  0,  1 */
-    -59.0, 0.0, 26.0, 0.0,        /*  2,  0, -1,  2,  2 */
-    -58.0, -1.0, 32.0, 0.0,        /*  0,  0, -1,  0,  1 */
-    -51.0, 0.0, 27.0, 0.0,        /*  0,  0,  1,  2,  1 */
-    48.0, 0.0, 0.0, 0.0,        /* -2,  0,  2,  0,  0 */
-    46.0, 0.0, -24.0, 0.0,        /*  0,  0, -2,  2,  1 */
-    -38.0, 0.0, 16.0, 0.0,        /*  2,  0,  0,  2,  2 */
-    -31.0, 0.0, 13.0, 0.0,        /*  0,  0,  2,  2,  2 */
-    29.0, 0.0, 0.0, 0.0,        /*  0,  0,  2,  0,  0 */
-    29.0, 0.0, -12.0, 0.0,        /* -2,  0,  1,  2,  2 */
-    26.0, 0.0, 0.0, 0.0,        /*  0,  0,  0,  2,  0 */
-    -22.0, 0.0, 0.0, 0.0,        /* -2,  0,  0,  2,  0 */
-    21.0, 0.0, -10.0, 0.0,        /*  0,  0, -1,  2,  1 */
-    17.0, -1.0, 0.0, 0.0,        /*  0,  2,  0,  0,  0 */
-    16.0, 0.0, -8.0, 0.0,        /*  2,  0, -1,  0,  1 */
-    -16.0, 1.0, 7.0, 0.0,        /* -2,  2,  0,  2,  2 */
-    -15.0, 0.0, 9.0, 0.0,        /*  0,  1,  0,  0,  1 */
-    -13.0, 0.0, 7.0, 0.0,        /* -2,  0,  1,  0,  1 */
-    -12.0, 0.0, 6.0, 0.0,        /*  0, -1,  0,  0,  1 */
-    11.0, 0.0, 0.0, 0.0,        /*  0,  0,  2, -2,  0 */
-    -10.0, 0.0, 5.0, 0.0,        /*  2,  0, -1,  2,  1 */
-    -8.0, 0.0, 3.0, 0.0,        /*  2,  0,  1,  2,  2 */
-    7.0, 0.0, -3.0, 0.0,        /*  0,  1,  0,  2,  2 */
-    -7.0, 0.0, 0.0, 0.0,        /* -2,  1,  1,  0,  0 */
-    -7.0, 0.0, 3.0, 0.0,        /*  0, -1,  0,  2,  2 */
-    -7.0, 0.0, 3.0, 0.0,        /*  2,  0,  0,  2,  1 */
-    6.0, 0.0, 0.0, 0.0,        /*  2,  0,  1,  0,  0 */
-    6.0, 0.0, -3.0, 0.0,        /* -2,  0,  2,  2,  2 */
-    6.0, 0.0, -3.0, 0.0,        /* -2,  0,  1,  2,  1 */
-    -6.0, 0.0, 3.0, 0.0,        /*  2,  0, -2,  0,  1 */
-    -6.0, 0.0, 3.0, 0.0,        /*  2,  0,  0,  0,  1 */
-    5.0, 0.0, 0.0, 0.0,        /*  0, -1,  1,  0,  0 */
-    -5.0, 0.0, 3.0, 0.0,        /* -2, -1,  0,  2,  1 */
-    -5.0, 0.0, 3.0, 0.0,        /* -2,  0,  0,  0,  1 */
-    -5.0, 0.0, 3.0, 0.0,        /*  0,  0,  2,  2,  1 */
-    4.0, 0.0, 0.0, 0.0,        /* -2,  0,  2,  0,  1 */
-    4.0, 0.0, 0.0, 0.0,        /* -2,  1,  0,  2,  1 */
-    4.0, 0.0, 0.0, 0.0,        /*  0,  0,  1, -2,  0 */
-    -4.0, 0.0, 0.0, 0.0,        /* -1,  0,  1,  0,  0 */
-    -4.0, 0.0, 0.0, 0.0,        /* -2,  1,  0,  0,  0 */
-    -4.0, 0.0, 0.0, 0.0,        /*  1,  0,  0,  0,  0 */
-    3.0, 0.0, 0.0, 0.0,        /*  0,  0,  1,  2,  0 */
-    -3.0, 0.0, 0.0, 0.0,        /* -1, -1,  1,  0,  0 */
-    -3.0, 0.0, 0.0, 0.0,        /*  0,  1,  1,  0,  0 */
-    -3.0, 0.0, 0.0, 0.0,        /*  0, -1,  1,  2,  2 */
-    -3.0, 0.0, 0.0, 0.0,        /*  2, -1, -1,  2,  2 */
-    -3.0, 0.0, 0.0, 0.0,        /*  0,  0, -2,  2,  2 */
-    -3.0, 0.0, 0.0, 0.0,        /*  0,  0,  3,  2,  2 */
-    -3.0, 0.0, 0.0, 0.0         /*  2, -1,  0,  2,  2 */
-  };
+
+  /* Solar contexts reused by each thread, indexed by accuracy */
+  private static final ThreadLocal<SolarContext[]> _contexts =
+    new ThreadLocal<SolarContext[]>() {
+      protected SolarContext[] initialValue() {
+        Accuracy[] accuracies = Accuracy.values();
+        SolarContext[] contexts = new SolarContext[accuracies.length];
+        for (int i = 0; i < contexts.length; ++i)
+          contexts[i] = new SolarContext(J2000, accuracies[i]);
+        return contexts;
+      }
+    };
 
 /////////////////////////////////////////////////////////////////////////////
 // private
 
   /**
    * The Julian Ephemeris day of an equinox or solstice.
+   * <p>
+   * Years from -1000 to 3000 are served from a table that is computed
+   * lazily; other years are computed directly.
    *
    * @param year   The year.
    * @param season The season.
    * @return The Julian Day of the equinox.
    */
   public static double equinox(int year, Season season) {
+    if (EQUINOXES.contains(year))
+      return EQUINOXES.get(year, season.getValue());
+    return computeEquinox(year, season);
+  }
+
+  /**
+   * The Julian Ephemeris day of an equinox or solstice, computed to a given
+   * accuracy. {@link Accuracy#FAST} returns the mean instant, without the
+   * periodic terms; the other tiers are the same as
+   * {@link #equinox(int, Season)}.
+   *
+   * @param year     The year.
+   * @param season   The season.
+   * @param accuracy The accuracy.
+   * @return The Julian Day of the equinox.
+   */
+  public static double equinox(int year, Season season, Accuracy accuracy) {
+    if (accuracy == Accuracy.FAST)
+      return mean(year, season);
+    return equinox(year, season);
+  }
+
+  /**
+   * Computes the Julian Ephemeris day of an equinox or solstice from the
+   * periodic series, without consulting the table.
+   *
+   * @param year   The year.
+   * @param season The season.
+   * @return The Julian Day of the equinox.
+   */
+  protected static double computeEquinox(int year, Season season) {
     double jde;
     double jdeo, t, w, lam, s;
 
@@ -339,24 +300,20 @@ public class Meeus {
    * @return The equation of time as a fraction of a day.
    */
   public static double equationOfTime(double jd) {
-    double tau, l0, alpha, dPsi, epsilon, e;
-
-    tau = (jd - J2000) / JULIAN_MILLENIUM;
-    l0 = 280.4664567 + (360007.6982779 * tau) +
-      (0.03032028 * tau * tau) +
-      ((tau * tau * tau) / 49931.0) -
-      (pow(tau, 4) / 15300.0) -
-      (pow(tau, 5) / 2000000.0);
-
-    l0 = fixAngle(l0);
-    alpha = sunPosition(jd)[10];
-    dPsi = nutation(jd)[0];
-    epsilon = obliquityEquation(jd) + nutation(jd)[1];
-
-    e = l0 + (-0.0057183) - alpha + (dPsi * dcos(epsilon));
-    e -= 20.0 * (floor(e / 20.0));
-    e /= (24 * 60);
-    return e;
+    return _context(jd, Accuracy.STANDARD).getEquationOfTime();
+  }
+
+  /**
+   * The Equation of Time, computed to a given accuracy.
+   * {@link Accuracy#FAST} takes the nutation from its four largest terms;
+   * the other tiers are the same as {@link #equationOfTime(double)}.
+   *
+   * @param jd       The Julian Day.
+   * @param accuracy The accuracy.
+   * @return The equation of time as a fraction of a day.
+   */
+  public static double equationOfTime(double jd, Accuracy accuracy) {
+    return _context(jd, accuracy).getEquationOfTime();
   }
 
   /**
@@ -370,17 +327,7 @@ public class Meeus {
    * @return the obliquity of the ecliptic.
    */
   public static double obliquityEquation(double jd) {
-    double eps = 0.0;
-    double u, v;
-    v = (jd - J2000) / (JULIAN_CENTURY * 100);
-    u = v;
-    if (abs(u) < 1.0) {
-      for (int i = 0; i < 10; ++i) {
-        eps += (oterms[i] / 3600.0) * v;
-        v *= u;
-      }
-    }
-    return eps;
+    return _context(jd, Accuracy.STANDARD).getObliquity();
   }
 
   /**
@@ -393,45 +340,19 @@ public class Meeus {
    * @return An array containing parameters of the Sun's position.
    */
   public static double[] sunPosition(double jd) {
-    double t, t2, l0, m, e, c, sunLong, sunAnomaly, sunRadius,
-      w, lam, epsilon, epsilon0, alpha, delta,
-      alphaApp, deltaApp;
-
-    t = (jd - J2000) / JULIAN_CENTURY;
-    t2 = t * t;
-    l0 = fixAngle(280.46646 + (36000.76983 * t) + (0.0003032 * t2));
-    m = fixAngle(357.52911 + (35999.05029 * t) + (-0.0001537 * t2));
-    e = 0.016708634 + (-0.000042037 * t) + (-0.0000001267 * t2);
-    c = ((1.914602 + (-0.004817 * t) + (-0.000014 * t2)) * dsin(m)) +
-      ((0.019993 - (0.000101 * t)) * dsin(2 * m)) +
-      (0.000289 * dsin(3 * m));
-    sunLong = l0 + c;
-    sunAnomaly = m + c;
-    sunRadius = (1.000001018 * (1 - (e * e))) / (1 + (e * dcos(sunAnomaly)));
-    w = 125.04 - (1934.136 * t);
-    lam = sunLong + (-0.00569) + (-0.00478 * dsin(w));
-    epsilon0 = obliquityEquation(jd);
-    epsilon = epsilon0 + (0.00256 * dcos(w));
-    alpha = rtd(atan2(dcos(epsilon0) * dsin(sunLong), dcos(sunLong)));
-    alpha = fixAngle(alpha);
-    delta = rtd(asin(dsin(epsilon0) * dsin(sunLong)));
-    alphaApp = rtd(atan2(dcos(epsilon) * dsin(lam), dcos(lam)));
-    alphaApp = fixAngle(alphaApp);
-    deltaApp = rtd(asin(dsin(epsilon) * dsin(lam)));
-    return new double[]{
-      l0,          //  [0] Geometric mean longitude of the Sun
-      m,           //  [1] Mean anomaly of the Sun
-      e,           //  [2] Eccentricity of the Earth's orbit
-      c,           //  [3] Sun's equation of the center
-      sunLong,     //  [4] Sun's true longitude
-      sunAnomaly,  //  [5] Sun's true anomaly
-      sunRadius,   //  [6] Sun's radius vector in AU
-      lam,         //  [7] Sun's apparent longitude at true equinox of date
-      alpha,       //  [8] Sun's true right ascension
-      delta,       //  [9] Sun's true declination
-      alphaApp,    // [10] Sun's apparent right ascension
-      deltaApp     // [11] Sun's apparent declination
-    };
+    return sunPosition(jd, new double[12]);
+  }
+
+  /**
+   * The Sun's position, written into a caller-supplied array.
+   *
+   * @param jd       A Julian Day.
+   * @param position An array[12] to receive the Sun's position.
+   * @return The position array.
+   * @see #sunPosition(double)
+   */
+  public static double[] sunPosition(double jd, double[] position) {
+    return _context(jd, Accuracy.STANDARD).getSunPosition(position);
   }
 
   /**
@@ -442,37 +363,47 @@ public class Meeus {
    * @return the nutation.
    */
   public static double[] nutation(double jd) {
-    double dPsi, dEpsilon;
-    double t, t2, t3, to10, dp = 0.0, de = 0.0, ang;
-    double[] ta = new double[5];
-
-    t = (jd - 2451545.0) / (36525.0);
-    t2 = t * t;
-    t3 = t2 * t;
-
-    ta[0] = dtr(297.850363 + 445267.111480 * t - 0.0019142 * t2 + t3 / 189474.0);
-    ta[1] = dtr(357.527720 + 35999.050340 * t - 0.0001603 * t2 - t3 / 300000.0);
-    ta[2] = dtr(134.962980 + 477198.867398 * t + 0.0086972 * t2 + t3 / 56250.0);
-    ta[3] = dtr(93.271910 + 483202.017538 * t - 0.0036825 * t2 + t3 / 327170.0);
-    ta[4] = dtr(125.044520 - 1934.136261 * t + 0.0020708 * t2 + t3 / 450000.0);
-
-    for (int i = 0; i < 5; ++i) fixAngler(ta[i]);
-
-    to10 = t / 10.0;
-    for (int i = 0; i < 63; ++i) {
-      ang = 0.0;
-      for (int j = 0; j < 5; ++j) {
-        int k = i * 5 + j;
-        if (nutArgMult[k] != 0) ang += nutArgMult[k] * ta[j];
-      }
-      dp += (nutArgCoeff[(i * 4) + 0] + nutArgCoeff[(i * 4) + 1] * to10) * sin(ang);
-      de += (nutArgCoeff[(i * 4) + 2] + nutArgCoeff[(i * 4) + 3] * to10) * cos(ang);
-    }
+    return nutation(jd, new double[2]);
+  }
 
-    dPsi = dp / (3600.0 * 10000.0);
-    dEpsilon = de / (3600.0 * 10000.0);
+  /**
+   * The nutation in longitude and obliquity, written into a caller-supplied
+   * array.
+   *
+   * @param jd       a Julian date.
+   * @param nutation an array[2] to receive delta-Psi and delta-Epsilon.
+   * @return the nutation array.
+   */
+  public static double[] nutation(double jd, double[] nutation) {
+    SolarContext sc = _context(jd, Accuracy.STANDARD);
+    nutation[0] = sc.getNutationInLongitude();
+    nutation[1] = sc.getNutationInObliquity();
+    return nutation;
+  }
 
-    return new double[]{dPsi, dEpsilon};
+  /**
+   * The nutation in longitude and obliquity, computed to a given accuracy.
+   * {@link Accuracy#FAST} keeps only the four largest terms of the series;
+   * the other tiers are the same as {@link #nutation(double, double[])}.
+   *
+   * @param jd       a Julian date.
+   * @param nutation an array[2] to receive delta-Psi and delta-Epsilon.
+   * @param accuracy the accuracy.
+   * @return the nutation array.
+   */
+  public static double[] nutation(double jd, double[] nutation,
+                                  Accuracy accuracy) {
+    if (accuracy != Accuracy.FAST)
+      return nutation(jd, nutation);
+    double t = (jd - J2000) / JULIAN_CENTURY;
+    double omega = 125.04452 - (1934.136261 * t);
+    double l = 280.4665 + (36000.7698 * t);
+    double lp = 218.3165 + (481267.8813 * t);
+    nutation[0] = ((-17.20 * dsin(omega)) - (1.32 * dsin(2.0 * l)) -
+      (0.23 * dsin(2.0 * lp)) + (0.21 * dsin(2.0 * omega))) / 3600.0;
+    nutation[1] = ((9.20 * dcos(omega)) + (0.57 * dcos(2.0 * l)) +
+      (0.10 * dcos(2.0 * lp)) - (0.09 * dcos(2.0 * omega))) / 3600.0;
+    return nutation;
   }
 
   /**
@@ -484,25 +415,9 @@ public class Meeus {
    */
   public static double getLunarPhase(double jd) {
     double t = (jd - J2000) / JULIAN_CENTURY;
-    double t2 = t * t;
-    double t3 = t2 * t;
-    double t4 = t3 * t;
-    // Moon mean elongation D
-    double d = 297.8502042 +
-      t * 445267.1115168 -
-      t2 * 0.0016300 +
-      t3 / 545868.0 -
-      t4 / 113065000.0;
-    // Moon mean anomaly M'
-    double mp = 134.9634114 +
-      t * 477198.8675055 +
-      t2 * 0.0087414 +
-      t3 / 69699.0 -
-      t4 / 14712000.0;
-    double m = 357.5291092 +
-      t * 35999.0502909 -
-      t2 * 0.0001536 +
-      t3 / 24490000.0;
+    double d = moonMeanElongation(t);
+    double mp = moonMeanAnomaly(t);
+    double m = sunMeanAnomaly(t);
     double phase = 180.0 - d -
       6.289 * dsin(mp) + 2.1 * dsin(m) - 1.274 * dsin(2 * d - mp) -
       0.658 * dsin(2 * d) - 0.214 * dsin(2 * mp) - 0.11 * dsin(d);
@@ -531,8 +446,37 @@ public class Meeus {
    * @return an array[4] containing the next lunar cycle in Julian days.
    */
   public static double[] getMoonQuarters(int year, int month, int day) {
-    double[] quarters = new double[4];
+    return getMoonQuarters(year, month, day, new double[4]);
+  }
+
+  /**
+   * Gets the dates of the next four quarters of the moon from a given day,
+   * without allocating.
+   *
+   * @param year     a year.
+   * @param month    a month.
+   * @param day      a day.
+   * @param quarters an array[4] to receive the next lunar cycle.
+   * @return the quarters array.
+   * @see #getMoonQuarters(int, int, int)
+   */
+  public static double[] getMoonQuarters(int year, int month, int day,
+                                         double[] quarters) {
     double k = floor((year + ((month - 1) + day / 30.0) / 12.0 - 2000) * 12.3685);
+    return getLunationQuarters((int) k, quarters);
+  }
+
+  /**
+   * Gets the dates of the four quarters of a lunation. Lunation 0 begins
+   * with the new moon of 2000 January 6; earlier lunations are negative.
+   *
+   * @param lunation a lunation number.
+   * @param quarters an array[4] to receive the new moon, first quarter,
+   *                 full moon and last quarter in Julian days.
+   * @return the quarters array.
+   */
+  public static double[] getLunationQuarters(int lunation, double[] quarters) {
+    double k = lunation;
     // Time in Julian centuries since 2000
     double t = k / 1236.85;
     double t2 = t * t;
@@ -566,15 +510,13 @@ public class Meeus {
 
     // The full planetary arguments list include 14 terms
     // Only using the 7 most significant.
-    double[] args = new double[]{
-      fixAngle(299.77 + 0.107408 * k - 0.009173 * t2),
-      fixAngle(251.88 + 0.016321 * k),
-      fixAngle(251.83 + 26.651886 * k),
-      fixAngle(349.42 + 36.412478 * k),
-      fixAngle(84.88 + 18.206239 * k),
-      fixAngle(141.74 + 53.303771 * k),
-      fixAngle(207.14 + 2.453732 * k)
-    };
+    double a1 = fixAngle(299.77 + 0.107408 * k - 0.009173 * t2);
+    double a2 = fixAngle(251.88 + 0.016321 * k);
+    double a3 = fixAngle(251.83 + 26.651886 * k);
+    double a4 = fixAngle(349.42 + 36.412478 * k);
+    double a5 = fixAngle(84.88 + 18.206239 * k);
+    double a6 = fixAngle(141.74 + 53.303771 * k);
+    double a7 = fixAngle(207.14 + 2.453732 * k);
 
     double jde0 = 2451550.09765 +
       29.530588853 * k +
@@ -583,15 +525,13 @@ public class Meeus {
       0.00000000073 * t4;
     jde0 -= 58.184 / (24.0 * 60.0 * 60.0);
 
-    double[] cnfq = null;
     double coeffA, coeffB;
     double adj;
     double jde;
 
     for (int iq = 0; iq < 4; ++iq) {
 
-      cnfq = computeLunarCoefficients(iq, m, mp, f, omega, e);
-      coeffA = 0;
+      coeffA = _lunarPeriodicTerms(iq, m, mp, f, omega, e);
       coeffB = 0;
 
       // Quarter adjustment.
@@ -603,15 +543,18 @@ public class Meeus {
         0.00002 * dcos(2 * f);
 
       jde = jde0 + (29.530588853 * (iq * 0.25));
-      for (int i = 0; i < 16; ++i)
-        coeffA += tblMoonA[iq][i] * cnfq[i];
       jde += coeffA;
 
       if (iq == 1) jde += adj;
       if (iq == 3) jde -= adj;
 
-      for (int i = 0; i < 7; ++i)
-        coeffB += tblMoonB[i] * dsin(args[i]);
+      coeffB += tblMoonB[0] * dsin(a1);
+      coeffB += tblMoonB[1] * dsin(a2);
+      coeffB += tblMoonB[2] * dsin(a3);
+      coeffB += tblMoonB[3] * dsin(a4);
+      coeffB += tblMoonB[4] * dsin(a5);
+      coeffB += tblMoonB[5] * dsin(a6);
+      coeffB += tblMoonB[6] * dsin(a7);
       quarters[iq] = jde + coeffB;
 
       m = fixAngle(m + 29.10535669 * 0.25);
@@ -619,51 +562,123 @@ public class Meeus {
       f = fixAngle(f + 390.67050274 * 0.25);
       omega = fixAngle(omega - 1.56375580 * 0.25);
 
-      args[0] = fixAngle(args[0] + 0.107408 * 0.25);
-      args[1] = fixAngle(args[1] + 0.016321 * 0.25);
-      args[2] = fixAngle(args[2] + 26.651886 * 0.25);
-      args[3] = fixAngle(args[3] + 36.412478 * 0.25);
-      args[4] = fixAngle(args[4] + 18.206239 * 0.25);
-      args[5] = fixAngle(args[5] + 53.303771 * 0.25);
-      args[6] = fixAngle(args[6] + 2.453732 * 0.25);
+      a1 = fixAngle(a1 + 0.107408 * 0.25);
+      a2 = fixAngle(a2 + 0.016321 * 0.25);
+      a3 = fixAngle(a3 + 26.651886 * 0.25);
+      a4 = fixAngle(a4 + 36.412478 * 0.25);
+      a5 = fixAngle(a5 + 18.206239 * 0.25);
+      a6 = fixAngle(a6 + 53.303771 * 0.25);
+      a7 = fixAngle(a7 + 2.453732 * 0.25);
     }
 
     return quarters;
   }
 
+  /**
+   * Gets the dates of the four quarters of a lunation, computed to a given
+   * accuracy. {@link Accuracy#FAST} keeps only the two largest periodic
+   * terms; {@link Accuracy#PRECISE} adds the seven smallest planetary
+   * arguments and the smallest periodic terms, which
+   * {@link #getLunationQuarters(int, double[])} leaves out.
+   *
+   * @param lunation a lunation number.
+   * @param quarters an array[4] to receive the new moon, first quarter,
+   *                 full moon and last quarter in Julian days.
+   * @param accuracy the accuracy.
+   * @return the quarters array.
+   */
+  public static double[] getLunationQuarters(int lunation, double[] quarters,
+                                             Accuracy accuracy) {
+    if (accuracy == Accuracy.STANDARD)
+      return getLunationQuarters(lunation, quarters);
+    if (accuracy == Accuracy.PRECISE)
+      getLunationQuarters(lunation, quarters);
+    for (int iq = 0; iq < 4; ++iq) {
+      double k = lunation + (iq * 0.25);
+      double t = k / 1236.85;
+      double t2 = t * t;
+      double m = fixAngle(2.5534 + (k * 29.10535669) - (t2 * 0.0000218));
+      double mp = fixAngle(201.5643 + (k * 385.81693528) + (t2 * 0.0107438));
+      if (accuracy == Accuracy.FAST) {
+        double e = 1 - (0.002516 * t) - (0.0000074 * t2);
+        double[] a = tblMoonA[iq];
+        double jde = 2451550.09765 + (29.530588853 * k) + (0.0001337 * t2);
+        jde -= 58.184 / (24.0 * 60.0 * 60.0);
+        quarters[iq] = jde + (a[0] * dsin(mp)) + (a[1] * e * dsin(m));
+      } else {
+        double f = fixAngle(160.7108 + (k * 390.67050274) - (t2 * 0.0016341));
+        double s = 0;
+        for (double[] p : tblMoonPlanets)
+          s += p[0] * dsin(p[1] + (p[2] * k));
+        for (double[] c : tblMoonSmall[iq % 2])
+          s += c[0] * dsin((c[1] * m) + (c[2] * mp) + (c[3] * f));
+        quarters[iq] += s;
+      }
+    }
+    return quarters;
+  }
+
   protected static double[] computeLunarCoefficients(
     int quarter, double m, double mp, double f, double omega, double e) {
-    double c01 = dsin(mp);
-    double c02 = dsin(m);
-    double c03 = dsin(2 * mp);
-    double c04 = dsin(2 * f);
-    double c05 = dsin(mp - m);
-    double c06 = dsin(mp + m);
-    double c07 = dsin(2 * m);
-    double c08 = dsin(mp - 2 * f);
-    double c09 = dsin(mp + 2 * f);
-    double c10 = dsin(2 * mp + m);
-    double c11 = dsin(3 * mp);
-    double c12 = dsin(m + 2 * f);
-    double c13 = dsin(m - 2 * f);
-    double c14 = dsin(2 * mp - m);
-    double c15 = dsin(omega);
-    double c16 = dsin(mp + 2 * m);
-
-    // Coefficients for new and full moons.
-    if (quarter % 2 == 0)
-      return new double[]{
-        c01, e * c02, c03, c04,
-        e * c05, e * c06, e * e * c07, c08,
-        c09, e * c10, c11, e * c12,
-        e * c13, e * c14, c15, c16};
-    else
-      return new double[]{
-        c01, e * c02, e * c06, c03,
-        c04, e * c05, e * e * c07, c08,
-        c09, c11, e * c14, e * c12,
-        e * c13, e * e * c16, e * c10, c15
-      };
+    return computeLunarCoefficients(quarter, m, mp, f, omega, e, new double[16]);
+  }
+
+  protected static double[] computeLunarCoefficients(
+    int quarter, double m, double mp, double f, double omega, double e,
+    double[] c) {
+    byte[][] terms = tblMoonTerms[quarter % 2];
+    for (int i = 0; i < terms.length; ++i)
+      c[i] = _lunarTerm(terms[i], m, mp, f, omega, e);
+    return c;
+  }
+
+  /**
+   * The Moon's mean elongation D.
+   *
+   * @param t the time in Julian centuries since J2000.
+   * @return the mean elongation in degrees.
+   */
+  protected static double moonMeanElongation(double t) {
+    double t2 = t * t;
+    double t3 = t2 * t;
+    double t4 = t3 * t;
+    return 297.8502042 +
+      t * 445267.1115168 -
+      t2 * 0.0016300 +
+      t3 / 545868.0 -
+      t4 / 113065000.0;
+  }
+
+  /**
+   * The Moon's mean anomaly M'.
+   *
+   * @param t the time in Julian centuries since J2000.
+   * @return the mean anomaly in degrees.
+   */
+  protected static double moonMeanAnomaly(double t) {
+    double t2 = t * t;
+    double t3 = t2 * t;
+    double t4 = t3 * t;
+    return 134.9634114 +
+      t * 477198.8675055 +
+      t2 * 0.0087414 +
+      t3 / 69699.0 -
+      t4 / 14712000.0;
+  }
+
+  /**
+   * The Sun's mean anomaly M.
+   *
+   * @param t the time in Julian centuries since J2000.
+   * @return the mean anomaly in degrees.
+   */
+  protected static double sunMeanAnomaly(double t) {
+    double t2 = t * t;
+    double t3 = t2 * t;
+    return 357.5291092 +
+      t * 35999.0502909 -
+      t2 * 0.0001536 +
+      t3 / 24490000.0;
   }
 
   protected static double calculateJdeo(double[] series, double y) {
@@ -690,4 +705,27 @@ public class Meeus {
     return jde0;
   }
 
+  private static double _lunarPeriodicTerms(
+    int quarter, double m, double mp, double f, double omega, double e) {
+    double[] a = tblMoonA[quarter];
+    byte[][] terms = tblMoonTerms[quarter % 2];
+    double s = 0;
+    for (int i = 0; i < terms.length; ++i)
+      s += a[i] * _lunarTerm(terms[i], m, mp, f, omega, e);
+    return s;
+  }
+
+  /* A periodic term of tblMoonTerms, without its coefficient */
+  private static double _lunarTerm(
+    byte[] term, double m, double mp, double f, double omega, double e) {
+    double x = dsin((term[0] * m) + (term[1] * mp) + (term[2] * f) + (term[3] * omega));
+    if (term[4] == 0) return x;
+    return (term[4] == 1) ? e * x : e * e * x;
+  }
+
+  /* Moves this thread's context of an accuracy to a Julian Day */
+  private static SolarContext _context(double jd, Accuracy accuracy) {
+    return _contexts.get()[accuracy.ordinal()].setJulianDay(jd);
+  }
+
 }
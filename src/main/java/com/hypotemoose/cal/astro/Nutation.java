@@ -0,0 +1,313 @@
+/*****************************************************************************
+ * Copyright 2017 Chris Engelsma
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+package com.hypotemoose.cal.astro;
+
+import static com.hypotemoose.cal.astro.Meeus.J2000;
+import static com.hypotemoose.cal.astro.Meeus.JULIAN_CENTURY;
+import static com.hypotemoose.cal.util.Util.dtr;
+import static com.hypotemoose.cal.util.Util.fixAngler;
+import static java.lang.Math.*;
+
+/**
+ * The nutation in longitude (delta-Psi) and obliquity (delta-Epsilon).
+ * <p>
+ * Each of the 63 periodic terms is the sine or cosine of a small integer
+ * combination of five fundamental arguments. Rather than evaluating 126
+ * sines and cosines, the sines and cosines of each fundamental argument
+ * and its multiples are computed once with the angle-addition formulas, and
+ * every term is built from them. Only the nonzero multipliers of each term
+ * are visited.
+ * <p>
+ * For sweeps over many instants, {@link #interpolate(double, double[])}
+ * computes the nutation once per day and interpolates linearly between
+ * days. Its error is at most about 0.01 arcseconds.
+ * <p>
+ * An engine holds scratch space and is not thread-safe.
+ *
+ * @author Chris Engelsma
+ * @since 2017.08.11
+ */
+public final class Nutation {
+
+  /* Multipliers of D, M, M', F and Omega for each term */
+  static final byte[] nutArgMult = {
+    0, 0, 0, 0, 1,
+    -2, 0, 0, 2, 2,
+    0, 0, 0, 2, 2,
+    0, 0, 0, 0, 2,
+    0, 1, 0, 0, 0,
+    0, 0, 1, 0, 0,
+    -2, 1, 0, 2, 2,
+    0, 0, 0, 2, 1,
+    0, 0, 1, 2, 2,
+    -2, 1, 0, 2, 2,
+    -2, 0, 1, 0, 0,
+    -2, 0, 0, 2, 1,
+    0, 0, 1, 2, 2,
+    2, 0, 0, 0, 0,
+    0, 0, 1, 0, 1,
+    2, 0, 1, 2, 2,
+    0, 0, 1, 0, 1,
+    0, 0, 1, 2, 1,
+    -2, 0, 2, 0, 0,
+    0, 0, 2, 2, 1,
+    2, 0, 0, 2, 2,
+    0, 0, 2, 2, 2,
+    0, 0, 2, 0, 0,
+    -2, 0, 1, 2, 2,
+    0, 0, 0, 2, 0,
+    -2, 0, 0, 2, 0,
+    0, 0, 1, 2, 1,
+    0, 2, 0, 0, 0,
+    2, 0, 1, 0, 1,
+    -2, 2, 0, 2, 2,
+    0, 1, 0, 0, 1,
+    -2, 0, 1, 0, 1,
+    0, 1, 0, 0, 1,
+    0, 0, 2, 2, 0,
+    2, 0, 1, 2, 1,
+    2, 0, 1, 2, 2,
+    0, 1, 0, 2, 2,
+    -2, 1, 1, 0, 0,
+    0, 1, 0, 2, 2,
+    2, 0, 0, 2, 1,
+    2, 0, 1, 0, 0,
+    -2, 0, 2, 2, 2,
+    -2, 0, 1, 2, 1,
+    2, 0, 2, 0, 1,
+    2, 0, 0, 0, 1,
+    0, 1, 1, 0, 0,
+    -2, 1, 0, 2, 1,
+    -2, 0, 0, 0, 1,
+    0, 0, 2, 2, 1,
+    -2, 0, 2, 0, 1,
+    -2, 1, 0, 2, 1,
+    0, 0, 1, 2, 0,
+    -1, 0, 1, 0, 0,
+    -2, 1, 0, 0, 0,
+    1, 0, 0, 0, 0,
+    0, 0, 1, 2, 0,
+    -1, 1, 1, 0, 0,
+    0, 1, 1, 0, 0,
+    0, 1, 1, 2, 2,
+    2, 1, 1, 2, 2,
+    0, 0, 2, 2, 2,
+    0, 0, 3, 2, 2,
+    2, 1, 0, 2, 2
+  };
+  /* Coefficients of sin(psi), t*sin(psi), cos(eps), t*cos(eps) */
+  static final double[] nutArgCoeff = {
+    -171996.0, -1742.0, 92095.0, 89.0,        /*  0,  0,  0,  0,  1 */
+    -13187.0, -16.0, 5736.0, -31.0,        /* -2,  0,  0,  2,  2 */
+    -2274.0, -2.0, 977.0, -5.0,        /*  0,  0,  0,  2,  2 */
+    2062.0, 2.0, -895.0, 5.0,        /*  0,  0,  0,  0,  2 */
+    1426.0, -34.0, 54.0, -1.0,        /*  0,  1,  0,  0,  0 */
+    712.0, 1.0, -7.0, 0.0,        /*  0,  0,  1,  0,  0 */
+    -517.0, 12.0, 224.0, -6.0,        /* -2,  1,  0,  2,  2 */
+    -386.0, -4.0, 200.0, 0.0,        /*  0,  0,  0,  2,  1 */
+    -301.0, 0.0, 129.0, -1.0,        /*  0,  0,  1,  2,  2 */
+    217.0, -5.0, -95.0, 3.0,        /* -2, -1,  0,  2,  2 */
+    -158.0, 0.0, 0.0, 0.0,        /* -2,  0,  1,  0,  0 */
+    129.0, 1.0, -70.0, 0.0,        /* -2,  0,  0,  2,  1 */
+    123.0, 0.0, -53.0, 0.0,        /*  0,  0, -1,  2,  2 */
+    63.0, 0.0, 0.0, 0.0,        /*  2,  0,  0,  0,  0 */
+    63.0, 1.0, -33.0, 0.0,        /*  0,  0,  1,  0,  1 */
+    -59.0, 0.0, 26.0, 0.0,        /*  2,  0, -1,  2,  2 */
+    -58.0, -1.0, 32.0, 0.0,        /*  0,  0, -1,  0,  1 */
+    -51.0, 0.0, 27.0, 0.0,        /*  0,  0,  1,  2,  1 */
+    48.0, 0.0, 0.0, 0.0,        /* -2,  0,  2,  0,  0 */
+    46.0, 0.0, -24.0, 0.0,        /*  0,  0, -2,  2,  1 */
+    -38.0, 0.0, 16.0, 0.0,        /*  2,  0,  0,  2,  2 */
+    -31.0, 0.0, 13.0, 0.0,        /*  0,  0,  2,  2,  2 */
+    29.0, 0.0, 0.0, 0.0,        /*  0,  0,  2,  0,  0 */
+    29.0, 0.0, -12.0, 0.0,        /* -2,  0,  1,  2,  2 */
+    26.0, 0.0, 0.0, 0.0,        /*  0,  0,  0,  2,  0 */
+    -22.0, 0.0, 0.0, 0.0,        /* -2,  0,  0,  2,  0 */
+    21.0, 0.0, -10.0, 0.0,        /*  0,  0, -1,  2,  1 */
+    17.0, -1.0, 0.0, 0.0,        /*  0,  2,  0,  0,  0 */
+    16.0, 0.0, -8.0, 0.0,        /*  2,  0, -1,  0,  1 */
+    -16.0, 1.0, 7.0, 0.0,        /* -2,  2,  0,  2,  2 */
+    -15.0, 0.0, 9.0, 0.0,        /*  0,  1,  0,  0,  1 */
+    -13.0, 0.0, 7.0, 0.0,        /* -2,  0,  1,  0,  1 */
+    -12.0, 0.0, 6.0, 0.0,        /*  0, -1,  0,  0,  1 */
+    11.0, 0.0, 0.0, 0.0,        /*  0,  0,  2, -2,  0 */
+    -10.0, 0.0, 5.0, 0.0,        /*  2,  0, -1,  2,  1 */
+    -8.0, 0.0, 3.0, 0.0,        /*  2,  0,  1,  2,  2 */
+    7.0, 0.0, -3.0, 0.0,        /*  0,  1,  0,  2,  2 */
+    -7.0, 0.0, 0.0, 0.0,        /* -2,  1,  1,  0,  0 */
+    -7.0, 0.0, 3.0, 0.0,        /*  0, -1,  0,  2,  2 */
+    -7.0, 0.0, 3.0, 0.0,        /*  2,  0,  0,  2,  1 */
+    6.0, 0.0, 0.0, 0.0,        /*  2,  0,  1,  0,  0 */
+    6.0, 0.0, -3.0, 0.0,        /* -2,  0,  2,  2,  2 */
+    6.0, 0.0, -3.0, 0.0,        /* -2,  0,  1,  2,  1 */
+    -6.0, 0.0, 3.0, 0.0,        /*  2,  0, -2,  0,  1 */
+    -6.0, 0.0, 3.0, 0.0,        /*  2,  0,  0,  0,  1 */
+    5.0, 0.0, 0.0, 0.0,        /*  0, -1,  1,  0,  0 */
+    -5.0, 0.0, 3.0, 0.0,        /* -2, -1,  0,  2,  1 */
+    -5.0, 0.0, 3.0, 0.0,        /* -2,  0,  0,  0,  1 */
+    -5.0, 0.0, 3.0, 0.0,        /*  0,  0,  2,  2,  1 */
+    4.0, 0.0, 0.0, 0.0,        /* -2,  0,  2,  0,  1 */
+    4.0, 0.0, 0.0, 0.0,        /* -2,  1,  0,  2,  1 */
+    4.0, 0.0, 0.0, 0.0,        /*  0,  0,  1, -2,  0 */
+    -4.0, 0.0, 0.0, 0.0,        /* -1,  0,  1,  0,  0 */
+    -4.0, 0.0, 0.0, 0.0,        /* -2,  1,  0,  0,  0 */
+    -4.0, 0.0, 0.0, 0.0,        /*  1,  0,  0,  0,  0 */
+    3.0, 0.0, 0.0, 0.0,        /*  0,  0,  1,  2,  0 */
+    -3.0, 0.0, 0.0, 0.0,        /* -1, -1,  1,  0,  0 */
+    -3.0, 0.0, 0.0, 0.0,        /*  0,  1,  1,  0,  0 */
+    -3.0, 0.0, 0.0, 0.0,        /*  0, -1,  1,  2,  2 */
+    -3.0, 0.0, 0.0, 0.0,        /*  2, -1, -1,  2,  2 */
+    -3.0, 0.0, 0.0, 0.0,        /*  0,  0, -2,  2,  2 */
+    -3.0, 0.0, 0.0, 0.0,        /*  0,  0,  3,  2,  2 */
+    -3.0, 0.0, 0.0, 0.0         /*  2, -1,  0,  2,  2 */
+  };
+  private static final int _terms = 63;
+  private static final int _maxMultiple = 3;
+  private static final int _stride = (2 * _maxMultiple) + 1;
+  /* Nonzero multipliers of each term, as indices into the sine tables */
+  private static final int[] _termStart = new int[_terms + 1];
+  private static final int[] _termIndex;
+
+  static {
+    int n = 0;
+    for (byte b : nutArgMult)
+      if (b != 0) ++n;
+    _termIndex = new int[n];
+    n = 0;
+    for (int i = 0; i < _terms; ++i) {
+      _termStart[i] = n;
+      for (int j = 0; j < 5; ++j) {
+        int k = nutArgMult[(i * 5) + j];
+        if (k != 0) _termIndex[n++] = (j * _stride) + k + _maxMultiple;
+      }
+    }
+    _termStart[_terms] = n;
+  }
+
+  private final double[] _sin = new double[5 * _stride];
+  private final double[] _cos = new double[5 * _stride];
+  private final double[] _sample = new double[2];
+  private double _day = Double.NaN;
+  private double _psi0, _eps0, _psi1, _eps1;
+
+  /**
+   * Computes the nutation.
+   *
+   * @param jd       a Julian date.
+   * @param nutation an array[2] to receive delta-Psi and delta-Epsilon in
+   *                 degrees.
+   * @return the nutation array.
+   */
+  public double[] compute(double jd, double[] nutation) {
+    double t, t2, t3, to10, dp = 0.0, de = 0.0;
+
+    t = (jd - J2000) / JULIAN_CENTURY;
+    t2 = t * t;
+    t3 = t2 * t;
+
+    _multiples(0, 297.850363 + 445267.111480 * t - 0.0019142 * t2 + t3 / 189474.0);
+    _multiples(1, 357.527720 + 35999.050340 * t - 0.0001603 * t2 - t3 / 300000.0);
+    _multiples(2, 134.962980 + 477198.867398 * t + 0.0086972 * t2 + t3 / 56250.0);
+    _multiples(3, 93.271910 + 483202.017538 * t - 0.0036825 * t2 + t3 / 327170.0);
+    _multiples(4, 125.044520 - 1934.136261 * t + 0.0020708 * t2 + t3 / 450000.0);
+
+    to10 = t / 10.0;
+    for (int i = 0; i < _terms; ++i) {
+      int n = _termStart[i];
+      int k = _termIndex[n];
+      double s = _sin[k];
+      double c = _cos[k];
+      for (++n; n < _termStart[i + 1]; ++n) {
+        k = _termIndex[n];
+        double sn = (s * _cos[k]) + (c * _sin[k]);
+        c = (c * _cos[k]) - (s * _sin[k]);
+        s = sn;
+      }
+      dp += (nutArgCoeff[(i * 4) + 0] + nutArgCoeff[(i * 4) + 1] * to10) * s;
+      de += (nutArgCoeff[(i * 4) + 2] + nutArgCoeff[(i * 4) + 3] * to10) * c;
+    }
+
+    nutation[0] = dp / (3600.0 * 10000.0);
+    nutation[1] = de / (3600.0 * 10000.0);
+    return nutation;
+  }
+
+  /**
+   * Computes the nutation by interpolating between whole Julian days.
+   * Consecutive calls within the same or the next day reuse the samples
+   * already computed.
+   *
+   * @param jd       a Julian date.
+   * @param nutation an array[2] to receive delta-Psi and delta-Epsilon in
+   *                 degrees.
+   * @return the nutation array.
+   */
+  public double[] interpolate(double jd, double[] nutation) {
+    double day = floor(jd);
+    if (day != _day) {
+      if (day == _day + 1) {
+        _psi0 = _psi1;
+        _eps0 = _eps1;
+      } else {
+        compute(day, _sample);
+        _psi0 = _sample[0];
+        _eps0 = _sample[1];
+      }
+      compute(day + 1, _sample);
+      _psi1 = _sample[0];
+      _eps1 = _sample[1];
+      _day = day;
+    }
+    double f = jd - day;
+    nutation[0] = _psi0 + (f * (_psi1 - _psi0));
+    nutation[1] = _eps0 + (f * (_eps1 - _eps0));
+    return nutation;
+  }
+
+/////////////////////////////////////////////////////////////////////////////
+// private
+
+  /**
+   * Tabulates the sine and cosine of the multiples -3 to 3 of an argument.
+   *
+   * @param j   the index of the argument.
+   * @param deg the argument in degrees.
+   */
+  private void _multiples(int j, double deg) {
+    double x = fixAngler(dtr(deg));
+    double s1 = sin(x);
+    double c1 = cos(x);
+    double s2 = 2.0 * s1 * c1;
+    double c2 = (c1 * c1) - (s1 * s1);
+    double s3 = (s2 * c1) + (c2 * s1);
+    double c3 = (c2 * c1) - (s2 * s1);
+    int o = (j * _stride) + _maxMultiple;
+    _sin[o] = 0.0;
+    _cos[o] = 1.0;
+    _sin[o + 1] = s1;
+    _cos[o + 1] = c1;
+    _sin[o - 1] = -s1;
+    _cos[o - 1] = c1;
+    _sin[o + 2] = s2;
+    _cos[o + 2] = c2;
+    _sin[o - 2] = -s2;
+    _cos[o - 2] = c2;
+    _sin[o + 3] = s3;
+    _cos[o + 3] = c3;
+    _sin[o - 3] = -s3;
+    _cos[o - 3] = c3;
+  }
+}
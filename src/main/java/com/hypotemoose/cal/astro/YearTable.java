@@ -0,0 +1,137 @@
+/*****************************************************************************
+ * Copyright 2017 Chris Engelsma
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+package com.hypotemoose.cal.astro;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A table of values computed once per year over a fixed range of years.
+ * <p>
+ * The table is built lazily in chunks of consecutive years, so only the
+ * years that are actually used are ever computed. Chunks are published
+ * atomically; two threads may race to compute the same chunk, but both
+ * compute identical values and only one is kept.
+ *
+ * @author Chris Engelsma
+ * @since 2017.08.11
+ */
+public abstract class YearTable {
+
+  private static final int _chunkSize = 64;
+  private final int _firstYear;
+  private final int _lastYear;
+  private final int _width;
+  private final AtomicReferenceArray<double[]> _chunks;
+
+  /**
+   * Constructs a table.
+   *
+   * @param firstYear the first year in the table.
+   * @param lastYear  the last year in the table.
+   * @param width     the number of values per year.
+   */
+  protected YearTable(int firstYear, int lastYear, int width) {
+    if (lastYear < firstYear)
+      throw new IllegalArgumentException("Last year precedes first year");
+    if (width < 1)
+      throw new IllegalArgumentException("Width must be positive");
+    _firstYear = firstYear;
+    _lastYear = lastYear;
+    _width = width;
+    int years = lastYear - firstYear + 1;
+    _chunks = new AtomicReferenceArray<>((years + _chunkSize - 1) / _chunkSize);
+  }
+
+  /**
+   * Gets the first year in this table.
+   *
+   * @return the first year.
+   */
+  public final int getFirstYear() {
+    return _firstYear;
+  }
+
+  /**
+   * Gets the last year in this table.
+   *
+   * @return the last year.
+   */
+  public final int getLastYear() {
+    return _lastYear;
+  }
+
+  /**
+   * Determines whether a year is in this table.
+   *
+   * @param year a year.
+   * @return true, if the year is in the table; false, otherwise.
+   */
+  public final boolean contains(int year) {
+    return year >= _firstYear && year <= _lastYear;
+  }
+
+  /**
+   * Gets a value.
+   *
+   * @param year  a year in the table.
+   * @param index the index of the value within the year.
+   * @return the value.
+   */
+  public final double get(int year, int index) {
+    if (!contains(year))
+      throw new IllegalArgumentException("Year " + year + " is not in table");
+    if (index < 0 || index >= _width)
+      throw new IllegalArgumentException("Index " + index + " is out of range");
+    int i = year - _firstYear;
+    int c = i / _chunkSize;
+    double[] chunk = _chunks.get(c);
+    if (chunk == null) chunk = _fill(c);
+    return chunk[((i % _chunkSize) * _width) + index];
+  }
+
+  /**
+   * Discards all computed values, so that they are computed again when
+   * next requested. Values requested concurrently with a call to this
+   * method may still be computed from the old state.
+   */
+  public final void clear() {
+    for (int c = 0; c < _chunks.length(); ++c)
+      _chunks.set(c, null);
+  }
+
+  /**
+   * Computes the values of a year.
+   *
+   * @param year   a year.
+   * @param values the array to receive the values.
+   * @param offset the index at which to store the first value.
+   */
+  protected abstract void compute(int year, double[] values, int offset);
+
+/////////////////////////////////////////////////////////////////////////////
+// private
+
+  private double[] _fill(int c) {
+    int first = _firstYear + (c * _chunkSize);
+    int last = Math.min(first + _chunkSize - 1, _lastYear);
+    double[] chunk = new double[(last - first + 1) * _width];
+    for (int year = first; year <= last; ++year)
+      compute(year, chunk, (year - first) * _width);
+    if (_chunks.compareAndSet(c, null, chunk))
+      return chunk;
+    return _chunks.get(c);
+  }
+}
@@ -0,0 +1,54 @@
+/*****************************************************************************
+ * Copyright 2017 Chris Engelsma
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+package com.hypotemoose.cal.constants;
+
+/**
+ * Identifiers for the calendars supported by the primitive conversion
+ * routines in {@link com.hypotemoose.cal.util.AlmanacConverter}.
+ * <p>
+ * Each calendar's fields are exchanged as a year, month and day. Calendars
+ * that do not naturally have these fields map onto them as follows:
+ * <ul>
+ * <li>French Republican: the day is the long-form day of the month [1-30].
+ * </li>
+ * <li>Maya: the year is the total number of Tun since the epoch, the month
+ * is the Uinal [0-17] and the day is the K'in [0-19].</li>
+ * <li>Islamic: the civil calendar with the base-16 leap year rule.</li>
+ * </ul>
+ *
+ * @author Chris Engelsma
+ * @since 2017.08.10
+ */
+public enum CalendarId {
+  GREGORIAN(0),
+  JULIAN(1),
+  FRENCH_REPUBLICAN(2),
+  MAYA(3),
+  ISLAMIC(4),
+  HEBREW(5),
+  PERSIAN(6),
+  INDIAN_CIVIL(7);
+
+  private final int value;
+
+  CalendarId(int value) {
+    this.value = value;
+  }
+
+  public int getValue() {
+    return value;
+  }
+}
@@ -15,18 +15,32 @@
  *****************************************************************************/
 package com.hypotemoose.cal.date;
 
+import com.hypotemoose.cal.constants.CalendarId;
+
 import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.ListIterator;
 
-import static com.hypotemoose.cal.util.AlmanacConverter.toJulianDay;
-import static java.lang.Math.floor;
+import static com.hypotemoose.cal.util.AlmanacConverter.unpackDay;
+import static com.hypotemoose.cal.util.AlmanacConverter.unpackMonth;
+import static com.hypotemoose.cal.util.AlmanacConverter.unpackYear;
 
 /**
  * An almanac.
+ * <p>
+ * Almanacs are ordered by their epoch day, so dates from different
+ * calendars can be compared, sorted and searched together. Two dates are
+ * ordered only to the day; the time of day held by a {@link JulianDay} is
+ * ignored. Note that this ordering is not consistent with
+ * {@link #equals(Object)}, since the same day in two different calendars
+ * compares as equal; use {@link #isEqual(Almanac)} for that test.
  *
  * @author Chris Engelsma.
  * @since 2015.11.04
  */
-public abstract class Almanac implements Serializable {
+public abstract class Almanac implements Serializable, Comparable<Almanac> {
 
   public static final String CALENDAR_NAME = "";
   private static final long serialVersionUID = 1L;
@@ -34,6 +48,21 @@ public abstract class Almanac implements Serializable {
   protected int month;
   protected int day;
 
+  /**
+   * Orders almanacs chronologically, regardless of their calendar.
+   * <p>
+   * Every comparison computes the epoch day of both dates, which costs a
+   * conversion through the calendar system unless the date caches it, as
+   * {@link ImmutableAlmanac} does. To sort many mutable dates, use
+   * {@link #sortChronologically(List)}, which computes each epoch day once.
+   */
+  public static final Comparator<Almanac> CHRONOLOGICAL_ORDER =
+    new Comparator<Almanac>() {
+      public int compare(Almanac a, Almanac b) {
+        return Long.compare(a.toEpochDay(), b.toEpochDay());
+      }
+    };
+
   /**
    * Determines if a list of almanacs are in chronologic order.
    *
@@ -41,10 +70,10 @@ public abstract class Almanac implements Serializable {
    * @return true, if are chronological; false, otherwise.
    */
   public static boolean datesAreChronological(Almanac... a) {
-    JulianDay d0 = toJulianDay(a[0]);
+    long d0 = a[0].toEpochDay();
     for (int i = 1; i < a.length; ++i) {
-      JulianDay d1 = toJulianDay(a[i]);
-      if (d1.getValue() < d0.getValue()) return false;
+      long d1 = a[i].toEpochDay();
+      if (d1 < d0) return false;
       d0 = d1;
     }
     return true;
@@ -57,15 +86,40 @@ public abstract class Almanac implements Serializable {
    * @return true, if are reverse chronological; false, otherwise.
    */
   public static boolean datesAreReverseChronological(Almanac... a) {
-    JulianDay d0 = toJulianDay(a[0]);
+    long d0 = a[0].toEpochDay();
     for (int i = 1; i < a.length; ++i) {
-      JulianDay d1 = toJulianDay(a[i]);
-      if (d1.getValue() > d0.getValue()) return false;
+      long d1 = a[i].toEpochDay();
+      if (d1 > d0) return false;
       d0 = d1;
     }
     return true;
   }
 
+  /**
+   * Sorts a list of almanacs chronologically, regardless of their calendar.
+   * <p>
+   * Each date's epoch day is computed once before sorting, rather than on
+   * every comparison. The sort is stable.
+   *
+   * @param list a list of almanacs.
+   * @param <T>  the type of almanac.
+   */
+  @SuppressWarnings("unchecked")
+  public static <T extends Almanac> void sortChronologically(List<T> list) {
+    int n = list.size();
+    Keyed[] keyed = new Keyed[n];
+    int i = 0;
+    for (T a : list)
+      keyed[i++] = new Keyed(a.toEpochDay(), a);
+    Arrays.sort(keyed);
+
+    ListIterator<T> it = list.listIterator();
+    for (Keyed k : keyed) {
+      it.next();
+      it.set((T) k.almanac);
+    }
+  }
+
   /**
    * Returns the weekday of a 7-day week.
    * The returned value will be an integer representing the day number of the
@@ -74,9 +128,7 @@ public abstract class Almanac implements Serializable {
    * @return a weekday in the range [0,6].
    */
   public int getWeekDayNumber() {
-    int weekLength = getNumberOfDaysInWeek();
-    double jd = (toJulianDay(this)).getValue();
-    return (int) floor(jd + 1.5) % weekLength;
+    return (int) Math.floorMod(toEpochDay() + 1, getNumberOfDaysInWeek());
   }
 
   /**
@@ -95,7 +147,7 @@ public abstract class Almanac implements Serializable {
    * @return true, if before; false, otherwise.
    */
   public boolean isBefore(Almanac a) {
-    return datesAreChronological(this, a);
+    return toEpochDay() <= a.toEpochDay();
   }
 
   /**
@@ -105,7 +157,80 @@ public abstract class Almanac implements Serializable {
    * @return true, if after; false, otherwise.
    */
   public boolean isAfter(Almanac a) {
-    return datesAreReverseChronological(this, a);
+    return toEpochDay() >= a.toEpochDay();
+  }
+
+  /**
+   * Determines if this date falls on the same day as a given date.
+   * Unlike {@link #equals(Object)}, the dates may be in different calendars.
+   *
+   * @param a an almanac.
+   * @return true, if on the same day; false, otherwise.
+   */
+  public boolean isEqual(Almanac a) {
+    return toEpochDay() == a.toEpochDay();
+  }
+
+  /**
+   * Compares this date chronologically to a given date.
+   * Both epoch days are taken on every call; see
+   * {@link #CHRONOLOGICAL_ORDER} for the cost when sorting.
+   *
+   * @param a an almanac.
+   * @return a negative number, zero or a positive number if this date comes
+   * before, on the same day as, or after the given date.
+   * @throws UnsupportedOperationException if either calendar has no
+   *                                       calendar system.
+   */
+  @Override
+  public int compareTo(Almanac a) {
+    return Long.compare(toEpochDay(), a.toEpochDay());
+  }
+
+  /**
+   * Gets the calendar system that defines this calendar's rules.
+   *
+   * @return the calendar system; null, if this calendar has none.
+   */
+  public CalendarSystem getCalendarSystem() {
+    return null;
+  }
+
+  /**
+   * Gets the built-in calendar whose year, month and day are those of this
+   * calendar. Conversions from such a calendar may take a direct path that
+   * skips the epoch day.
+   *
+   * @return the calendar; null, if this calendar is not one of them.
+   */
+  public CalendarId getCalendarId() {
+    return null;
+  }
+
+  /**
+   * Gets the epoch day of this date.
+   * The epoch day is the chronological Julian Day Number.
+   *
+   * @return the epoch day.
+   * @throws UnsupportedOperationException if this calendar has no calendar
+   *                                       system.
+   */
+  public long toEpochDay() {
+    return _system().toEpochDay(year, month, day);
+  }
+
+  /**
+   * Sets this date to a given epoch day.
+   * Calendars that store their fields differently from their calendar
+   * system should override this along with {@link #toEpochDay()}.
+   *
+   * @param epochDay an epoch day.
+   */
+  protected void setEpochDay(long epochDay) {
+    long date = _system().fromEpochDay(epochDay);
+    this.year = unpackYear(date);
+    this.month = unpackMonth(date);
+    this.day = unpackDay(date);
   }
 
   /**
@@ -211,20 +336,30 @@ public abstract class Almanac implements Serializable {
 
   /**
    * Adds days to this date.
+   * The date is converted to an epoch day and back, so the cost does not
+   * depend on the number of days. A calendar without a calendar system
+   * steps one day at a time instead.
    *
    * @param n the number of days to add.
    */
   public void addDays(int n) {
-    for (int i = 0; i < n; ++i) nextDay();
+    if (getCalendarSystem() == null) {
+      for (int i = 0; i < n; ++i) nextDay();
+    } else if (n != 0) setEpochDay(toEpochDay() + n);
   }
 
   /**
    * Subtracts days from this date.
+   * The date is converted to an epoch day and back, so the cost does not
+   * depend on the number of days. A calendar without a calendar system
+   * steps one day at a time instead.
    *
    * @param n the number of days to subtract.
    */
   public void subtractDays(int n) {
-    for (int i = 0; i < n; ++i) prevDay();
+    if (getCalendarSystem() == null) {
+      for (int i = 0; i < n; ++i) prevDay();
+    } else if (n != 0) setEpochDay(toEpochDay() - n);
   }
 
   public abstract String getDate();
@@ -241,4 +376,33 @@ public abstract class Almanac implements Serializable {
   public abstract int getNumberOfMonthsInYear();
 
   public abstract void set(Almanac a);
+
+//////////////////////////////////////////////////////////////////////////////
+// private
+
+  private CalendarSystem _system() {
+    CalendarSystem system = getCalendarSystem();
+    if (system == null)
+      throw new UnsupportedOperationException(
+        "No calendar system for " + getName());
+    return system;
+  }
+
+  /**
+   * An almanac with its precomputed epoch day.
+   */
+  private static final class Keyed implements Comparable<Keyed> {
+    private final long key;
+    private final Almanac almanac;
+
+    Keyed(long key, Almanac almanac) {
+      this.key = key;
+      this.almanac = almanac;
+    }
+
+    @Override
+    public int compareTo(Keyed k) {
+      return Long.compare(key, k.key);
+    }
+  }
 }
@@ -0,0 +1,84 @@
+/*****************************************************************************
+ * Copyright 2017 Chris Engelsma
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+package com.hypotemoose.cal.date;
+
+/**
+ * The rules of a calendar.
+ * <p>
+ * A calendar system converts between its year, month and day fields and the
+ * epoch day, which is the chronological Julian Day Number. Every
+ * {@link Almanac} provides its calendar system through
+ * {@link Almanac#getCalendarSystem()}, so a new calendar can be converted to
+ * and from every other calendar by implementing this interface.
+ * <p>
+ * Dates returned by {@link #fromEpochDay(long)} are packed into a single
+ * long; see {@link com.hypotemoose.cal.util.AlmanacConverter#packDate}.
+ *
+ * @author Chris Engelsma
+ * @since 2017.08.10
+ */
+public interface CalendarSystem {
+
+  /**
+   * Gets the name of this calendar.
+   *
+   * @return the calendar name.
+   */
+  String getName();
+
+  /**
+   * Converts a date to an epoch day.
+   *
+   * @param year  a year.
+   * @param month a month.
+   * @param day   a day.
+   * @return the epoch day.
+   */
+  long toEpochDay(int year, int month, int day);
+
+  /**
+   * Converts an epoch day to a date.
+   *
+   * @param epochDay an epoch day.
+   * @return the packed date.
+   */
+  long fromEpochDay(long epochDay);
+
+  /**
+   * Determines whether a given year is a leap year.
+   *
+   * @param year a year.
+   * @return true, if a leap year; false, otherwise.
+   */
+  boolean isLeapYear(int year);
+
+  /**
+   * Gets the number of months in a given year.
+   *
+   * @param year a year.
+   * @return the number of months in the year.
+   */
+  int getNumberOfMonthsInYear(int year);
+
+  /**
+   * Gets the number of days in a given month and year.
+   *
+   * @param year  a year.
+   * @param month a month.
+   * @return the number of days in the month.
+   */
+  int getNumberOfDaysInMonth(int year, int month);
+}
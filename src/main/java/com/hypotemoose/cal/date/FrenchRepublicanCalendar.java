@@ -15,11 +15,17 @@
  *****************************************************************************/
 package com.hypotemoose.cal.date;
 
+import com.hypotemoose.cal.constants.CalendarId;
+import com.hypotemoose.cal.util.AlmanacConverter;
+
 import java.util.Calendar;
 import java.util.Objects;
 
 import static com.hypotemoose.cal.constants.CalendarConstants.FrenchRepublicanCalendarConstants.*;
 import static com.hypotemoose.cal.util.AlmanacConverter.toFrenchRepublicanCalendar;
+import static com.hypotemoose.cal.util.AlmanacConverter.unpackDay;
+import static com.hypotemoose.cal.util.AlmanacConverter.unpackMonth;
+import static com.hypotemoose.cal.util.AlmanacConverter.unpackYear;
 import static com.hypotemoose.cal.util.RomanNumeralGenerator.itr;
 import static com.hypotemoose.cal.util.RomanNumeralGenerator.toRoman;
 import static com.hypotemoose.cal.util.Util.its;
@@ -50,8 +56,31 @@ import static com.hypotemoose.cal.util.Util.its;
  */
 public final class FrenchRepublicanCalendar extends Almanac {
 
+  /**
+   * How the first day of each year is determined. The rule is selected
+   * with {@link AlmanacConverter#setFrenchRepublicanRule(Rule)}.
+   */
+  public enum Rule {
+
+    /**
+     * Each year begins on the day of the autumnal equinox in Paris, which
+     * is computed astronomically.
+     */
+    ASTRONOMICAL,
+
+    /**
+     * Years follow the rule proposed by Gilbert Romme: years divisible by
+     * 4 are leap years, except years divisible by 100 but not by 400, and
+     * years divisible by 4000. This needs only integer arithmetic, but puts
+     * the leap years in IV, VIII and XII instead of III, VII and XI.
+     */
+    ROMME
+  }
+
   public static final String CALENDAR_NAME = "French Republican Calendar";
   public static final JulianDay EPOCH = new JulianDay(2375839.5);
+  public static final CalendarSystem SYSTEM =
+    AlmanacConverter.getCalendarSystem(CalendarId.FRENCH_REPUBLICAN);
   private int _week;
 
   /**
@@ -165,11 +194,7 @@ public final class FrenchRepublicanCalendar extends Almanac {
    * @return true, if a leap year; false, otherwise.
    */
   public static boolean isLeapYear(int year) {
-    JulianDay jday1 = new JulianDay(new FrenchRepublicanCalendar(year, 1, 1));
-    JulianDay jday2 = new JulianDay(new FrenchRepublicanCalendar(year + 1, 1, 1));
-    int val1 = (int) jday1.atNoon().getValue();
-    int val2 = (int) jday2.atNoon().getValue();
-    return (val2 - val1 > 365);
+    return SYSTEM.isLeapYear(year);
   }
 
   /**
@@ -361,6 +386,65 @@ public final class FrenchRepublicanCalendar extends Almanac {
       getDay(true) + " " + getMonthName() + ", " + toRoman(getYear()) : "";
   }
 
+  /**
+   * Gets the calendar system.
+   *
+   * @return the calendar system.
+   */
+  @Override
+  public CalendarSystem getCalendarSystem() {
+    return SYSTEM;
+  }
+
+  /**
+   * Gets the epoch day of this date.
+   *
+   * @return the epoch day.
+   */
+  @Override
+  public long toEpochDay() {
+    return SYSTEM.toEpochDay(year, month, getDay(true));
+  }
+
+  /**
+   * Sets this date to a given epoch day.
+   *
+   * @param epochDay an epoch day.
+   */
+  @Override
+  protected void setEpochDay(long epochDay) {
+    long date = SYSTEM.fromEpochDay(epochDay);
+    int day = unpackDay(date) - 1;
+    this.year = unpackYear(date);
+    this.month = unpackMonth(date);
+    this.day = (day % 10) + 1;
+    _week = (day / 10) + 1;
+  }
+
+  /**
+   * Returns a copy of this date with days added.
+   *
+   * @param n the number of days to add.
+   * @return the new date.
+   */
+  public FrenchRepublicanCalendar plusDays(int n) {
+    FrenchRepublicanCalendar date = new FrenchRepublicanCalendar(this);
+    date.addDays(n);
+    return date;
+  }
+
+  /**
+   * Returns a copy of this date with days subtracted.
+   *
+   * @param n the number of days to subtract.
+   * @return the new date.
+   */
+  public FrenchRepublicanCalendar minusDays(int n) {
+    FrenchRepublicanCalendar date = new FrenchRepublicanCalendar(this);
+    date.subtractDays(n);
+    return date;
+  }
+
   @Override
   public String getName() {
     return CALENDAR_NAME;
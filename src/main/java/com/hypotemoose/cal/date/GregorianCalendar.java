@@ -15,12 +15,16 @@
  *****************************************************************************/
 package com.hypotemoose.cal.date;
 
+import com.hypotemoose.cal.constants.CalendarId;
+import com.hypotemoose.cal.util.AlmanacConverter;
+
 import java.util.Calendar;
 import java.util.Objects;
 
 import static com.hypotemoose.cal.constants.CalendarConstants.GregorianCalendarConstants.monthNames;
 import static com.hypotemoose.cal.constants.CalendarConstants.GregorianCalendarConstants.weekDayNames;
 import static com.hypotemoose.cal.util.AlmanacConverter.toGregorianCalendar;
+import static com.hypotemoose.cal.util.AlmanacConverter.unpackYear;
 
 /**
  * A Gregorian Calendar Date.
@@ -45,6 +49,20 @@ public final class GregorianCalendar extends Almanac {
 
   public static final String CALENDAR_NAME = "Gregorian Calendar";
   public static final JulianDay EPOCH = new JulianDay(2299160.5);
+  public static final CalendarSystem SYSTEM =
+    AlmanacConverter.getCalendarSystem(CalendarId.GREGORIAN);
+
+  /* The year containing the epoch, up to which the Julian rule applies */
+  private static final int _cutoverYear =
+    unpackYear(SYSTEM.fromEpochDay(EPOCH.toEpochDay()));
+
+  /* The epoch day after the cutover year, and the days by which a count
+     with the Julian rule runs ahead of it */
+  private static final long _cutoverEnd = SYSTEM.toEpochDay(_cutoverYear + 1, 1, 1);
+  private static final long _cutoverShift =
+    _julianRuleDay(_cutoverYear + 1, 1, 1) - _cutoverEnd;
+  private static final int[] _daysPerMonth =
+    {31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31};
 
   /**
    * Constructs a Gregorian Calendar using today's date.
@@ -120,18 +138,9 @@ public final class GregorianCalendar extends Almanac {
    * @return true, if year is a leap year; false, otherwise.
    */
   public static boolean isLeapYear(int year, boolean useProleptic) {
-    GregorianCalendar epoch = new GregorianCalendar(EPOCH);
-    GregorianCalendar date = new GregorianCalendar(year, 1, 1);
-
-    if (useProleptic && datesAreChronological(date, epoch))
+    if (useProleptic && year <= _cutoverYear)
       return JulianCalendar.isLeapYear(year);
-
-    if (Math.abs(year) % 4 == 0) {
-      if (Math.abs(year) % 400 == 0) return true;
-      if (Math.abs(year) % 100 == 0) return false;
-      return true;
-    }
-    return false;
+    return (year % 4 == 0) && ((year % 100 != 0) || (year % 400 == 0));
   }
 
   /**
@@ -163,13 +172,8 @@ public final class GregorianCalendar extends Almanac {
    * @return the number of days in the month.
    */
   public static int getNumberOfDaysInMonth(int year, int month) {
-    if (month == 4 || month == 6 || month == 9 || month == 11)
-      return 30;
-    if (month == 2) {
-      if (!GregorianCalendar.isLeapYear(year)) return 28;
-      else return 29;
-    }
-    return 31;
+    if (month == 2 && GregorianCalendar.isLeapYear(year)) return 29;
+    return _daysPerMonth[month - 1];
   }
 
   /**
@@ -179,9 +183,8 @@ public final class GregorianCalendar extends Almanac {
    * @return an array[12] of month-lengths for a given year.
    */
   public static int[] getDaysPerMonthInYear(int year) {
-    int[] days = new int[12];
-    for (int i = 0; i < 12; ++i)
-      days[i] = GregorianCalendar.getNumberOfDaysInMonth(year, i + 1);
+    int[] days = _daysPerMonth.clone();
+    if (GregorianCalendar.isLeapYear(year)) days[1] = 29;
     return days;
   }
 
@@ -326,6 +329,74 @@ public final class GregorianCalendar extends Almanac {
     return CALENDAR_NAME + ": " + getDate();
   }
 
+  /**
+   * Gets the calendar system.
+   *
+   * @return the calendar system.
+   */
+  @Override
+  public CalendarSystem getCalendarSystem() {
+    return SYSTEM;
+  }
+
+  /**
+   * Gets the built-in calendar whose fields this date uses.
+   *
+   * @return the calendar.
+   */
+  @Override
+  public CalendarId getCalendarId() {
+    return CalendarId.GREGORIAN;
+  }
+
+  /**
+   * Returns a copy of this date with days added.
+   *
+   * @param n the number of days to add.
+   * @return the new date.
+   */
+  public GregorianCalendar plusDays(int n) {
+    GregorianCalendar date = new GregorianCalendar(this);
+    date.addDays(n);
+    return date;
+  }
+
+  /**
+   * Returns a copy of this date with days subtracted.
+   *
+   * @param n the number of days to subtract.
+   * @return the new date.
+   */
+  public GregorianCalendar minusDays(int n) {
+    GregorianCalendar date = new GregorianCalendar(this);
+    date.subtractDays(n);
+    return date;
+  }
+
+  /**
+   * Adds days to this date.
+   * Up to the cutover year, months follow the Julian leap rule, as they do
+   * for {@link #nextDay()}, so days are counted with that rule there.
+   *
+   * @param n the number of days to add.
+   */
+  @Override
+  public void addDays(int n) {
+    if (n != 0) _setDayCount(_dayCount() + n);
+  }
+
+  /**
+   * Subtracts days from this date.
+   * Up to the cutover year, months follow the Julian leap rule, as they do
+   * for {@link #prevDay()}, so days are counted with that rule there.
+   *
+   * @param n the number of days to subtract.
+   */
+  @Override
+  public void subtractDays(int n) {
+    if (n != 0) _setDayCount(_dayCount() - n);
+  }
+
   @Override
   public String getName() {
     return CALENDAR_NAME;
@@ -348,4 +419,42 @@ public final class GregorianCalendar extends Almanac {
   public int hashCode() {
     return Objects.hash(year,month,day);
   }
+
+/////////////////////////////////////////////////////////////////////////////
+// private
+
+  /**
+   * Counts days continuously across the cutover: with the Julian leap rule
+   * through the cutover year, and as the epoch day afterwards.
+   */
+  private long _dayCount() {
+    if (year > _cutoverYear)
+      return toEpochDay();
+    return _julianRuleDay(year, month, day) - _cutoverShift;
+  }
+
+  private void _setDayCount(long n) {
+    if (n >= _cutoverEnd) {
+      setEpochDay(n);
+      return;
+    }
+    long c = n + _cutoverShift + 32082;
+    long d = Math.floorDiv(4 * c + 3, 1461);
+    long e = c - Math.floorDiv(1461 * d, 4);
+    long m = (5 * e + 2) / 153;
+    this.day = (int) (e - ((153 * m + 2) / 5) + 1);
+    this.month = (int) (m + 3 - (12 * (m / 10)));
+    this.year = (int) (d - 4800 + (m / 10));
+  }
+
+  private static long _julianRuleDay(int year, int month, int day) {
+    long y = year;
+    long m = month;
+    if (m <= 2) {
+      y--;
+      m += 12;
+    }
+    return Math.floorDiv(1461 * (y + 4716), 4) + ((153 * (m + 1)) / 5) +
+      day - 1524;
+  }
 }
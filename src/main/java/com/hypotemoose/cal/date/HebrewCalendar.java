@@ -15,13 +15,15 @@
  *****************************************************************************/
 package com.hypotemoose.cal.date;
 
+import com.hypotemoose.cal.constants.CalendarId;
+import com.hypotemoose.cal.util.AlmanacConverter;
+
 import java.util.Calendar;
 import java.util.Objects;
 
 import static com.hypotemoose.cal.constants.CalendarConstants.HebrewCalendarConstants.monthNames;
 import static com.hypotemoose.cal.constants.CalendarConstants.HebrewCalendarConstants.weekDayNames;
 import static com.hypotemoose.cal.util.AlmanacConverter.toHebrewCalendar;
-import static com.hypotemoose.cal.util.AlmanacConverter.toJulianDay;
 
 /**
  * A Hebrew Calendar Date.
@@ -38,8 +40,157 @@ import static com.hypotemoose.cal.util.AlmanacConverter.toJulianDay;
  */
 public class HebrewCalendar extends Almanac {
 
+  /**
+   * A type of year, or keviyah. A year's type is determined by whether it
+   * is a leap year, its length and the weekday of its first day, and only
+   * fourteen combinations occur. The length of every month follows from
+   * the type.
+   */
+  public enum YearType {
+    COMMON_MONDAY_DEFICIENT(false, 353, 1),
+    COMMON_MONDAY_COMPLETE(false, 355, 1),
+    COMMON_TUESDAY_REGULAR(false, 354, 2),
+    COMMON_THURSDAY_REGULAR(false, 354, 4),
+    COMMON_THURSDAY_COMPLETE(false, 355, 4),
+    COMMON_SATURDAY_DEFICIENT(false, 353, 6),
+    COMMON_SATURDAY_COMPLETE(false, 355, 6),
+    LEAP_MONDAY_DEFICIENT(true, 383, 1),
+    LEAP_MONDAY_COMPLETE(true, 385, 1),
+    LEAP_TUESDAY_REGULAR(true, 384, 2),
+    LEAP_THURSDAY_DEFICIENT(true, 383, 4),
+    LEAP_THURSDAY_COMPLETE(true, 385, 4),
+    LEAP_SATURDAY_DEFICIENT(true, 383, 6),
+    LEAP_SATURDAY_COMPLETE(true, 385, 6);
+
+    private final boolean leap;
+    private final int length;
+    private final int weekDay;
+    private final short[] daysBeforeMonth;
+    private final byte[] monthOfDay;
+
+    YearType(boolean leap, int length, int weekDay) {
+      this.leap = leap;
+      this.length = length;
+      this.weekDay = weekDay;
+      this.daysBeforeMonth = new short[14];
+      this.monthOfDay = new byte[length];
+      int months = leap ? 13 : 12;
+      int n = 0;
+      for (int i = 0, month = 7; i < months; ++i) {
+        daysBeforeMonth[month] = (short) n;
+        for (int end = n + getNumberOfDaysInMonth(month); n < end; ++n)
+          monthOfDay[n] = (byte) month;
+        month = (month == months) ? 1 : month + 1;
+      }
+    }
+
+    /**
+     * Gets the type of a year.
+     *
+     * @param leap    whether the year is a leap year.
+     * @param length  the number of days in the year.
+     * @param weekDay the weekday of the first of Tishri, from 0 (Sunday).
+     * @return the type.
+     * @throws IllegalArgumentException if no year has this type.
+     */
+    public static YearType of(boolean leap, int length, int weekDay) {
+      for (YearType type : values()) {
+        if (type.leap == leap && type.length == length && type.weekDay == weekDay)
+          return type;
+      }
+      throw new IllegalArgumentException("No year type is " +
+        (leap ? "a leap year" : "a common year") + " of " + length +
+        " days beginning on weekday " + weekDay);
+    }
+
+    /**
+     * Determines whether years of this type are leap years.
+     *
+     * @return true, if a leap year; false, otherwise.
+     */
+    public boolean isLeapYear() {
+      return leap;
+    }
+
+    /**
+     * Gets the number of days in years of this type.
+     *
+     * @return the number of days.
+     */
+    public int getNumberOfDays() {
+      return length;
+    }
+
+    /**
+     * Gets the weekday of the first of Tishri.
+     *
+     * @return the weekday, from 0 (Sunday).
+     */
+    public int getWeekDayNumber() {
+      return weekDay;
+    }
+
+    /**
+     * Gets the number of months in years of this type.
+     *
+     * @return the number of months.
+     */
+    public int getNumberOfMonths() {
+      return leap ? 13 : 12;
+    }
+
+    /**
+     * Gets the number of days in a month.
+     *
+     * @param month a month (Starting at 1).
+     * @return the number of days in the month.
+     */
+    public int getNumberOfDaysInMonth(int month) {
+      switch (month) {
+        case 2: case 4: case 6: case 10: case 13:
+          return 29;
+        case 8:
+          return (length % 10 == 5) ? 30 : 29;
+        case 9:
+          return (length % 10 == 3) ? 29 : 30;
+        case 12:
+          return leap ? 30 : 29;
+        default:
+          return 30;
+      }
+    }
+
+    /**
+     * Gets the number of days from the first of Tishri, which begins the
+     * year, to the first of a month.
+     *
+     * @param month a month of the year (Starting at 1).
+     * @return the number of days before the month.
+     */
+    public int getDaysBeforeMonth(int month) {
+      if (month < 1 || month > getNumberOfMonths())
+        throw new IllegalArgumentException("Month " + month + " is out of range");
+      return daysBeforeMonth[month];
+    }
+
+    /**
+     * Gets the month containing a day of the year.
+     *
+     * @param dayOfYear a day of the year (Starting at 1 on the first of
+     *                  Tishri).
+     * @return the month.
+     */
+    public int getMonthOfDay(int dayOfYear) {
+      if (dayOfYear < 1 || dayOfYear > length)
+        throw new IllegalArgumentException("Day " + dayOfYear + " is out of range");
+      return monthOfDay[dayOfYear - 1];
+    }
+  }
+
   public static final String CALENDAR_NAME = "Hebrew Calendar";
   public static final JulianDay EPOCH = new JulianDay(347995.5);
+  public static final CalendarSystem SYSTEM =
+    AlmanacConverter.getCalendarSystem(CalendarId.HEBREW);
 
   /**
    * Constructs a Hebrew Calendar using today's date.
@@ -124,23 +275,18 @@ public class HebrewCalendar extends Almanac {
    * @return the number of days in a given month and year.
    */
   public static int getNumberOfDaysInMonth(int year, int month) {
-
-    // Fixed 29-day months.
-    if (month == 2 || month == 4 || month == 6 || month == 10 || month == 13)
-      return 29;
-
-    // Adar has 29 days on non-leap years.
-    if (month == 12 && !HebrewCalendar.isLeapYear(year)) {
-      return 29;
+    switch (month) {
+      case 8: case 9:
+        // Heshvan (8) and Kislev (9) depend on the type of the year
+        return getYearType(year).getNumberOfDaysInMonth(month);
+      case 12:
+        // Adar has 29 days on non-leap years.
+        return HebrewCalendar.isLeapYear(year) ? 30 : 29;
+      case 2: case 4: case 6: case 10: case 13:
+        return 29;
+      default:
+        return 30;
     }
-
-    // Heshvan (8) and Kislev (9) depend on length of the year
-    if (month == 8 && !(getNumberOfDaysInYear(year) % 10 == 5))
-      return 29;
-    if (month == 9 && (getNumberOfDaysInYear(year) % 10 == 3))
-      return 29;
-
-    return 30;
   }
 
   /**
@@ -164,13 +310,25 @@ public class HebrewCalendar extends Almanac {
     return (val < 7);
   }
 
+  /**
+   * Gets the number of days in a year.
+   *
+   * @param year a year.
+   * @return the number of days in the given year.
+   */
   public static int getNumberOfDaysInYear(int year) {
-    HebrewCalendar now = new HebrewCalendar(year, 7, 1);
-    HebrewCalendar next = new HebrewCalendar(year + 1, 7, 1);
-    JulianDay jnow = toJulianDay(now);
-    JulianDay jnext = toJulianDay(next);
-    int num = (int) (jnext.getValue() - jnow.getValue());
-    return num;
+    return getYearType(year).getNumberOfDays();
+  }
+
+  /**
+   * Gets the type of a year. Types are tabulated for a wide range of
+   * years, so this is a lookup for any year in common use.
+   *
+   * @param year a year.
+   * @return the type of the given year.
+   */
+  public static YearType getYearType(int year) {
+    return AlmanacConverter.getHebrewYearType(year);
   }
 
   /**
@@ -304,6 +462,50 @@ public class HebrewCalendar extends Almanac {
     } else day++;
   }
 
+  /**
+   * Gets the calendar system.
+   *
+   * @return the calendar system.
+   */
+  @Override
+  public CalendarSystem getCalendarSystem() {
+    return SYSTEM;
+  }
+
+  /**
+   * Gets the built-in calendar whose fields this date uses.
+   *
+   * @return the calendar.
+   */
+  @Override
+  public CalendarId getCalendarId() {
+    return CalendarId.HEBREW;
+  }
+
+  /**
+   * Returns a copy of this date with days added.
+   *
+   * @param n the number of days to add.
+   * @return the new date.
+   */
+  public HebrewCalendar plusDays(int n) {
+    HebrewCalendar date = new HebrewCalendar(this);
+    date.addDays(n);
+    return date;
+  }
+
+  /**
+   * Returns a copy of this date with days subtracted.
+   *
+   * @param n the number of days to subtract.
+   * @return the new date.
+   */
+  public HebrewCalendar minusDays(int n) {
+    HebrewCalendar date = new HebrewCalendar(this);
+    date.subtractDays(n);
+    return date;
+  }
+
   @Override
   public String getName() {
     return CALENDAR_NAME;
@@ -0,0 +1,354 @@
+/*****************************************************************************
+ * Copyright 2017 Chris Engelsma
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+package com.hypotemoose.cal.date;
+
+import com.hypotemoose.cal.constants.CalendarId;
+import com.hypotemoose.cal.util.AlmanacConverter;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.NotSerializableException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamException;
+import java.util.Objects;
+
+import static com.hypotemoose.cal.util.AlmanacConverter.unpackDay;
+import static com.hypotemoose.cal.util.AlmanacConverter.unpackMonth;
+import static com.hypotemoose.cal.util.AlmanacConverter.unpackYear;
+
+/**
+ * An immutable date in any calendar system.
+ * <p>
+ * The epoch day is computed once at construction and reused for week days,
+ * comparisons, equality and conversion. All fields are final, so instances
+ * may be cached and shared between threads without copying. Methods that
+ * would modify the date throw {@link UnsupportedOperationException}.
+ * <p>
+ * Fields are always normalized: a date such as February 30 is stored as
+ * the day it falls on, March 1 or 2.
+ * <p>
+ * Dates in built-in calendar systems are serialized as their
+ * {@link CalendarId}, the French Republican or Persian rule where the
+ * system is fixed to one, and their epoch day. They resolve to the same calendar system
+ * when deserialized. Dates in other calendar systems cannot be serialized.
+ *
+ * @author Chris Engelsma
+ * @since 2017.08.11
+ */
+public final class ImmutableAlmanac extends Almanac {
+
+  private static final long serialVersionUID = 1L;
+  private final transient CalendarSystem _system;
+  private final CalendarId _calendar;
+  private final Enum<?> _rule;
+  private final int _year;
+  private final int _month;
+  private final int _day;
+  private final long _epochDay;
+
+  private ImmutableAlmanac(CalendarSystem system, long epochDay) {
+    this(system, _calendarOf(system), _ruleOf(system), epochDay);
+  }
+
+  private ImmutableAlmanac(CalendarSystem system, CalendarId calendar,
+                           Enum<?> rule, long epochDay) {
+    long date = system.fromEpochDay(epochDay);
+    _system = system;
+    _calendar = calendar;
+    _rule = rule;
+    _epochDay = epochDay;
+    _year = unpackYear(date);
+    _month = unpackMonth(date);
+    _day = unpackDay(date);
+    this.year = _year;
+    this.month = _month;
+    this.day = _day;
+  }
+
+  /**
+   * Constructs an immutable date.
+   *
+   * @param system a calendar system.
+   * @param year   a year.
+   * @param month  a month.
+   * @param day    a day.
+   * @return the date.
+   */
+  public static ImmutableAlmanac of(CalendarSystem system, int year, int month, int day) {
+    return new ImmutableAlmanac(system, system.toEpochDay(year, month, day));
+  }
+
+  /**
+   * Constructs an immutable date in a built-in calendar.
+   *
+   * @param calendar a calendar.
+   * @param year     a year.
+   * @param month    a month.
+   * @param day      a day.
+   * @return the date.
+   */
+  public static ImmutableAlmanac of(CalendarId calendar, int year, int month, int day) {
+    CalendarSystem system = AlmanacConverter.getCalendarSystem(calendar);
+    return new ImmutableAlmanac(
+      system, calendar, null, system.toEpochDay(year, month, day));
+  }
+
+  /**
+   * Constructs an immutable date from an epoch day.
+   *
+   * @param system   a calendar system.
+   * @param epochDay an epoch day.
+   * @return the date.
+   */
+  public static ImmutableAlmanac ofEpochDay(CalendarSystem system, long epochDay) {
+    return new ImmutableAlmanac(system, epochDay);
+  }
+
+  /**
+   * Constructs an immutable copy of an almanac in its own calendar system.
+   *
+   * @param a an almanac.
+   * @return the date.
+   */
+  public static ImmutableAlmanac copyOf(Almanac a) {
+    if (a instanceof ImmutableAlmanac)
+      return (ImmutableAlmanac) a;
+    return new ImmutableAlmanac(a.getCalendarSystem(), a.toEpochDay());
+  }
+
+  /**
+   * Converts this date to another calendar system.
+   *
+   * @param system a calendar system.
+   * @return the same day in the given calendar system.
+   */
+  public ImmutableAlmanac withCalendarSystem(CalendarSystem system) {
+    if (system == _system)
+      return this;
+    return new ImmutableAlmanac(system, _epochDay);
+  }
+
+  /**
+   * Returns this date with days added.
+   *
+   * @param n the number of days to add.
+   * @return the new date.
+   */
+  public ImmutableAlmanac plusDays(int n) {
+    return new ImmutableAlmanac(_system, _calendar, _rule, _epochDay + n);
+  }
+
+  /**
+   * Returns this date with days subtracted.
+   *
+   * @param n the number of days to subtract.
+   * @return the new date.
+   */
+  public ImmutableAlmanac minusDays(int n) {
+    return new ImmutableAlmanac(_system, _calendar, _rule, _epochDay - n);
+  }
+
+  /**
+   * Gets the calendar system.
+   *
+   * @return the calendar system.
+   */
+  @Override
+  public CalendarSystem getCalendarSystem() {
+    return _system;
+  }
+
+  /**
+   * Gets the epoch day computed when this date was constructed.
+   *
+   * @return the epoch day.
+   */
+  @Override
+  public long toEpochDay() {
+    return _epochDay;
+  }
+
+  /**
+   * Returns the weekday of a 7-day week, starting at Sunday (0).
+   *
+   * @return a weekday in the range [0,6].
+   */
+  @Override
+  public int getWeekDayNumber() {
+    return (int) Math.floorMod(_epochDay + 1, 7);
+  }
+
+  @Override
+  public int getYear() {
+    return _year;
+  }
+
+  @Override
+  public int getMonth() {
+    return _month;
+  }
+
+  @Override
+  public int getDay() {
+    return _day;
+  }
+
+  @Override
+  public void setYear(int year) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public void setMonth(int month) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public void setDay(int day) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public void nextDay() {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public void prevDay() {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public void addDays(int n) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public void subtractDays(int n) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public void set(Almanac a) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public String getDate() {
+    return _year + "-" + _month + "-" + _day;
+  }
+
+  @Override
+  public String getName() {
+    return _system.getName();
+  }
+
+  @Override
+  public int getNumberOfDaysInMonth() {
+    return _system.getNumberOfDaysInMonth(_year, _month);
+  }
+
+  @Override
+  public int getNumberOfDaysInWeek() {
+    return 7;
+  }
+
+  @Override
+  public int getNumberOfMonthsInYear() {
+    return _system.getNumberOfMonthsInYear(_year);
+  }
+
+  @Override
+  public String toString() {
+    return getName() + ": " + getDate();
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (!(obj instanceof ImmutableAlmanac))
+      return false;
+    if (obj == this)
+      return true;
+
+    final ImmutableAlmanac date = (ImmutableAlmanac) obj;
+    return _epochDay == date._epochDay && _system == date._system;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(_system, _epochDay);
+  }
+
+/////////////////////////////////////////////////////////////////////////////
+// private
+
+  private static CalendarId _calendarOf(CalendarSystem system) {
+    for (CalendarId calendar : CalendarId.values()) {
+      if (AlmanacConverter.getCalendarSystem(calendar) == system)
+        return calendar;
+    }
+    Enum<?> rule = _ruleOf(system);
+    if (rule instanceof FrenchRepublicanCalendar.Rule)
+      return CalendarId.FRENCH_REPUBLICAN;
+    if (rule instanceof PersianCalendar.Rule)
+      return CalendarId.PERSIAN;
+    return null;
+  }
+
+  private static Enum<?> _ruleOf(CalendarSystem system) {
+    for (FrenchRepublicanCalendar.Rule rule : FrenchRepublicanCalendar.Rule.values()) {
+      if (AlmanacConverter.getCalendarSystem(rule) == system)
+        return rule;
+    }
+    for (PersianCalendar.Rule rule : PersianCalendar.Rule.values()) {
+      if (AlmanacConverter.getCalendarSystem(rule) == system)
+        return rule;
+    }
+    return null;
+  }
+
+  private static CalendarSystem _systemOf(CalendarId calendar, Enum<?> rule) {
+    if (rule == null)
+      return AlmanacConverter.getCalendarSystem(calendar);
+    if (calendar == CalendarId.FRENCH_REPUBLICAN &&
+        rule instanceof FrenchRepublicanCalendar.Rule)
+      return AlmanacConverter.getCalendarSystem((FrenchRepublicanCalendar.Rule) rule);
+    if (calendar == CalendarId.PERSIAN && rule instanceof PersianCalendar.Rule)
+      return AlmanacConverter.getCalendarSystem((PersianCalendar.Rule) rule);
+    return null;
+  }
+
+  private void writeObject(ObjectOutputStream out) throws IOException {
+    if (_calendar == null)
+      throw new NotSerializableException(_system.getName());
+    out.defaultWriteObject();
+  }
+
+  private void readObject(ObjectInputStream in)
+    throws IOException, ClassNotFoundException {
+    in.defaultReadObject();
+    if (_calendar == null)
+      throw new InvalidObjectException("Calendar must not be null");
+    if (_systemOf(_calendar, _rule) == null)
+      throw new InvalidObjectException("Invalid rule " + _rule + " for " + _calendar);
+  }
+
+  private Object readResolve() throws ObjectStreamException {
+    return new ImmutableAlmanac(
+      _systemOf(_calendar, _rule), _calendar, _rule, _epochDay);
+  }
+}
@@ -16,6 +16,8 @@
 package com.hypotemoose.cal.date;
 
 import com.hypotemoose.cal.constants.CalendarConstants;
+import com.hypotemoose.cal.constants.CalendarId;
+import com.hypotemoose.cal.util.AlmanacConverter;
 
 import java.util.Calendar;
 import java.util.Objects;
@@ -43,6 +45,8 @@ public class IndianCivilCalendar extends Almanac {
 
   public static final String CALENDAR_NAME = "Indian Civil Calendar";
   public static final JulianDay EPOCH = new JulianDay(1749994.5);
+  public static final CalendarSystem SYSTEM =
+    AlmanacConverter.getCalendarSystem(CalendarId.INDIAN_CIVIL);
 
   /**
    * Constructs a new Indian Civil Calendar for today's date.
@@ -138,6 +142,50 @@ public class IndianCivilCalendar extends Almanac {
     return getDay() + " " + getMonthName() + ", " + getYear();
   }
 
+  /**
+   * Gets the calendar system.
+   *
+   * @return the calendar system.
+   */
+  @Override
+  public CalendarSystem getCalendarSystem() {
+    return SYSTEM;
+  }
+
+  /**
+   * Gets the built-in calendar whose fields this date uses.
+   *
+   * @return the calendar.
+   */
+  @Override
+  public CalendarId getCalendarId() {
+    return CalendarId.INDIAN_CIVIL;
+  }
+
+  /**
+   * Returns a copy of this date with days added.
+   *
+   * @param n the number of days to add.
+   * @return the new date.
+   */
+  public IndianCivilCalendar plusDays(int n) {
+    IndianCivilCalendar date = new IndianCivilCalendar(this);
+    date.addDays(n);
+    return date;
+  }
+
+  /**
+   * Returns a copy of this date with days subtracted.
+   *
+   * @param n the number of days to subtract.
+   * @return the new date.
+   */
+  public IndianCivilCalendar minusDays(int n) {
+    IndianCivilCalendar date = new IndianCivilCalendar(this);
+    date.subtractDays(n);
+    return date;
+  }
+
   @Override
   public String getName() {
     return CALENDAR_NAME;
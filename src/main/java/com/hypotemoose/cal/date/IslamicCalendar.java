@@ -15,6 +15,9 @@
  *****************************************************************************/
 package com.hypotemoose.cal.date;
 
+import com.hypotemoose.cal.constants.CalendarId;
+import com.hypotemoose.cal.util.AlmanacConverter;
+
 import java.util.Calendar;
 import java.util.Objects;
 
@@ -54,6 +57,8 @@ public class IslamicCalendar extends Almanac {
 
   public static final String CALENDAR_NAME = "Islamic Calendar";
   public static final JulianDay EPOCH = new JulianDay(1948439.5);
+  public static final CalendarSystem SYSTEM =
+    AlmanacConverter.getCalendarSystem(CalendarId.ISLAMIC);
 
   private CalendarType calendarType;
   private LeapYearRule leapYearRule;
@@ -459,6 +464,61 @@ public class IslamicCalendar extends Almanac {
 
   }
 
+  /**
+   * Gets the calendar system.
+   *
+   * @return the calendar system.
+   */
+  @Override
+  public CalendarSystem getCalendarSystem() {
+    return SYSTEM;
+  }
+
+  /**
+   * Gets the epoch day of this date.
+   * Astronomical dates begin one day before civil dates.
+   *
+   * @return the epoch day.
+   */
+  @Override
+  public long toEpochDay() {
+    return SYSTEM.toEpochDay(year, month, day) - calendarType.getValue();
+  }
+
+  /**
+   * Sets this date to a given epoch day.
+   *
+   * @param epochDay an epoch day.
+   */
+  @Override
+  protected void setEpochDay(long epochDay) {
+    super.setEpochDay(epochDay + calendarType.getValue());
+  }
+
+  /**
+   * Returns a copy of this date with days added.
+   *
+   * @param n the number of days to add.
+   * @return the new date.
+   */
+  public IslamicCalendar plusDays(int n) {
+    IslamicCalendar date = new IslamicCalendar(this);
+    date.addDays(n);
+    return date;
+  }
+
+  /**
+   * Returns a copy of this date with days subtracted.
+   *
+   * @param n the number of days to subtract.
+   * @return the new date.
+   */
+  public IslamicCalendar minusDays(int n) {
+    IslamicCalendar date = new IslamicCalendar(this);
+    date.subtractDays(n);
+    return date;
+  }
+
   @Override
   public String getName() {
     return CALENDAR_NAME;
@@ -15,6 +15,9 @@
  *****************************************************************************/
 package com.hypotemoose.cal.date;
 
+import com.hypotemoose.cal.constants.CalendarId;
+import com.hypotemoose.cal.util.AlmanacConverter;
+
 import java.util.Calendar;
 import java.util.Objects;
 
@@ -32,6 +35,10 @@ public final class JulianCalendar extends Almanac {
 
   public static final String CALENDAR_NAME = "Julian Calendar";
   public static final JulianDay EPOCH = new JulianDay(2299160.5);
+  public static final CalendarSystem SYSTEM =
+    AlmanacConverter.getCalendarSystem(CalendarId.JULIAN);
+  private static final int[] _daysPerMonth =
+    {31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31};
 
   /**
    * Constructs a Julian date using today's date.
@@ -155,13 +162,8 @@ public final class JulianCalendar extends Almanac {
    * @return the number of days in the month.
    */
   public static int getNumberOfDaysInMonth(int month, int year) {
-    if (month == 4 || month == 6 || month == 9 || month == 11)
-      return 30;
-    if (month == 2) {
-      if (!JulianCalendar.isLeapYear(year)) return 28;
-      else return 29;
-    }
-    return 31;
+    if (month == 2 && JulianCalendar.isLeapYear(year)) return 29;
+    return _daysPerMonth[month - 1];
   }
 
   /**
@@ -171,9 +173,8 @@ public final class JulianCalendar extends Almanac {
    * @return an array[12] of month-lengths for a given year.
    */
   public static int[] getDaysPerMonthInYear(int year) {
-    int[] days = new int[12];
-    for (int i = 0; i < 12; ++i)
-      days[i] = JulianCalendar.getNumberOfDaysInMonth(i + 1, year);
+    int[] days = _daysPerMonth.clone();
+    if (JulianCalendar.isLeapYear(year)) days[1] = 29;
     return days;
   }
 
@@ -301,6 +302,50 @@ public final class JulianCalendar extends Almanac {
       getYear());
   }
 
+  /**
+   * Gets the calendar system.
+   *
+   * @return the calendar system.
+   */
+  @Override
+  public CalendarSystem getCalendarSystem() {
+    return SYSTEM;
+  }
+
+  /**
+   * Gets the built-in calendar whose fields this date uses.
+   *
+   * @return the calendar.
+   */
+  @Override
+  public CalendarId getCalendarId() {
+    return CalendarId.JULIAN;
+  }
+
+  /**
+   * Returns a copy of this date with days added.
+   *
+   * @param n the number of days to add.
+   * @return the new date.
+   */
+  public JulianCalendar plusDays(int n) {
+    JulianCalendar date = new JulianCalendar(this);
+    date.addDays(n);
+    return date;
+  }
+
+  /**
+   * Returns a copy of this date with days subtracted.
+   *
+   * @param n the number of days to subtract.
+   * @return the new date.
+   */
+  public JulianCalendar minusDays(int n) {
+    JulianCalendar date = new JulianCalendar(this);
+    date.subtractDays(n);
+    return date;
+  }
+
   @Override
   public String getName() {
     return CALENDAR_NAME;
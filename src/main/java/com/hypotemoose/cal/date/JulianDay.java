@@ -35,7 +35,7 @@ import static com.hypotemoose.cal.util.AlmanacConverter.toJulianDay;
 public final class JulianDay extends Almanac {
 
   public static final String CALENDAR_NAME = "Julian Day";
-  public static JulianDay EPOCH = new JulianDay(2400000.5);
+  public static final JulianDay EPOCH = new JulianDay(2400000.5);
   private double _jday;
 
   /**
@@ -187,6 +187,16 @@ public final class JulianDay extends Almanac {
     return _jday;
   }
 
+  /**
+   * Gets the epoch day of the civil day containing this Julian Day.
+   *
+   * @return the epoch day.
+   */
+  @Override
+  public long toEpochDay() {
+    return (long) Math.floor(_jday + 0.5);
+  }
+
   /**
    * Subtracts days from this Julian day.
    *
@@ -209,6 +219,36 @@ public final class JulianDay extends Almanac {
     return this;
   }
 
+  /**
+   * Returns a copy of this Julian day with days added.
+   *
+   * @param n the number of days to add.
+   * @return the new Julian day.
+   */
+  public JulianDay plusDays(int n) {
+    return new JulianDay(_jday + n);
+  }
+
+  /**
+   * Returns a copy of this Julian day with days subtracted.
+   *
+   * @param n the number of days to subtract.
+   * @return the new Julian day.
+   */
+  public JulianDay minusDays(int n) {
+    return new JulianDay(_jday - n);
+  }
+
+  @Override
+  public void addDays(int n) {
+    _jday += n;
+  }
+
+  @Override
+  public void subtractDays(int n) {
+    _jday -= n;
+  }
+
   /**
    * Sets this calendar.
    *
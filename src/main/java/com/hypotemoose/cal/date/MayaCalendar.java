@@ -15,9 +15,15 @@
  *****************************************************************************/
 package com.hypotemoose.cal.date;
 
+import com.hypotemoose.cal.constants.CalendarId;
+import com.hypotemoose.cal.util.AlmanacConverter;
+
 import java.util.Objects;
 
 import static com.hypotemoose.cal.util.AlmanacConverter.toMayaCalendar;
+import static com.hypotemoose.cal.util.AlmanacConverter.unpackDay;
+import static com.hypotemoose.cal.util.AlmanacConverter.unpackMonth;
+import static com.hypotemoose.cal.util.AlmanacConverter.unpackYear;
 
 /**
  * A date in the Maya calendar.
@@ -59,6 +65,8 @@ public class MayaCalendar extends Almanac {
 
   public static final String CALENDAR_NAME = "Maya Calendar";
   public static final JulianDay EPOCH = new JulianDay(584282.5);
+  public static final CalendarSystem SYSTEM =
+    AlmanacConverter.getCalendarSystem(CalendarId.MAYA);
   private int _kin;
   private int _uinal;
   private int _tun;
@@ -283,6 +291,66 @@ public class MayaCalendar extends Almanac {
     return (CALENDAR_NAME + ": " + getDate());
   }
 
+  /**
+   * Gets the calendar system.
+   *
+   * @return the calendar system.
+   */
+  @Override
+  public CalendarSystem getCalendarSystem() {
+    return SYSTEM;
+  }
+
+  /**
+   * Gets the epoch day of this date.
+   *
+   * @return the epoch day.
+   */
+  @Override
+  public long toEpochDay() {
+    return SYSTEM.toEpochDay((_baktun * 400) + (_katun * 20) + _tun, _uinal, _kin);
+  }
+
+  /**
+   * Sets this date to a given epoch day.
+   *
+   * @param epochDay an epoch day.
+   */
+  @Override
+  protected void setEpochDay(long epochDay) {
+    long date = SYSTEM.fromEpochDay(epochDay);
+    int tuns = unpackYear(date);
+    _baktun = Math.floorDiv(tuns, 400);
+    _katun = Math.floorMod(tuns, 400) / 20;
+    _tun = Math.floorMod(tuns, 20);
+    _uinal = unpackMonth(date);
+    _kin = unpackDay(date);
+  }
+
+  /**
+   * Returns a copy of this date with days added.
+   *
+   * @param n the number of days to add.
+   * @return the new date.
+   */
+  public MayaCalendar plusDays(int n) {
+    MayaCalendar date = new MayaCalendar(this);
+    date.addDays(n);
+    return date;
+  }
+
+  /**
+   * Returns a copy of this date with days subtracted.
+   *
+   * @param n the number of days to subtract.
+   * @return the new date.
+   */
+  public MayaCalendar minusDays(int n) {
+    MayaCalendar date = new MayaCalendar(this);
+    date.subtractDays(n);
+    return date;
+  }
+
   @Override
   public String getName() {
     return CALENDAR_NAME;
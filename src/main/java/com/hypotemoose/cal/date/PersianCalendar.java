@@ -15,6 +15,7 @@
  *****************************************************************************/
 package com.hypotemoose.cal.date;
 
+import com.hypotemoose.cal.constants.CalendarId;
 import com.hypotemoose.cal.util.AlmanacConverter;
 
 import java.util.Objects;
@@ -38,8 +39,32 @@ import static com.hypotemoose.cal.util.AlmanacConverter.toPersianCalendar;
  */
 public class PersianCalendar extends Almanac {
 
+  /**
+   * How the first day of each year is determined. The rule is selected
+   * with {@link AlmanacConverter#setPersianRule(Rule)}.
+   */
+  public enum Rule {
+
+    /**
+     * Each year begins on the day after the vernal equinox in Tehran,
+     * which is computed astronomically.
+     */
+    ASTRONOMICAL,
+
+    /**
+     * Years follow a 33-year cycle in which the years whose remainder
+     * divided by 33 is 1, 5, 9, 13, 17, 22, 26 or 30 are leap years. This
+     * needs only integer arithmetic. The cycle gives the same years as the
+     * astronomical rule from 1343 to 1472 (1964 to 2094 CE); years outside
+     * that range still follow the astronomical rule.
+     */
+    ARITHMETIC
+  }
+
   public static final String CALENDAR_NAME = "Persian Calendar";
   public static final JulianDay EPOCH = new JulianDay(1948320.5);
+  public static final CalendarSystem SYSTEM =
+    AlmanacConverter.getCalendarSystem(CalendarId.PERSIAN);
 
   /**
    * Constructs a new Persian Calendar using today's date.
@@ -87,11 +112,7 @@ public class PersianCalendar extends Almanac {
    * @return true, if is a leap year; false, otherwise.
    */
   public static boolean isLeapYear(int year) {
-    PersianCalendar cal = new PersianCalendar(year, 1, 1);
-    PersianCalendar calp1 = new PersianCalendar(year + 1, 1, 1);
-    JulianDay jd = AlmanacConverter.toJulianDay(cal);
-    JulianDay jdp1 = AlmanacConverter.toJulianDay(calp1);
-    return (jdp1.getValue() - jd.getValue() > 365);
+    return SYSTEM.isLeapYear(year);
   }
 
   /**
@@ -189,6 +210,50 @@ public class PersianCalendar extends Almanac {
     return PersianCalendar.getMonthName(this.month);
   }
 
+  /**
+   * Gets the calendar system.
+   *
+   * @return the calendar system.
+   */
+  @Override
+  public CalendarSystem getCalendarSystem() {
+    return SYSTEM;
+  }
+
+  /**
+   * Gets the built-in calendar whose fields this date uses.
+   *
+   * @return the calendar.
+   */
+  @Override
+  public CalendarId getCalendarId() {
+    return CalendarId.PERSIAN;
+  }
+
+  /**
+   * Returns a copy of this date with days added.
+   *
+   * @param n the number of days to add.
+   * @return the new date.
+   */
+  public PersianCalendar plusDays(int n) {
+    PersianCalendar date = new PersianCalendar(this);
+    date.addDays(n);
+    return date;
+  }
+
+  /**
+   * Returns a copy of this date with days subtracted.
+   *
+   * @param n the number of days to subtract.
+   * @return the new date.
+   */
+  public PersianCalendar minusDays(int n) {
+    PersianCalendar date = new PersianCalendar(this);
+    date.subtractDays(n);
+    return date;
+  }
+
   /**
    * Gets the name of this calendar.
    *
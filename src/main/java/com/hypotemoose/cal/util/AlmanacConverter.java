@@ -17,6 +17,9 @@ package com.hypotemoose.cal.util;
 
 import com.hypotemoose.cal.astro.Meeus;
 import com.hypotemoose.cal.astro.Season;
+import com.hypotemoose.cal.astro.Accuracy;
+import com.hypotemoose.cal.astro.DeltaTProvider;
+import com.hypotemoose.cal.constants.CalendarId;
 import com.hypotemoose.cal.date.*;
 
 /**
@@ -27,20 +30,178 @@ import com.hypotemoose.cal.date.*;
  */
 public class AlmanacConverter {
 
-  /* Constants for Maya Calendar */
-  private static final double _luinal = 20.0;
-  private static final double _ltun = 360.0;
-  private static final double _lkatun = 7200.0;
-  private static final double _lbaktun = 144000.0;
-  private static final double _lpiktun = 2880000.0;
-  private static final double _lkalabtun = 57600000.0;
-  private static final double _lkinchiltun = 1152000000.0;
-
 /////////////////////////////////////////////////////////////////////////////
 // private
 
-  /* To Julian Day ************************************************************/
-  private static final double _lalautun = 23040000000.0;
+  /* Epoch days */
+  private static final long _mayaEpoch = 584283L;
+  private static final long _islamicEpoch = 1948439L;
+  private static final long _hebrewEpoch = 347996L;
+
+  /* Days before each month of a common Gregorian year */
+  private static final int[] _daysBeforeMonth =
+    {0, 31, 59, 90, 120, 151, 181, 212, 243, 273, 304, 334};
+
+  /* Hebrew years whose types are tabulated */
+  private static final int _firstHebrewYear = 1;
+  private static final int _lastHebrewYear = 9999;
+
+  /* First days of the Persian and French Republican years whose local
+     equinoxes fall in the Gregorian years -1000 to 3000 */
+  private static final NewYearIndex _persianNewYears = new NewYearIndex(-1621, 2379) {
+    protected long compute(int year) {
+      return _computePersianNewYear(year);
+    }
+  };
+  private static final NewYearIndex _frenchRepublicanNewYears = new NewYearIndex(-2791, 1209) {
+    protected long compute(int year) {
+      return _computeFrenchRepublicanNewYear(year);
+    }
+  };
+
+  /* Optional cache for the astronomical calendars */
+  private static volatile ConversionCache _cache;
+
+  /* Delta T used to find the local equinoxes */
+  private static volatile DeltaTProvider _deltaT = DeltaTProvider.MEEUS;
+
+  /* Accuracy of the equinoxes and equation of time */
+  private static volatile Accuracy _accuracy = Accuracy.STANDARD;
+
+  /* Persian years in which the arithmetic rule matches the astronomical */
+  private static final int _firstArithmeticPersianYear = 1343;
+  private static final int _lastArithmeticPersianYear = 1472;
+  private static final long _persianEpoch = 1948320L;
+
+  /* Rule that determines the start of each Persian year */
+  private static volatile PersianCalendar.Rule _persianRule =
+    PersianCalendar.Rule.ASTRONOMICAL;
+
+  /* First day of the French Republican calendar, 22 September 1792 */
+  private static final long _frenchRepublicanEpoch = 2375840L;
+
+  /* Rule that determines the start of each French Republican year */
+  private static volatile FrenchRepublicanCalendar.Rule _frenchRepublicanRule =
+    FrenchRepublicanCalendar.Rule.ASTRONOMICAL;
+
+  /* Calendar systems, indexed by CalendarId */
+  private static final CalendarSystem[] _systems = {
+
+    new CalendarSystem() {
+      public String getName() { return GregorianCalendar.CALENDAR_NAME; }
+      public long toEpochDay(int y, int m, int d) { return _g2ed(y, m, d); }
+      public long fromEpochDay(long ed) { return _ed2g(ed); }
+      public boolean isLeapYear(int y) { return _isGregorianLeapYear(y); }
+      public int getNumberOfMonthsInYear(int y) { return 12; }
+      public int getNumberOfDaysInMonth(int y, int m) {
+        return _solarMonthLength(m, _isGregorianLeapYear(y));
+      }
+    },
+
+    new CalendarSystem() {
+      public String getName() { return JulianCalendar.CALENDAR_NAME; }
+      public long toEpochDay(int y, int m, int d) { return _jul2ed(y, m, d); }
+      public long fromEpochDay(long ed) { return _ed2jul(ed); }
+      public boolean isLeapYear(int y) { return _isJulianLeapYear(y); }
+      public int getNumberOfMonthsInYear(int y) { return 12; }
+      public int getNumberOfDaysInMonth(int y, int m) {
+        return _solarMonthLength(m, _isJulianLeapYear(y));
+      }
+    },
+
+    _cached(CalendarId.FRENCH_REPUBLICAN, _frenchRepublicanSystem(null)),
+
+    new CalendarSystem() {
+      public String getName() { return MayaCalendar.CALENDAR_NAME; }
+      public long toEpochDay(int y, int m, int d) { return _m2ed(y, m, d); }
+      public long fromEpochDay(long ed) { return _ed2m(ed); }
+      public boolean isLeapYear(int y) { return false; }
+      public int getNumberOfMonthsInYear(int y) { return 18; }
+      public int getNumberOfDaysInMonth(int y, int m) { return 20; }
+    },
+
+    new CalendarSystem() {
+      public String getName() { return IslamicCalendar.CALENDAR_NAME; }
+      public long toEpochDay(int y, int m, int d) { return _is2ed(y, m, d); }
+      public long fromEpochDay(long ed) { return _ed2is(ed); }
+      public boolean isLeapYear(int y) { return _isIslamicLeapYear(y); }
+      public int getNumberOfMonthsInYear(int y) { return 12; }
+      public int getNumberOfDaysInMonth(int y, int m) {
+        return (m % 2 != 0 || (m == 12 && _isIslamicLeapYear(y))) ? 30 : 29;
+      }
+    },
+
+    new CalendarSystem() {
+      public String getName() { return HebrewCalendar.CALENDAR_NAME; }
+      public long toEpochDay(int y, int m, int d) { return _he2ed(y, m, d); }
+      public long fromEpochDay(long ed) { return _ed2he(ed); }
+      public boolean isLeapYear(int y) { return _isHebrewLeapYear(y); }
+      public int getNumberOfMonthsInYear(int y) {
+        return _isHebrewLeapYear(y) ? 13 : 12;
+      }
+      public int getNumberOfDaysInMonth(int y, int m) {
+        return getHebrewYearType(y).getNumberOfDaysInMonth(m);
+      }
+    },
+
+    _cached(CalendarId.PERSIAN, _persianSystem(null)),
+
+    new CalendarSystem() {
+      public String getName() { return IndianCivilCalendar.CALENDAR_NAME; }
+      public long toEpochDay(int y, int m, int d) { return _in2ed(y, m, d); }
+      public long fromEpochDay(long ed) { return _ed2in(ed); }
+      public boolean isLeapYear(int y) { return _isGregorianLeapYear(y + 78); }
+      public int getNumberOfMonthsInYear(int y) { return 12; }
+      public int getNumberOfDaysInMonth(int y, int m) {
+        if (m == 1) return isLeapYear(y) ? 31 : 30;
+        return (m >= 7) ? 30 : 31;
+      }
+    }
+  };
+
+  /* French Republican calendar systems, indexed by rule */
+  private static final CalendarSystem[] _frenchRepublicanSystems = {
+    _frenchRepublicanSystem(FrenchRepublicanCalendar.Rule.ASTRONOMICAL),
+    _frenchRepublicanSystem(FrenchRepublicanCalendar.Rule.ROMME)
+  };
+
+  /* Persian calendar systems, indexed by rule */
+  private static final CalendarSystem[] _persianSystems = {
+    _persianSystem(PersianCalendar.Rule.ASTRONOMICAL),
+    _persianSystem(PersianCalendar.Rule.ARITHMETIC)
+  };
+
+  /* Conversions between calendars, indexed by source and target CalendarId */
+  private static final Conversion[][] _conversions =
+    new Conversion[_systems.length][_systems.length];
+
+  static {
+    for (int i = 0; i < _systems.length; ++i) {
+      for (int j = 0; j < _systems.length; ++j) {
+        final CalendarSystem from = _systems[i];
+        final CalendarSystem to = _systems[j];
+        _conversions[i][j] = new Conversion() {
+          public long convert(int y, int m, int d) {
+            return to.fromEpochDay(from.toEpochDay(y, m, d));
+          }
+        };
+      }
+    }
+
+    // Direct paths for calendars with a simple relation to each other.
+    _register(CalendarId.GREGORIAN, CalendarId.JULIAN, new Conversion() {
+      public long convert(int y, int m, int d) { return _g2jul(y, m, d); }
+    });
+    _register(CalendarId.JULIAN, CalendarId.GREGORIAN, new Conversion() {
+      public long convert(int y, int m, int d) { return _jul2g(y, m, d); }
+    });
+    _register(CalendarId.GREGORIAN, CalendarId.INDIAN_CIVIL, new Conversion() {
+      public long convert(int y, int m, int d) { return _g2in(y, m, d); }
+    });
+    _register(CalendarId.INDIAN_CIVIL, CalendarId.GREGORIAN, new Conversion() {
+      public long convert(int y, int m, int d) { return _in2g(y, m, d); }
+    });
+  }
 
   /**
    * Converts an Almanac to a Julian day.
@@ -49,25 +210,9 @@ public class AlmanacConverter {
    * @return the Julian day.
    */
   public static JulianDay toJulianDay(Almanac a) {
-    if (!(a instanceof JulianDay)) {
-      if (a instanceof GregorianCalendar)
-        return _g2jd((GregorianCalendar) a);
-      if (a instanceof JulianCalendar)
-        return _jul2jd((JulianCalendar) a);
-      if (a instanceof FrenchRepublicanCalendar)
-        return _frc2jd((FrenchRepublicanCalendar) a);
-      if (a instanceof MayaCalendar)
-        return _m2jd((MayaCalendar) a);
-      if (a instanceof IslamicCalendar)
-        return _is2jd((IslamicCalendar) a);
-      if (a instanceof HebrewCalendar)
-        return _he2jd((HebrewCalendar) a);
-      if (a instanceof PersianCalendar)
-        return _pe2jd((PersianCalendar) a);
-      if (a instanceof IndianCivilCalendar)
-        return _in2jd((IndianCivilCalendar) a);
-    }
-    return (JulianDay) a;
+    if (a instanceof JulianDay)
+      return (JulianDay) a;
+    return _ed2jd(a.toEpochDay());
   }
 
   /**
@@ -80,7 +225,7 @@ public class AlmanacConverter {
     if (a instanceof GregorianCalendar)
       return (GregorianCalendar) a;
     else
-      return _jd2g(toJulianDay(a));
+      return _gregorian(_convert(a, CalendarId.GREGORIAN));
   }
 
   /**
@@ -93,7 +238,7 @@ public class AlmanacConverter {
     if (a instanceof JulianCalendar)
       return (JulianCalendar) a;
     else
-      return _jd2jul(toJulianDay(a));
+      return _julian(_convert(a, CalendarId.JULIAN));
   }
 
   /**
@@ -106,7 +251,7 @@ public class AlmanacConverter {
     if (a instanceof FrenchRepublicanCalendar)
       return (FrenchRepublicanCalendar) a;
     else
-      return _jd2frc(toJulianDay(a));
+      return _frenchRepublican(_convert(a, CalendarId.FRENCH_REPUBLICAN));
   }
 
   /**
@@ -119,7 +264,7 @@ public class AlmanacConverter {
     if (a instanceof MayaCalendar)
       return (MayaCalendar) a;
     else
-      return _jd2m(toJulianDay(a));
+      return _maya(_convert(a, CalendarId.MAYA));
   }
 
   /**
@@ -132,7 +277,7 @@ public class AlmanacConverter {
     if (a instanceof IslamicCalendar)
       return (IslamicCalendar) a;
     else
-      return _jd2is(toJulianDay(a));
+      return _islamic(_convert(a, CalendarId.ISLAMIC));
   }
 
   /**
@@ -145,7 +290,7 @@ public class AlmanacConverter {
     if (a instanceof HebrewCalendar)
       return (HebrewCalendar) a;
     else
-      return _jd2he(toJulianDay(a));
+      return _hebrew(_convert(a, CalendarId.HEBREW));
   }
 
   /**
@@ -158,7 +303,7 @@ public class AlmanacConverter {
     if (a instanceof PersianCalendar)
       return (PersianCalendar) a;
     else
-      return _jd2pe(toJulianDay(a));
+      return _persian(_convert(a, CalendarId.PERSIAN));
   }
 
     /**
@@ -171,339 +316,978 @@ public class AlmanacConverter {
     if (a instanceof IndianCivilCalendar)
       return (IndianCivilCalendar) a;
     else
-      return _jd2in(toJulianDay(a));
+      return _indianCivil(_convert(a, CalendarId.INDIAN_CIVIL));
   }
 
-  private static JulianDay _g2jd(GregorianCalendar date) {
-    int month = date.getMonth();
-    int year = date.getYear();
-    int day = date.getDay();
-    if (month == 1 || month == 2) {
-      year--;
-      month += 12;
-    }
-    int a = (int) Math.floor(year / 100);
-    int b = a / 4;
-    int c = 2 - a + b;
-    int e = (int) (365.25 * (year + 4716));
-    int f = (int) (30.6001 * (month + 1));
-    double jd = c + day + e + f - 1524.5;
-    return new JulianDay(jd);
-  }
-
-  private static JulianDay _jul2jd(JulianCalendar date) {
-    int month = date.getMonth();
-    int year = date.getYear();
-    int day = date.getDay();
-
-    if (year < 1) year++;
-    if (month <= 2) {
-      year--;
-      month += 12;
-    }
+  /**
+   * Converts a date to an epoch day.
+   * <p>
+   * The epoch day is the chronological Julian Day Number; that is, the civil
+   * day which begins at Julian Day {@code n - 0.5} has the epoch day
+   * {@code n}. This method uses integer arithmetic only and does not
+   * allocate.
+   *
+   * @param calendar a calendar.
+   * @param year     a year.
+   * @param month    a month.
+   * @param day      a day.
+   * @return the epoch day.
+   */
+  public static long toEpochDay(CalendarId calendar, int year, int month, int day) {
+    return _systems[calendar.getValue()].toEpochDay(year, month, day);
+  }
 
-    double jd = (Math.floor(365.25 * (year + 4716)) +
-      Math.floor(30.6001 * (month + 1)) +
-      day) - 1524.5;
+  /**
+   * Converts an epoch day to a date.
+   * The date is returned packed into a single long; use
+   * {@link #unpackYear(long)}, {@link #unpackMonth(long)} and
+   * {@link #unpackDay(long)} to read its fields.
+   *
+   * @param calendar a calendar.
+   * @param epochDay an epoch day.
+   * @return the packed date.
+   * @see #toEpochDay(CalendarId, int, int, int)
+   */
+  public static long fromEpochDay(CalendarId calendar, long epochDay) {
+    return _systems[calendar.getValue()].fromEpochDay(epochDay);
+  }
 
-    return new JulianDay(jd);
+  /**
+   * Converts a date from one calendar to another.
+   * Calendars with a simple relation to each other, such as the Gregorian
+   * and Julian calendars, are converted directly; all others are converted
+   * through the epoch day. The date is returned packed into a single long.
+   *
+   * @param from  the calendar of the date.
+   * @param to    the calendar to convert to.
+   * @param year  a year.
+   * @param month a month.
+   * @param day   a day.
+   * @return the packed date.
+   */
+  public static long convert(CalendarId from, CalendarId to,
+                             int year, int month, int day) {
+    return getConversion(from, to).convert(year, month, day);
   }
 
-  private static JulianDay _frc2jd(FrenchRepublicanCalendar date) {
-    int year = date.getYear();
-    int month = date.getMonth();
-    int week = date.getWeek();
-    int day = date.getDay(false);
+  /**
+   * Sets the cache used by the astronomical calendars.
+   * <p>
+   * Conversions to and from the French Republican and Persian calendars
+   * look up an equinox, which is tabulated for the years -1000 to 3000 and
+   * computed for other years, so they are slower than the others. When
+   * a cache is set, their results are remembered and shared between all
+   * threads. By default no cache is used.
+   *
+   * @param cache a cache; null, to stop caching.
+   */
+  public static void setCache(ConversionCache cache) {
+    _cache = cache;
+  }
 
-    double guess = date.EPOCH.getValue() + (Meeus.TROPICAL_YEAR * ((year - 1) - 1));
-    double[] adr = new double[2];
-    adr[0] = year - 1;
-    adr[1] = 0;
+  /**
+   * Gets the cache used by the astronomical calendars.
+   *
+   * @return the cache; null, if not caching.
+   */
+  public static ConversionCache getCache() {
+    return _cache;
+  }
 
-    while (adr[0] < year) {
-      adr = anneeDeLaRevolution(new JulianDay(guess));
-      guess = adr[1] + (Meeus.TROPICAL_YEAR + 2);
-    }
-    double equinox = adr[1];
-
-    double jd = equinox +
-      (30 * (month - 1)) +
-      (10 * (week - 1)) +
-      (day - 1);
-
-    return new JulianDay(jd);
-  }
-
-  private static JulianDay _m2jd(MayaCalendar date) {
-    int baktun = date.getBaktun();
-    int katun = date.getKatun();
-    int tun = date.getTun();
-    int uinal = date.getUinal();
-    int kin = date.getKin();
-
-    double jd = date.EPOCH.getValue() +
-      (baktun * 144000) +
-      (katun * 7200) +
-      (tun * 360) +
-      (uinal * 20) +
-      kin;
-    return new JulianDay(jd);
-  }
-
-  private static JulianDay _is2jd(IslamicCalendar date) {
-    int day = date.getDay();
-    int month = date.getMonth();
-    int year = date.getYear();
-    int astro = date.getCalendarType().getValue();
-    double jd = (day +
-      Math.ceil(29.5 * (month - 1)) +
-      (year - 1) * 354 +
-      Math.floor((3 + (11 * year)) / 30) +
-      (IslamicCalendar.EPOCH.getValue()-astro)) - 1;
-    return new JulianDay(jd);
-  }
-
-  private static JulianDay _he2jd(HebrewCalendar date) {
-    int day = date.getDay();
-    int month = date.getMonth();
-    int year = date.getYear();
-    int months = date.getNumberOfMonthsInYear();
-    double jd = HebrewCalendar.EPOCH.getValue() +
-      delayHebrewYear(year) +
-      delayHebrewYearAdjacent(year) +
-      day + 1;
+  /**
+   * Sets the source of Delta T used by the astronomical calendars.
+   * <p>
+   * The French Republican and Persian years begin on the day of an equinox
+   * in local time, which needs Delta T to convert from Dynamical Time.
+   * Setting a provider discards the indexes of new-year days and empties
+   * the cache, if any. It should be set before conversions are made on other
+   * threads. By default, {@link DeltaTProvider#MEEUS} is used.
+   *
+   * @param provider a provider.
+   */
+  public static void setDeltaTProvider(DeltaTProvider provider) {
+    if (provider == null)
+      throw new IllegalArgumentException("Provider must not be null");
+    _deltaT = provider;
+    _persianNewYears.clear();
+    _frenchRepublicanNewYears.clear();
+    ConversionCache cache = _cache;
+    if (cache != null) cache.clear();
+  }
 
-    if (month < 7) {
-      for (int i = 7; i <= months; ++i) {
-        jd += HebrewCalendar.getNumberOfDaysInMonth(year, i);
+  /**
+   * Gets the source of Delta T used by the astronomical calendars.
+   *
+   * @return the provider.
+   */
+  public static DeltaTProvider getDeltaTProvider() {
+    return _deltaT;
+  }
+
+  /**
+   * Sets the accuracy of the equinoxes used by the astronomical calendars.
+   * <p>
+   * With {@link Accuracy#FAST}, the equinox is the mean instant, which is
+   * within 0.015 days of the full series, and the equation of time uses a
+   * truncated nutation. This computes an equinox about twice as fast, but
+   * moves the start of 33 of the 8002 French Republican and Persian years
+   * from -1000 to 3000 by a day, where the equinox falls close to
+   * midnight or noon. Setting the accuracy discards the
+   * indexes of new-year days and empties the cache, if any. It should be set
+   * before conversions are made on other threads. By default,
+   * {@link Accuracy#STANDARD} is used.
+   *
+   * @param accuracy an accuracy.
+   */
+  public static void setAccuracy(Accuracy accuracy) {
+    if (accuracy == null)
+      throw new IllegalArgumentException("Accuracy must not be null");
+    _accuracy = accuracy;
+    _persianNewYears.clear();
+    _frenchRepublicanNewYears.clear();
+    ConversionCache cache = _cache;
+    if (cache != null) cache.clear();
+  }
+
+  /**
+   * Gets the accuracy of the equinoxes used by the astronomical calendars.
+   *
+   * @return the accuracy.
+   */
+  public static Accuracy getAccuracy() {
+    return _accuracy;
+  }
+
+  /**
+   * Sets the rule that determines the start of each Persian year.
+   * <p>
+   * With {@link PersianCalendar.Rule#ARITHMETIC}, the years from 1343 to
+   * 1472 are found with integer arithmetic instead of an equinox; the
+   * results are the same as with the default settings of the astronomical
+   * rule. Setting the rule empties the cache, if any. It should be set
+   * before conversions are made on other threads. By default,
+   * {@link PersianCalendar.Rule#ASTRONOMICAL} is used.
+   *
+   * @param rule a rule.
+   */
+  public static void setPersianRule(PersianCalendar.Rule rule) {
+    if (rule == null)
+      throw new IllegalArgumentException("Rule must not be null");
+    _persianRule = rule;
+    ConversionCache cache = _cache;
+    if (cache != null) cache.clear();
+  }
+
+  /**
+   * Gets the rule that determines the start of each Persian year.
+   *
+   * @return the rule.
+   */
+  public static PersianCalendar.Rule getPersianRule() {
+    return _persianRule;
+  }
+
+  /**
+   * Sets the rule that determines the start of each French Republican year.
+   * <p>
+   * With {@link FrenchRepublicanCalendar.Rule#ROMME}, every year is found
+   * with integer arithmetic instead of an equinox. The leap years then
+   * differ from the astronomical rule, even in the years the calendar was
+   * in use. Setting the rule empties the cache, if any. It should be set
+   * before conversions are made on other threads. By default,
+   * {@link FrenchRepublicanCalendar.Rule#ASTRONOMICAL} is used.
+   *
+   * @param rule a rule.
+   */
+  public static void setFrenchRepublicanRule(FrenchRepublicanCalendar.Rule rule) {
+    if (rule == null)
+      throw new IllegalArgumentException("Rule must not be null");
+    _frenchRepublicanRule = rule;
+    ConversionCache cache = _cache;
+    if (cache != null) cache.clear();
+  }
+
+  /**
+   * Gets the rule that determines the start of each French Republican year.
+   *
+   * @return the rule.
+   */
+  public static FrenchRepublicanCalendar.Rule getFrenchRepublicanRule() {
+    return _frenchRepublicanRule;
+  }
+
+  /**
+   * Gets the type of a Hebrew year.
+   * <p>
+   * The types of the years 1 to 9999 are tabulated the first time one is
+   * requested. The types of other years are computed from their molads.
+   *
+   * @param year a Hebrew year.
+   * @return the type of the year.
+   */
+  public static HebrewCalendar.YearType getHebrewYearType(int year) {
+    if (year >= _firstHebrewYear && year <= _lastHebrewYear)
+      return HebrewYears.types[HebrewYears.ordinals[year - _firstHebrewYear]];
+    long start = _hebrewNewYear(year);
+    return _hebrewYearType(year, start, _hebrewNewYear(year + 1));
+  }
+
+  /**
+   * Gets the calendar system of a built-in calendar.
+   *
+   * @param calendar a calendar.
+   * @return the calendar system.
+   */
+  public static CalendarSystem getCalendarSystem(CalendarId calendar) {
+    return _systems[calendar.getValue()];
+  }
+
+  /**
+   * Gets the French Republican calendar system of a rule. Unlike the
+   * system of {@link CalendarId#FRENCH_REPUBLICAN}, it ignores the rule
+   * set with {@link #setFrenchRepublicanRule(FrenchRepublicanCalendar.Rule)}
+   * and does not use the cache.
+   *
+   * @param rule a rule.
+   * @return the calendar system.
+   */
+  public static CalendarSystem getCalendarSystem(FrenchRepublicanCalendar.Rule rule) {
+    return _frenchRepublicanSystems[rule.ordinal()];
+  }
+
+  /**
+   * Gets the Persian calendar system of a rule. Unlike the system of
+   * {@link CalendarId#PERSIAN}, it ignores the rule set with
+   * {@link #setPersianRule(PersianCalendar.Rule)} and does not use the
+   * cache.
+   *
+   * @param rule a rule.
+   * @return the calendar system.
+   */
+  public static CalendarSystem getCalendarSystem(PersianCalendar.Rule rule) {
+    return _persianSystems[rule.ordinal()];
+  }
+
+  /**
+   * Converts a Julian day to an epoch day.
+   *
+   * @param jd a Julian day.
+   * @return the epoch day of the civil day containing the Julian day.
+   */
+  public static long toEpochDay(JulianDay jd) {
+    return jd.toEpochDay();
+  }
+
+  /**
+   * Packs a year, month and day into a single long.
+   *
+   * @param year  a year.
+   * @param month a month [0-65535].
+   * @param day   a day [0-65535].
+   * @return the packed date.
+   */
+  public static long packDate(int year, int month, int day) {
+    return ((long) year << 32) | ((month & 0xFFFFL) << 16) | (day & 0xFFFFL);
+  }
+
+  /**
+   * Gets the year of a packed date.
+   *
+   * @param date a packed date.
+   * @return the year.
+   */
+  public static int unpackYear(long date) {
+    return (int) (date >> 32);
+  }
+
+  /**
+   * Gets the month of a packed date.
+   *
+   * @param date a packed date.
+   * @return the month.
+   */
+  public static int unpackMonth(long date) {
+    return (int) ((date >>> 16) & 0xFFFFL);
+  }
+
+  /**
+   * Gets the day of a packed date.
+   *
+   * @param date a packed date.
+   * @return the day.
+   */
+  public static int unpackDay(long date) {
+    return (int) (date & 0xFFFFL);
+  }
+
+  /**
+   * Gets the conversion between two calendars.
+   *
+   * @param from the source calendar.
+   * @param to   the target calendar.
+   * @return the conversion.
+   */
+  static Conversion getConversion(CalendarId from, CalendarId to) {
+    return _conversions[from.getValue()][to.getValue()];
+  }
+
+  /**
+   * Converts a date between two calendars, returning the packed date.
+   */
+  interface Conversion {
+    long convert(int year, int month, int day);
+  }
+
+  /**
+   * Makes a French Republican calendar system that follows a rule, or the
+   * current setting if the rule is null.
+   */
+  private static CalendarSystem _frenchRepublicanSystem(
+    final FrenchRepublicanCalendar.Rule rule) {
+    return new CalendarSystem() {
+      public String getName() { return FrenchRepublicanCalendar.CALENDAR_NAME; }
+      public long toEpochDay(int y, int m, int d) { return _frc2ed(_rule(), y, m, d); }
+      public long fromEpochDay(long ed) { return _ed2frc(_rule(), ed); }
+      public boolean isLeapYear(int y) { return _isFrenchRepublicanLeapYear(_rule(), y); }
+      public int getNumberOfMonthsInYear(int y) { return 13; }
+      public int getNumberOfDaysInMonth(int y, int m) {
+        return (m == 13) ? (isLeapYear(y) ? 6 : 5) : 30;
+      }
+      private FrenchRepublicanCalendar.Rule _rule() {
+        return (rule != null) ? rule : _frenchRepublicanRule;
       }
+    };
+  }
 
-      for (int i = 1; i < month; ++i) {
-        jd += HebrewCalendar.getNumberOfDaysInMonth(year, i);
+  /**
+   * Makes a Persian calendar system that follows a rule, or the current
+   * setting if the rule is null.
+   */
+  private static CalendarSystem _persianSystem(final PersianCalendar.Rule rule) {
+    return new CalendarSystem() {
+      public String getName() { return PersianCalendar.CALENDAR_NAME; }
+      public long toEpochDay(int y, int m, int d) { return _pe2ed(_rule(), y, m, d); }
+      public long fromEpochDay(long ed) { return _ed2pe(_rule(), ed); }
+      public boolean isLeapYear(int y) { return _isPersianLeapYear(_rule(), y); }
+      public int getNumberOfMonthsInYear(int y) { return 12; }
+      public int getNumberOfDaysInMonth(int y, int m) {
+        if (m <= 6) return 31;
+        if (m != 12) return 30;
+        return isLeapYear(y) ? 30 : 29;
       }
-    } else {
-      for (int i = 7; i < month; ++i) {
-        jd += HebrewCalendar.getNumberOfDaysInMonth(year, i);
+      private PersianCalendar.Rule _rule() {
+        return (rule != null) ? rule : _persianRule;
       }
-    }
+    };
+  }
 
-    return new JulianDay(jd);
+  /**
+   * Wraps a calendar system so that its conversions use the cache, if one
+   * is set.
+   */
+  private static CalendarSystem _cached(CalendarId calendar,
+                                        final CalendarSystem system) {
+    final int toKind = 2 * calendar.getValue();
+    final int fromKind = toKind + 1;
+    return new CalendarSystem() {
+      public String getName() { return system.getName(); }
+      public long toEpochDay(int y, int m, int d) {
+        ConversionCache cache = _cache;
+        if (cache == null)
+          return system.toEpochDay(y, m, d);
+        long date = packDate(y, m, d);
+        long ed = cache.get(toKind, date);
+        if (ed == ConversionCache.ABSENT) {
+          ed = system.toEpochDay(y, m, d);
+          cache.put(toKind, date, ed);
+        }
+        return ed;
+      }
+      public long fromEpochDay(long ed) {
+        ConversionCache cache = _cache;
+        if (cache == null)
+          return system.fromEpochDay(ed);
+        long date = cache.get(fromKind, ed);
+        if (date == ConversionCache.ABSENT) {
+          date = system.fromEpochDay(ed);
+          cache.put(fromKind, ed, date);
+        }
+        return date;
+      }
+      public boolean isLeapYear(int y) { return system.isLeapYear(y); }
+      public int getNumberOfMonthsInYear(int y) {
+        return system.getNumberOfMonthsInYear(y);
+      }
+      public int getNumberOfDaysInMonth(int y, int m) {
+        return system.getNumberOfDaysInMonth(y, m);
+      }
+    };
   }
 
-  private static JulianDay _pe2jd(PersianCalendar date) {
-    int year = date.getYear();
-    int month = date.getMonth();
-    int day = date.getDay();
-    double epoch = PersianCalendar.EPOCH.getValue();
-    double guess = (epoch - 1) + (Meeus.TROPICAL_YEAR * ((year - 1) - 1));
-    double[] adr = new double[]{year - 1, 0};
-    while (adr[0] < year) {
-      adr = persianAstronomicalYear(guess);
-      guess = adr[1] + Meeus.TROPICAL_YEAR + 2;
-    }
-    double equinox = adr[1];
-    double jd = equinox + (day - 1) +
-      ((month <= 7) ? ((month - 1) * 31) : (((month - 1) * 30) + 6));
-    jd += 0.5;
-    return new JulianDay(jd);
+  /**
+   * Converts an almanac to a packed date. Dates with a calendar id go
+   * through the conversion between the two calendars, which may be direct;
+   * all others go through the epoch day.
+   */
+  private static long _convert(Almanac a, CalendarId to) {
+    CalendarId from = a.getCalendarId();
+    if (from == null)
+      return fromEpochDay(to, a.toEpochDay());
+    return getConversion(from, to).convert(a.getYear(), a.getMonth(), a.getDay());
   }
 
-  private static JulianDay _in2jd(IndianCivilCalendar date) {
-    int year = date.getYear();
-    int month = date.getMonth();
-    int day = date.getDay();
-    double jd;
-    boolean isLeap = IndianCivilCalendar.isLeapYear(year);
+  private static void _register(CalendarId from, CalendarId to,
+                                Conversion conversion) {
+    _conversions[from.getValue()][to.getValue()] = conversion;
+  }
 
-    GregorianCalendar cal = new GregorianCalendar(year + 78, 3, isLeap ? 21 : 22);
-    double start = _g2jd(cal).getValue();
-    int caitra = isLeap ? 31 : 30;
+  private static JulianDay _ed2jd(long epochDay) {
+    return new JulianDay(epochDay - 0.5);
+  }
 
-    if (month==1) {
-      jd = start + (day - 1);
-    } else {
-      jd = start + caitra;
-      int m = month - 2;
-      m = Math.min(m, 5);
-      jd += m*31;
-      if (month >= 8) {
-        m = month - 7;
-        jd += m*30;
-      }
-      jd += day - 1;
-    }
-    return new JulianDay(jd);
-  }
-
-  private static GregorianCalendar _jd2g(JulianDay jd) {
-    int J = (int) (jd.getValue() + 0.5);
-    int y = 4716, j = 1401, m = 2;
-    int n = 12, r = 4, p = 1461;
-    int v = 3, u = 5, s = 153;
-    int w = 2, B = 274277, C = -38;
-    int f = J + j + (((4 * J + B) / 146097) * 3) / 4 + C;
-    int e = r * f + v;
-    int g = (e % p) / r;
-    int h = u * g + w;
-    int day = (h % s) / u + 1;
-    int month = (h / s + m) % n + 1;
-    int year = (e / p) - y + (n + m - month) / n;
-    return new GregorianCalendar(year, month, day);
-  }
-
-  private static JulianCalendar _jd2jul(JulianDay jd) {
-    double jday = jd.getValue();
-    double a = Math.floor(jday + 0.5f);
-    double b = a + 1524;
-    double c = Math.floor((b - 122.10) / 365.25);
-    double d = Math.floor(365.25 * c);
-    double e = Math.floor((b - d) / 30.6001);
-
-    int month = (int) Math.floor((e < 14) ? (e - 1) : (e - 13));
-    int year = (int) Math.floor((month > 2) ? (c - 4716) : (c - 4715));
-    int day = (int) (b - d - Math.floor(30.6001 * e));
+  private static GregorianCalendar _gregorian(long d) {
+    return new GregorianCalendar(unpackYear(d), unpackMonth(d), unpackDay(d));
+  }
 
-    // Since there's no "0" year.
-    if (year < 1)
-      year--;
+  private static JulianCalendar _julian(long d) {
+    return new JulianCalendar(unpackYear(d), unpackMonth(d), unpackDay(d));
+  }
+
+  private static FrenchRepublicanCalendar _frenchRepublican(long d) {
+    int day = unpackDay(d) - 1;
+    return new FrenchRepublicanCalendar(
+      unpackYear(d), unpackMonth(d), (day / 10) + 1, (day % 10) + 1);
+  }
+
+  private static MayaCalendar _maya(long d) {
+    int tuns = unpackYear(d);
+    return new MayaCalendar(
+      Math.floorDiv(tuns, 400),
+      Math.floorMod(tuns, 400) / 20,
+      Math.floorMod(tuns, 20),
+      unpackMonth(d),
+      unpackDay(d));
+  }
 
-    return new JulianCalendar(year, month, day);
-  }
-
-  private static FrenchRepublicanCalendar _jd2frc(JulianDay jd) {
-    int year, month, week, day;
-    double dd = jd.getValue();
-    double jday = Math.floor(dd) + 0.5;
-    double[] adr = anneeDeLaRevolution(new JulianDay(jd));
-    year = (int) adr[0];
-    double equinoxe = adr[1];
-    month = (int) (Math.floor((dd - equinoxe) / 30) + 1);
-    double djour = (dd - equinoxe) % 30;
-    week = (int) (Math.floor(djour / 10) + 1);
-    day = (int) ((djour % 10) + 1);
-
-    if (day > 10) {
-      day -= 12;
-      week = 1;
-      month = 13;
+  private static IslamicCalendar _islamic(long d) {
+    return new IslamicCalendar(unpackYear(d), unpackMonth(d), unpackDay(d));
+  }
+
+  private static HebrewCalendar _hebrew(long d) {
+    return new HebrewCalendar(unpackYear(d), unpackMonth(d), unpackDay(d));
+  }
+
+  private static PersianCalendar _persian(long d) {
+    return new PersianCalendar(unpackYear(d), unpackMonth(d), unpackDay(d));
+  }
+
+  private static IndianCivilCalendar _indianCivil(long d) {
+    return new IndianCivilCalendar(unpackYear(d), unpackMonth(d), unpackDay(d));
+  }
+
+  /* To epoch day ************************************************************/
+
+  private static long _g2ed(int year, int month, int day) {
+    long y = year;
+    long m = month;
+    if (m <= 2) {
+      y--;
+      m += 12;
     }
-    if (month == 13) {
-      week = 1;
-      if (day > 6) {
-        day = 1;
-      }
+    long a = Math.floorDiv(y, 100);
+    long b = 2 - a + Math.floorDiv(a, 4);
+    return Math.floorDiv(1461 * (y + 4716), 4) + ((153 * (m + 1)) / 5) +
+      day + b - 1524;
+  }
+
+  private static long _jul2ed(int year, int month, int day) {
+    long y = (year < 1) ? year + 1 : year;
+    long m = month;
+    if (m <= 2) {
+      y--;
+      m += 12;
     }
+    return Math.floorDiv(1461 * (y + 4716), 4) + ((153 * (m + 1)) / 5) +
+      day - 1524;
+  }
 
-    return new FrenchRepublicanCalendar(year, month, week, day);
+  private static long _frc2ed(FrenchRepublicanCalendar.Rule rule,
+                              int year, int month, int day) {
+    return _frenchRepublicanNewYear(rule, year) + (30 * (month - 1)) + (day - 1);
   }
 
-  private static MayaCalendar _jd2m(JulianDay jd) {
-    int baktun, katun, tun, uinal, kin;
-    double day = jd.atMidnight().getValue();
-    double d = day - MayaCalendar.EPOCH.getValue();
-    baktun = (int) Math.floor(d / _lbaktun);
-    d = d % _lbaktun;
-    katun = (int) Math.floor(d / _lkatun);
-    d = d % _lkatun;
-    tun = (int) Math.floor(d / _ltun);
-    d = d % _ltun;
-    uinal = (int) Math.floor(d / _luinal);
-    kin = (int) (d % _luinal);
-    return new MayaCalendar(baktun, katun, tun, uinal, kin);
+  private static long _m2ed(int tuns, int uinal, int kin) {
+    return _mayaEpoch + (tuns * 360L) + (uinal * 20L) + kin;
   }
 
-  private static IslamicCalendar _jd2is(JulianDay jd) {
-    double epoch = IslamicCalendar.EPOCH.getValue();
-    double jday = jd.atMidnight().getValue();
-    int year = (int) Math.floor(((30 * (jday - epoch)) + 10646) / 10631);
+  private static long _is2ed(int year, int month, int day) {
+    return day +
+      ((59L * (month - 1) + 1) / 2) +
+      ((year - 1) * 354L) +
+      Math.floorDiv(3 + (11L * year), 30) +
+      _islamicEpoch;
+  }
 
-    double guessy = _is2jd(new IslamicCalendar(year, 1, 1)).getValue();
-    int month = (int) Math.min(12, Math.ceil((jday - (29 + guessy)) / 29.5) + 1);
+  private static long _he2ed(int year, int month, int day) {
+    long start = _hebrewNewYear(year);
+    HebrewCalendar.YearType type = getHebrewYearType(year);
+    int offset = (month >= 1 && month <= type.getNumberOfMonths()) ?
+      type.getDaysBeforeMonth(month) : _hebrewMonthStart(month, type);
+    return start + offset + (day - 1);
+  }
 
-    double guessm = _is2jd(new IslamicCalendar(year, month, 1)).getValue();
-    int day = (int) (jday - guessm) + 1;
+  private static long _pe2ed(PersianCalendar.Rule rule,
+                             int year, int month, int day) {
+    return _persianNewYear(rule, year) + (day - 1) +
+      ((month <= 7) ? ((month - 1) * 31) : (((month - 1) * 30) + 6));
+  }
+
+  private static long _in2ed(int year, int month, int day) {
+    boolean isLeap = _isGregorianLeapYear(year + 78);
+    return _g2ed(year + 78, 3, isLeap ? 21 : 22) +
+      _indianDayOfYear(month, day, isLeap);
+  }
 
-    return new IslamicCalendar(year, month, day);
+  /* From epoch day **********************************************************/
+
+  private static long _ed2g(long ed) {
+    long a = ed + 32044;
+    long b = Math.floorDiv(4 * a + 3, 146097);
+    long c = a - Math.floorDiv(146097 * b, 4);
+    long d = Math.floorDiv(4 * c + 3, 1461);
+    long e = c - Math.floorDiv(1461 * d, 4);
+    long m = (5 * e + 2) / 153;
+    int day = (int) (e - ((153 * m + 2) / 5) + 1);
+    int month = (int) (m + 3 - (12 * (m / 10)));
+    int year = (int) ((100 * b) + d - 4800 + (m / 10));
+    return packDate(year, month, day);
   }
 
-  private static HebrewCalendar _jd2he(JulianDay jd) {
-    int year, month, day;
-    double epoch = HebrewCalendar.EPOCH.getValue();
-    double jday = jd.atMidnight().getValue();
-    int count = (int) Math.floor(((jday - epoch) * 98496.0) / 35975351.0);
+  private static long _ed2jul(long ed) {
+    long c = ed + 32082;
+    long d = Math.floorDiv(4 * c + 3, 1461);
+    long e = c - Math.floorDiv(1461 * d, 4);
+    long m = (5 * e + 2) / 153;
+    int day = (int) (e - ((153 * m + 2) / 5) + 1);
+    int month = (int) (m + 3 - (12 * (m / 10)));
+    int year = (int) (d - 4800 + (m / 10));
 
-    year = count - 1;
+    // Since there's no "0" year.
+    if (year < 1)
+      year--;
+
+    return packDate(year, month, day);
+  }
 
-    HebrewCalendar cal = new HebrewCalendar(count, 7, 1);
-    double guess = _he2jd(cal).getValue();
-    for (int i = count; jday >= guess; ++i) {
-      year++;
-      cal.setYear(i + 1);
-      guess = _he2jd(cal).getValue();
+  private static long _ed2frc(FrenchRepublicanCalendar.Rule rule, long ed) {
+    int year;
+    long start;
+    if (rule == FrenchRepublicanCalendar.Rule.ROMME) {
+      year = (int) Math.floorDiv(4000 * (ed - _frenchRepublicanEpoch + 2), 1460969) + 1;
+      start = _rommeNewYear(year);
+      if (ed < start) {
+        year--;
+        start = _rommeNewYear(year);
+      }
+    } else if (_frenchRepublicanNewYears.containsDay(ed)) {
+      year = _frenchRepublicanNewYears.getYear(ed);
+      start = _frenchRepublicanNewYears.getNewYear(year);
+    } else {
+      year = unpackYear(_ed2g(ed)) - 1791;
+      start = _frenchRepublicanNewYear(rule, year);
+      if (ed < start) {
+        year--;
+        start = _frenchRepublicanNewYear(rule, year);
+      }
     }
+    int n = (int) (ed - start);
+    return packDate(year, (n / 30) + 1, (n % 30) + 1);
+  }
 
-    int first = (jday < _he2jd(new HebrewCalendar(year, 1, 1)).getValue()) ? 7 : 1;
-    month = first;
+  private static long _ed2m(long ed) {
+    long d = ed - _mayaEpoch;
+    int tuns = (int) Math.floorDiv(d, 360);
+    int rem = (int) Math.floorMod(d, 360);
+    return packDate(tuns, rem / 20, rem % 20);
+  }
 
-    cal.set(year, first, HebrewCalendar.getNumberOfDaysInMonth(year, first));
+  private static long _ed2is(long ed) {
+    int year = (int) Math.floorDiv(
+      (30 * (ed - _islamicEpoch - 1)) + 10646, 10631);
+    long x = 2 * (ed - (29 + _is2ed(year, 1, 1)));
+    int month = (int) Math.min(12, -Math.floorDiv(-x, 59) + 1);
+    int day = (int) (ed - _is2ed(year, month, 1)) + 1;
+    return packDate(year, month, day);
+  }
 
-    for (int i = first; jday > _he2jd(new HebrewCalendar(year, i, HebrewCalendar.getNumberOfDaysInMonth(year, i))).getValue(); ++i) {
-      ++month;
+  private static long _ed2he(long ed) {
+    // The year of the last molad of Tishri on or before this day. The new
+    // year is never more than two days after its molad, so the day is in
+    // this year or the one before.
+    long months = Math.floorDiv(((ed - _hebrewEpoch - 1) * 25920) - 12085, 765433);
+    int year = (int) Math.floorDiv((19 * months) + 252, 235);
+    long d0 = _hebrewDelay(year - 1);
+    long d1 = _hebrewDelay(year);
+    long d2 = _hebrewDelay(year + 1);
+    long start = _hebrewEpoch + 2 + d1 + _hebrewDelayAdjacent(d0, d1, d2);
+    long end;
+    if (ed < start) {
+      year--;
+      end = start;
+      start = _hebrewEpoch + 2 + d0 +
+        _hebrewDelayAdjacent(_hebrewDelay(year - 1), d0, d1);
+    } else {
+      end = _hebrewEpoch + 2 + d2 +
+        _hebrewDelayAdjacent(d1, d2, _hebrewDelay(year + 2));
     }
-    cal.set(year, month, 1);
-    day = (int) (jday - _he2jd(cal).getValue()) + 1;
-    return new HebrewCalendar(year, month, day);
+
+    HebrewCalendar.YearType type =
+      (year >= _firstHebrewYear && year <= _lastHebrewYear) ?
+      getHebrewYearType(year) : _hebrewYearType(year, start, end);
+    int n = (int) (ed - start) + 1;
+    int month = type.getMonthOfDay(n);
+    return packDate(year, month, n - type.getDaysBeforeMonth(month));
   }
 
-  private static PersianCalendar _jd2pe(JulianDay jd) {
-    double jday = jd.atMidnight().getValue();
-    double[] adr = persianAstronomicalYear(jday);
-    int year = (int) adr[0];
-    double yearDay = Math.floor(jday) - Math.floor(_pe2jd(new PersianCalendar(year, 1, 1)).getValue()) + 1;
-    int month = (yearDay <= 186) ? (int) Math.ceil(yearDay / 31.0) : (int) (Math.ceil((yearDay - 6) / 30.0));
-    int day = (int) (Math.floor(jday) - Math.floor(_pe2jd(new PersianCalendar(year, month, 1)).getValue())) + 1;
-    return new PersianCalendar(year, month, day);
+  private static long _ed2pe(PersianCalendar.Rule rule, long ed) {
+    int year;
+    long start;
+    if (rule == PersianCalendar.Rule.ARITHMETIC &&
+      ed >= _arithmeticPersianNewYear(_firstArithmeticPersianYear) &&
+      ed < _arithmeticPersianNewYear(_lastArithmeticPersianYear + 1)) {
+      // 33 years of the cycle have 12053 days.
+      year = (int) Math.floorDiv(33 * (ed - _persianEpoch), 12053) + 1;
+      start = _arithmeticPersianNewYear(year);
+      if (ed < start) {
+        year--;
+        start = _arithmeticPersianNewYear(year);
+      } else if (ed >= _arithmeticPersianNewYear(year + 1)) {
+        year++;
+        start = _arithmeticPersianNewYear(year);
+      }
+    } else {
+      if (_persianNewYears.containsDay(ed)) {
+        year = _persianNewYears.getYear(ed);
+        start = _persianNewYears.getNewYear(year);
+      } else {
+        year = unpackYear(_ed2g(ed)) - 621;
+        start = _computePersianNewYear(year);
+        if (ed < start) {
+          year--;
+          start = _computePersianNewYear(year);
+        }
+      }
+      // The years next to the arithmetic range have one arithmetic end.
+      if (rule == PersianCalendar.Rule.ARITHMETIC &&
+        (_isArithmeticPersianYear(year) || _isArithmeticPersianYear(year + 1))) {
+        start = _persianNewYear(rule, year);
+        if (ed < start) {
+          year--;
+          start = _persianNewYear(rule, year);
+        } else if (ed >= _persianNewYear(rule, year + 1)) {
+          year++;
+          start = _persianNewYear(rule, year);
+        }
+      }
+    }
+    int yearDay = (int) (ed - start) + 1;
+    int month = (yearDay <= 186) ?
+      ((yearDay + 30) / 31) :
+      ((yearDay - 6 + 29) / 30);
+    int day = (int) (ed - _pe2ed(rule, year, month, 1)) + 1;
+    return packDate(year, month, day);
   }
 
-  private static IndianCivilCalendar _jd2in(JulianDay jd) {
-    int year, month, day;
-    int mday;
+  private static long _ed2in(long ed) {
+    int year;
 
     int saka = 78;
     int start = 80;
 
-    double jday = Math.floor(jd.getValue()) + 0.5;
-    GregorianCalendar gr = _jd2g(new JulianDay(jday));
-    boolean isLeap = GregorianCalendar.isLeapYear(gr.getYear(), false);
+    int gyear = unpackYear(_ed2g(ed));
+    boolean isLeap = _isGregorianLeapYear(gyear);
 
-    year = gr.getYear() - saka;
-    double gr0 = _g2jd(new GregorianCalendar(gr.getYear(),1,1)).getValue();
-    int yday = (int)(jday - gr0);
+    year = gyear - saka;
+    int yday = (int) (ed - _g2ed(gyear, 1, 1));
     int caitra = isLeap ? 31 : 30;
 
     if (yday < start) {
       year--;
-      yday += caitra + (31*5) + (30*3) + 10 + start;
+      yday += caitra + (31 * 5) + (30 * 3) + 10 + start;
     }
 
-    yday -= start;
+    return _indianDate(year, yday - start, isLeap);
+  }
+
+  /* Direct conversions ******************************************************/
 
-    if(yday < caitra) {
-      month = 1;
-      day = yday + 1;
+  private static long _g2jul(int year, int month, int day) {
+    long y = (month <= 2) ? year - 1 : year;
+    long n = _marchDayOfYear(month, day) - _julianShift(y);
+    while (n < 0)
+      n += _julianMarchYearLength(--y);
+    while (n >= _julianMarchYearLength(y))
+      n -= _julianMarchYearLength(y++);
+    long d = _marchDate(y, (int) n);
+
+    // Since there's no "0" year.
+    int jyear = unpackYear(d);
+    return (jyear < 1) ? packDate(jyear - 1, unpackMonth(d), unpackDay(d)) : d;
+  }
+
+  private static long _jul2g(int year, int month, int day) {
+    long y = (year < 1) ? year + 1 : year;
+    if (month <= 2) y--;
+    long n = _marchDayOfYear(month, day) + _julianShift(y);
+    while (n < 0)
+      n += _gregorianMarchYearLength(--y);
+    while (n >= _gregorianMarchYearLength(y))
+      n -= _gregorianMarchYearLength(y++);
+    return _marchDate(y, (int) n);
+  }
+
+  private static long _g2in(int year, int month, int day) {
+    // Caitra 1 is always the 80th day of the Gregorian year (from zero).
+    int n = _gregorianDayOfYear(year, month, day) - 80;
+    if (n < 0) {
+      year--;
+      n += _isGregorianLeapYear(year) ? 366 : 365;
+    }
+    return _indianDate(year - 78, n, _isGregorianLeapYear(year));
+  }
+
+  private static long _in2g(int year, int month, int day) {
+    int gyear = year + 78;
+    boolean isLeap = _isGregorianLeapYear(gyear);
+    int n = 80 + _indianDayOfYear(month, day, isLeap);
+    int length = isLeap ? 366 : 365;
+    if (n >= length) {
+      n -= length;
+      gyear++;
+      isLeap = _isGregorianLeapYear(gyear);
+    }
+    int feb = isLeap ? 29 : 28;
+    if (n < 31)
+      return packDate(gyear, 1, n + 1);
+    if (n < 31 + feb)
+      return packDate(gyear, 2, n - 30);
+    return _marchDate(gyear, n - 31 - feb);
+  }
+
+  /*
+   * The Gregorian and Julian calendars share their month lengths from
+   * March through January, so dates are counted from March 1 and the
+   * leap day falls at the end of the year.
+   */
+  private static int _marchDayOfYear(int month, int day) {
+    int m = (month + 9) % 12;
+    return ((153 * m + 2) / 5) + day - 1;
+  }
+
+  private static long _marchDate(long year, int n) {
+    int m = (5 * n + 2) / 153;
+    int day = n - ((153 * m + 2) / 5) + 1;
+    int month = m + 3 - (12 * (m / 10));
+    return packDate((int) year + (m / 10), month, day);
+  }
+
+  /* Days by which the Julian calendar lags the Gregorian calendar */
+  private static long _julianShift(long marchYear) {
+    return Math.floorDiv(marchYear, 100) - Math.floorDiv(marchYear, 400) - 2;
+  }
+
+  private static int _gregorianMarchYearLength(long marchYear) {
+    return _isGregorianLeapYear((int) marchYear + 1) ? 366 : 365;
+  }
+
+  private static int _julianMarchYearLength(long marchYear) {
+    return (Math.floorMod(marchYear + 1, 4) == 0) ? 366 : 365;
+  }
+
+  private static int _gregorianDayOfYear(int year, int month, int day) {
+    int n = _daysBeforeMonth[month - 1] + day - 1;
+    return (month > 2 && _isGregorianLeapYear(year)) ? n + 1 : n;
+  }
+
+  private static int _indianDayOfYear(int month, int day, boolean isLeap) {
+    int caitra = isLeap ? 31 : 30;
+    if (month == 1)
+      return day - 1;
+    return caitra + (Math.min(month - 2, 5) * 31) +
+      (Math.max(month - 7, 0) * 30) + day - 1;
+  }
+
+  private static long _indianDate(int year, int n, boolean isLeap) {
+    int caitra = isLeap ? 31 : 30;
+    if (n < caitra)
+      return packDate(year, 1, n + 1);
+    n -= caitra;
+    if (n < (31 * 5))
+      return packDate(year, (n / 31) + 2, (n % 31) + 1);
+    n -= (31 * 5);
+    return packDate(year, (n / 30) + 7, (n % 30) + 1);
+  }
+
+  /* Calendar rules **********************************************************/
+
+  private static boolean _isGregorianLeapYear(int year) {
+    return (year % 4 == 0) && ((year % 100 != 0) || (year % 400 == 0));
+  }
+
+  private static boolean _isJulianLeapYear(int year) {
+    return Math.floorMod((year < 1) ? year + 1 : year, 4) == 0;
+  }
+
+  private static boolean _isIslamicLeapYear(int year) {
+    return Math.floorMod((11L * year) + 14, 30) < 11;
+  }
+
+  private static int _solarMonthLength(int month, boolean leap) {
+    if (month == 4 || month == 6 || month == 9 || month == 11)
+      return 30;
+    if (month == 2)
+      return leap ? 29 : 28;
+    return 31;
+  }
+
+  private static boolean _isHebrewLeapYear(int year) {
+    return Math.floorMod((7L * year) + 1, 19) < 7;
+  }
+
+  private static long _hebrewNewYear(int year) {
+    long now = _hebrewDelay(year);
+    return _hebrewEpoch + 2 + now +
+      _hebrewDelayAdjacent(_hebrewDelay(year - 1), now, _hebrewDelay(year + 1));
+  }
+
+  /* Days from the first of Tishri to the first of a month that is not in
+     the year, counting on past the last month */
+  private static int _hebrewMonthStart(int month, HebrewCalendar.YearType type) {
+    int n = 0;
+    if (month < 7) {
+      for (int i = 7; i <= type.getNumberOfMonths(); ++i)
+        n += type.getNumberOfDaysInMonth(i);
+      for (int i = 1; i < month; ++i)
+        n += type.getNumberOfDaysInMonth(i);
     } else {
-      mday = yday - caitra;
-      if (mday < (31 * 5)) {
-        month = (int)(Math.floor(mday/31)) + 2;
-        day = (mday % 31) + 1;
-      } else {
-        mday -= (31 * 5);
-        month = (int)(Math.floor(mday/30)) + 7;
-        day = (mday % 30) + 1;
+      for (int i = 7; i < month; ++i)
+        n += type.getNumberOfDaysInMonth(i);
+    }
+    return n;
+  }
+
+  private static HebrewCalendar.YearType _hebrewYearType(
+    int year, long start, long end) {
+    return HebrewCalendar.YearType.of(_isHebrewLeapYear(year),
+      (int) (end - start), (int) Math.floorMod(start + 1, 7));
+  }
+
+  /**
+   * The types of the tabulated Hebrew years, as ordinals. The table is
+   * built when first used, walking the years with each molad computed
+   * once.
+   */
+  private static final class HebrewYears {
+    private static final HebrewCalendar.YearType[] types =
+      HebrewCalendar.YearType.values();
+    private static final byte[] ordinals = _build();
+
+    private static byte[] _build() {
+      byte[] ordinals = new byte[_lastHebrewYear - _firstHebrewYear + 1];
+      long d1 = _hebrewDelay(_firstHebrewYear);
+      long d2 = _hebrewDelay(_firstHebrewYear + 1);
+      long start = _hebrewEpoch + 2 + d1 +
+        _hebrewDelayAdjacent(_hebrewDelay(_firstHebrewYear - 1), d1, d2);
+      for (int i = 0; i < ordinals.length; ++i) {
+        int year = _firstHebrewYear + i;
+        long d3 = _hebrewDelay(year + 2);
+        long end = _hebrewEpoch + 2 + d2 + _hebrewDelayAdjacent(d1, d2, d3);
+        ordinals[i] = (byte) _hebrewYearType(year, start, end).ordinal();
+        d1 = d2;
+        d2 = d3;
+        start = end;
       }
+      return ordinals;
     }
+  }
+
+  private static long _hebrewDelay(long year) {
+    long months = Math.floorDiv((235 * year) - 234, 19);
+    long parts = 12084 + (13753 * months);
+    long day = (months * 29) + Math.floorDiv(parts, 25920);
+    if (Math.floorMod(3 * (day + 1), 7) < 3)
+      ++day;
+    return day;
+  }
+
+  private static long _hebrewDelayAdjacent(long year) {
+    return _hebrewDelayAdjacent(
+      _hebrewDelay(year - 1), _hebrewDelay(year), _hebrewDelay(year + 1));
+  }
+
+  private static long _hebrewDelayAdjacent(long last, long now, long next) {
+    return ((next - now) == 356) ? 2 : (((now - last) == 382) ? 1 : 0);
+  }
+
+  private static long _persianNewYear(PersianCalendar.Rule rule, int year) {
+    if (rule == PersianCalendar.Rule.ARITHMETIC && _isArithmeticPersianYear(year))
+      return _arithmeticPersianNewYear(year);
+    if (_persianNewYears.contains(year))
+      return _persianNewYears.getNewYear(year);
+    return _computePersianNewYear(year);
+  }
+
+  private static boolean _isPersianLeapYear(PersianCalendar.Rule rule, int year) {
+    if (rule == PersianCalendar.Rule.ASTRONOMICAL && _persianNewYears.contains(year))
+      return _persianNewYears.getNumberOfDays(year) > 365;
+    return _persianNewYear(rule, year + 1) - _persianNewYear(rule, year) > 365;
+  }
+
+  private static long _arithmeticPersianNewYear(int year) {
+    return _persianEpoch + (365L * (year - 1)) + Math.floorDiv((8L * year) + 21, 33);
+  }
+
+  private static boolean _isArithmeticPersianYear(int year) {
+    return year >= _firstArithmeticPersianYear && year <= _lastArithmeticPersianYear + 1;
+  }
+
+  private static long _frenchRepublicanNewYear(FrenchRepublicanCalendar.Rule rule,
+                                               int year) {
+    if (rule == FrenchRepublicanCalendar.Rule.ROMME)
+      return _rommeNewYear(year);
+    if (_frenchRepublicanNewYears.contains(year))
+      return _frenchRepublicanNewYears.getNewYear(year);
+    return _computeFrenchRepublicanNewYear(year);
+  }
 
-    return new IndianCivilCalendar(year,month,day);
+  private static boolean _isFrenchRepublicanLeapYear(
+    FrenchRepublicanCalendar.Rule rule, int year) {
+    if (rule == FrenchRepublicanCalendar.Rule.ROMME)
+      return _isRommeLeapYear(year);
+    if (_frenchRepublicanNewYears.contains(year))
+      return _frenchRepublicanNewYears.getNumberOfDays(year) > 365;
+    return _frenchRepublicanNewYear(rule, year + 1) -
+      _frenchRepublicanNewYear(rule, year) > 365;
+  }
+
+  private static long _rommeNewYear(int year) {
+    long y = year - 1L;
+    return _frenchRepublicanEpoch + (365 * y) + Math.floorDiv(y, 4) -
+      Math.floorDiv(y, 100) + Math.floorDiv(y, 400) - Math.floorDiv(y, 4000);
+  }
+
+  private static boolean _isRommeLeapYear(int year) {
+    return Math.floorMod(year, 4) == 0 &&
+      (Math.floorMod(year, 100) != 0 || Math.floorMod(year, 400) == 0) &&
+      Math.floorMod(year, 4000) != 0;
+  }
+
+  private static long _computePersianNewYear(int year) {
+    return (long) _computeTehranEquinox(year + 621) + 1;
+  }
+
+  private static long _computeFrenchRepublicanNewYear(int year) {
+    return (long) Math.floor(_computeParisEquinox(year + 1791)) + 1;
   }
 
   /**
@@ -514,12 +1298,7 @@ public class AlmanacConverter {
    * @return the delay in days.
    */
   protected static int delayHebrewYear(int year) {
-    int months = (int) Math.floor(((235 * year) - 234) / 19);
-    int parts = 12084 + (13753 * months);
-    int day = (months * 29) + (int) Math.floor(parts / 25920);
-    if ((3 * (day + 1)) % 7 < 3)
-      ++day;
-    return day;
+    return (int) _hebrewDelay(year);
   }
 
   /**
@@ -529,67 +1308,25 @@ public class AlmanacConverter {
    * @return the delay in days.
    */
   protected static int delayHebrewYearAdjacent(int year) {
-    int last = delayHebrewYear(year - 1);
-    int now = delayHebrewYear(year);
-    int next = delayHebrewYear(year + 1);
-    int val = ((next - now) == 356) ? 2 : (((now - last) == 382) ? 1 : 0);
-    return val;
-  }
-
-  private static double[] persianAstronomicalYear(double jday) {
-    int guess = toGregorianCalendar(new JulianDay(jday)).getYear() - 2;
-    double lastEquinox = _tehranEquinox(guess);
-    while (lastEquinox > jday) {
-      guess--;
-      lastEquinox = _tehranEquinox(guess);
-    }
-    double nextEquinox = lastEquinox - 1;
-    while (!((lastEquinox <= jday) && (jday < nextEquinox))) {
-      lastEquinox = nextEquinox;
-      guess++;
-      nextEquinox = _tehranEquinox(guess);
-    }
-    double adr = (lastEquinox - PersianCalendar.EPOCH.getValue());
-    adr /= Meeus.TROPICAL_YEAR;
-    adr += 1;
-    return new double[]{Math.round(adr), lastEquinox};
-  }
-
-  private static double[] anneeDeLaRevolution(JulianDay julday) {
-    int guess = (new GregorianCalendar(julday)).getYear() - 2;
-    double nexteq, lasteq, jd;
-    jd = julday.getValue();
-    lasteq = _parisEquinox(guess);
-    while (lasteq > jd) {
-      guess--;
-      lasteq = _parisEquinox(guess);
-    }
-    nexteq = lasteq - 1;
-    while (!((lasteq <= jd) && (jd < nexteq))) {
-      lasteq = nexteq;
-      guess++;
-      nexteq = _parisEquinox(guess);
-    }
-    double adr = (lasteq - FrenchRepublicanCalendar.EPOCH.getValue());
-    adr /= Meeus.TROPICAL_YEAR;
-    adr += 1;
-    return new double[]{Math.round(adr), lasteq};
+    return (int) _hebrewDelayAdjacent(year);
   }
 
-  private static double _parisEquinox(int year) {
-    double eqJED = Meeus.equinox(year, Season.AUTUMN);
-    double eqJD = eqJED - Meeus.deltat(year) / (24.0 * 60.0 * 60.0);
-    double eqAPP = eqJD + Meeus.equationOfTime(eqJED);
+  private static double _computeParisEquinox(int year) {
+    Accuracy accuracy = _accuracy;
+    double eqJED = Meeus.equinox(year, Season.AUTUMN, accuracy);
+    double eqJD = eqJED - _deltaT.getDeltaTAtJulianDay(eqJED) / (24.0 * 60.0 * 60.0);
+    double eqAPP = eqJD + Meeus.equationOfTime(eqJED, accuracy);
     double dtParis = (2.0 + (20.0 / 60.0) + (15.0 / (60.0 * 60.0))) / 360.0;
     double eqParis = eqAPP + dtParis;
     eqParis = Math.floor(eqParis - 0.5) + 0.5;
     return eqParis;
   }
 
-  private static double _tehranEquinox(int year) {
-    double eqJED = Meeus.equinox(year, Season.SPRING);
-    double eqJD = eqJED - Meeus.deltat(year) / (24.0 * 60.0 * 60.0);
-    double eqApp = eqJD + Meeus.equationOfTime(eqJED);
+  private static double _computeTehranEquinox(int year) {
+    Accuracy accuracy = _accuracy;
+    double eqJED = Meeus.equinox(year, Season.SPRING, accuracy);
+    double eqJD = eqJED - _deltaT.getDeltaTAtJulianDay(eqJED) / (24.0 * 60.0 * 60.0);
+    double eqApp = eqJD + Meeus.equationOfTime(eqJED, accuracy);
     double dtTehran = (52.0 + (30.0 / 60.0)) / 360.0;
     double eqTehran = eqApp + dtTehran;
     eqTehran = Math.floor(eqTehran);
@@ -0,0 +1,261 @@
+/*****************************************************************************
+ * Copyright 2017 Chris Engelsma
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+package com.hypotemoose.cal.util;
+
+import com.hypotemoose.cal.constants.CalendarId;
+import com.hypotemoose.cal.date.CalendarSystem;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static com.hypotemoose.cal.util.AlmanacConverter.getCalendarSystem;
+import static com.hypotemoose.cal.util.AlmanacConverter.getConversion;
+import static com.hypotemoose.cal.util.AlmanacConverter.unpackDay;
+import static com.hypotemoose.cal.util.AlmanacConverter.unpackMonth;
+import static com.hypotemoose.cal.util.AlmanacConverter.unpackYear;
+
+/**
+ * Converts columns of dates held in primitive arrays.
+ * <p>
+ * Dates are given as parallel arrays of years, months and days, or as an
+ * array of epoch days, and are written into caller-supplied output arrays.
+ * No objects are allocated per date. The parallel variants split the arrays
+ * across a {@link ForkJoinPool}.
+ *
+ * @author Chris Engelsma
+ * @since 2017.08.10
+ */
+public final class BulkAlmanacConverter {
+
+  /* Smallest number of dates handled by a single parallel task */
+  private static final int _threshold = 4096;
+
+  /**
+   * Converts dates to epoch days.
+   *
+   * @param from   the calendar of the dates.
+   * @param years  the years.
+   * @param months the months.
+   * @param days   the days.
+   * @param out    the epoch days.
+   */
+  public static void toEpochDays(CalendarId from,
+                                 int[] years, int[] months, int[] days,
+                                 long[] out) {
+    _checkLengths(years.length, months.length, days.length, out.length);
+    _toEpochDays(getCalendarSystem(from), years, months, days, out, 0, out.length);
+  }
+
+  /**
+   * Converts epoch days to dates.
+   *
+   * @param to        the calendar of the dates.
+   * @param epochDays the epoch days.
+   * @param years     the years.
+   * @param months    the months.
+   * @param days      the days.
+   */
+  public static void fromEpochDays(CalendarId to, long[] epochDays,
+                                   int[] years, int[] months, int[] days) {
+    _checkLengths(epochDays.length, years.length, months.length, days.length);
+    _fromEpochDays(getCalendarSystem(to), epochDays, years, months, days, 0, epochDays.length);
+  }
+
+  /**
+   * Converts dates from one calendar to another.
+   * The output arrays may be the same as the input arrays.
+   *
+   * @param from      the calendar of the input dates.
+   * @param to        the calendar of the output dates.
+   * @param years     the input years.
+   * @param months    the input months.
+   * @param days      the input days.
+   * @param outYears  the output years.
+   * @param outMonths the output months.
+   * @param outDays   the output days.
+   */
+  public static void convert(CalendarId from, CalendarId to,
+                             int[] years, int[] months, int[] days,
+                             int[] outYears, int[] outMonths, int[] outDays) {
+    int n = years.length;
+    _checkLengths(n, months.length, days.length, n);
+    _checkLengths(n, outYears.length, outMonths.length, outDays.length);
+    _convert(getConversion(from, to),
+      years, months, days, outYears, outMonths, outDays, 0, n);
+  }
+
+  /**
+   * Converts dates to epoch days in parallel on the common pool.
+   *
+   * @param from   the calendar of the dates.
+   * @param years  the years.
+   * @param months the months.
+   * @param days   the days.
+   * @param out    the epoch days.
+   */
+  public static void toEpochDaysParallel(CalendarId from,
+                                         int[] years, int[] months, int[] days,
+                                         long[] out) {
+    toEpochDaysParallel(ForkJoinPool.commonPool(), from, years, months, days, out);
+  }
+
+  /**
+   * Converts dates to epoch days in parallel.
+   *
+   * @param pool   a fork/join pool.
+   * @param from   the calendar of the dates.
+   * @param years  the years.
+   * @param months the months.
+   * @param days   the days.
+   * @param out    the epoch days.
+   */
+  public static void toEpochDaysParallel(ForkJoinPool pool, CalendarId from,
+                                         int[] years, int[] months, int[] days,
+                                         final long[] out) {
+    _checkLengths(years.length, months.length, days.length, out.length);
+    final CalendarSystem system = getCalendarSystem(from);
+    pool.invoke(new RangeTask(0, out.length, _threshold, new RangeTask.Body() {
+      public void run(int offset, int length) {
+        _toEpochDays(system, years, months, days, out, offset, length);
+      }
+    }));
+  }
+
+  /**
+   * Converts epoch days to dates in parallel on the common pool.
+   *
+   * @param to        the calendar of the dates.
+   * @param epochDays the epoch days.
+   * @param years     the years.
+   * @param months    the months.
+   * @param days      the days.
+   */
+  public static void fromEpochDaysParallel(CalendarId to, long[] epochDays,
+                                           int[] years, int[] months, int[] days) {
+    fromEpochDaysParallel(ForkJoinPool.commonPool(), to, epochDays, years, months, days);
+  }
+
+  /**
+   * Converts epoch days to dates in parallel.
+   *
+   * @param pool      a fork/join pool.
+   * @param to        the calendar of the dates.
+   * @param epochDays the epoch days.
+   * @param years     the years.
+   * @param months    the months.
+   * @param days      the days.
+   */
+  public static void fromEpochDaysParallel(ForkJoinPool pool, CalendarId to,
+                                           long[] epochDays,
+                                           int[] years, int[] months, int[] days) {
+    _checkLengths(epochDays.length, years.length, months.length, days.length);
+    final CalendarSystem system = getCalendarSystem(to);
+    pool.invoke(new RangeTask(0, epochDays.length, _threshold, new RangeTask.Body() {
+      public void run(int offset, int length) {
+        _fromEpochDays(system, epochDays, years, months, days, offset, length);
+      }
+    }));
+  }
+
+  /**
+   * Converts dates from one calendar to another in parallel on the common
+   * pool.
+   *
+   * @param from      the calendar of the input dates.
+   * @param to        the calendar of the output dates.
+   * @param years     the input years.
+   * @param months    the input months.
+   * @param days      the input days.
+   * @param outYears  the output years.
+   * @param outMonths the output months.
+   * @param outDays   the output days.
+   */
+  public static void convertParallel(CalendarId from, CalendarId to,
+                                     int[] years, int[] months, int[] days,
+                                     int[] outYears, int[] outMonths, int[] outDays) {
+    convertParallel(ForkJoinPool.commonPool(), from, to,
+      years, months, days, outYears, outMonths, outDays);
+  }
+
+  /**
+   * Converts dates from one calendar to another in parallel.
+   *
+   * @param pool      a fork/join pool.
+   * @param from      the calendar of the input dates.
+   * @param to        the calendar of the output dates.
+   * @param years     the input years.
+   * @param months    the input months.
+   * @param days      the input days.
+   * @param outYears  the output years.
+   * @param outMonths the output months.
+   * @param outDays   the output days.
+   */
+  public static void convertParallel(ForkJoinPool pool,
+                                     CalendarId from, CalendarId to,
+                                     int[] years, int[] months, int[] days,
+                                     int[] outYears, int[] outMonths, int[] outDays) {
+    int n = years.length;
+    _checkLengths(n, months.length, days.length, n);
+    _checkLengths(n, outYears.length, outMonths.length, outDays.length);
+    final AlmanacConverter.Conversion conversion = getConversion(from, to);
+    pool.invoke(new RangeTask(0, n, _threshold, new RangeTask.Body() {
+      public void run(int offset, int length) {
+        _convert(conversion, years, months, days,
+          outYears, outMonths, outDays, offset, length);
+      }
+    }));
+  }
+
+/////////////////////////////////////////////////////////////////////////////
+// private
+
+  private static void _toEpochDays(CalendarSystem system,
+                                   int[] years, int[] months, int[] days,
+                                   long[] out, int offset, int length) {
+    int end = offset + length;
+    for (int i = offset; i < end; ++i)
+      out[i] = system.toEpochDay(years[i], months[i], days[i]);
+  }
+
+  private static void _fromEpochDays(CalendarSystem system, long[] epochDays,
+                                     int[] years, int[] months, int[] days,
+                                     int offset, int length) {
+    int end = offset + length;
+    for (int i = offset; i < end; ++i) {
+      long date = system.fromEpochDay(epochDays[i]);
+      years[i] = unpackYear(date);
+      months[i] = unpackMonth(date);
+      days[i] = unpackDay(date);
+    }
+  }
+
+  private static void _convert(AlmanacConverter.Conversion conversion,
+                               int[] years, int[] months, int[] days,
+                               int[] outYears, int[] outMonths, int[] outDays,
+                               int offset, int length) {
+    int end = offset + length;
+    for (int i = offset; i < end; ++i) {
+      long date = conversion.convert(years[i], months[i], days[i]);
+      outYears[i] = unpackYear(date);
+      outMonths[i] = unpackMonth(date);
+      outDays[i] = unpackDay(date);
+    }
+  }
+
+  private static void _checkLengths(int a, int b, int c, int d) {
+    if (a != b || a != c || a != d)
+      throw new IllegalArgumentException("Array lengths differ");
+  }
+}
@@ -0,0 +1,334 @@
+/*****************************************************************************
+ * Copyright 2017 Chris Engelsma
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+package com.hypotemoose.cal.util;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded, thread-safe cache of calendar conversions.
+ * <p>
+ * Install a cache with {@link AlmanacConverter#setCache(ConversionCache)}
+ * to remember the results of the astronomical calendars, whose conversions
+ * require computing an equinox. Entries are keyed by calendar and either
+ * epoch day or date, so a cached conversion is shared by every source
+ * calendar.
+ * <p>
+ * Entries are kept in primitive arrays, grouped into sets of up to eight
+ * slots; a key may only occupy a slot of the set its hash selects. Each
+ * slot has a version that is odd while the slot is being written, so
+ * lookups take no lock and allocate nothing, and a lookup that overlaps a
+ * write simply misses. When a set is full, an entry is evicted according
+ * to the {@link EvictionPolicy}. Recency and frequency are tracked without
+ * synchronization, so under contention they are approximate.
+ *
+ * @author Chris Engelsma
+ * @since 2017.08.11
+ */
+public final class ConversionCache {
+
+  /**
+   * How entries are chosen for eviction.
+   */
+  public enum EvictionPolicy {
+    /**
+     * Evicts the least recently used entry of a set.
+     */
+    LRU,
+
+    /**
+     * Evicts the least recently used entry of a set, but only admits a new
+     * entry if it has been requested more often than the entry it would
+     * replace. Access frequencies are estimated with a small count-min
+     * sketch that is periodically halved, so that a burst of one-off dates
+     * cannot flush the frequently used ones.
+     */
+    TINY_LFU
+  }
+
+  /* Value returned by get when no entry is present */
+  static final long ABSENT = Long.MIN_VALUE;
+  private static final int _maxWays = 8;
+  private final int _maximumSize;
+  private final EvictionPolicy _policy;
+  private final int _ways;
+  private final int _sets;
+  private final AtomicIntegerArray _versions;
+  private final AtomicIntegerArray _kinds;
+  private final AtomicLongArray _keys;
+  private final AtomicLongArray _values;
+  private final int[] _stamps;
+  private final FrequencySketch _sketch;
+  private final LongAdder _hits = new LongAdder();
+  private final LongAdder _misses = new LongAdder();
+  private int _clock;
+
+  /**
+   * Constructs a least-recently-used cache.
+   *
+   * @param maximumSize the maximum number of entries.
+   */
+  public ConversionCache(int maximumSize) {
+    this(maximumSize, EvictionPolicy.LRU);
+  }
+
+  /**
+   * Constructs a cache.
+   *
+   * @param maximumSize the maximum number of entries.
+   * @param policy      the eviction policy.
+   */
+  public ConversionCache(int maximumSize, EvictionPolicy policy) {
+    if (maximumSize < 1)
+      throw new IllegalArgumentException("Maximum size must be positive");
+    _maximumSize = maximumSize;
+    _policy = policy;
+    _ways = Math.min(_maxWays, maximumSize);
+    _sets = maximumSize / _ways;
+    int slots = _sets * _ways;
+    _versions = new AtomicIntegerArray(slots);
+    _kinds = new AtomicIntegerArray(slots);
+    _keys = new AtomicLongArray(slots);
+    _values = new AtomicLongArray(slots);
+    _stamps = new int[slots];
+    _sketch = (policy == EvictionPolicy.TINY_LFU) ? new FrequencySketch(slots) : null;
+  }
+
+  /**
+   * Gets the maximum number of entries.
+   *
+   * @return the maximum number of entries.
+   */
+  public int getMaximumSize() {
+    return _maximumSize;
+  }
+
+  /**
+   * Gets the eviction policy.
+   *
+   * @return the eviction policy.
+   */
+  public EvictionPolicy getEvictionPolicy() {
+    return _policy;
+  }
+
+  /**
+   * Gets the number of lookups that found an entry.
+   *
+   * @return the hit count.
+   */
+  public long getHitCount() {
+    return _hits.sum();
+  }
+
+  /**
+   * Gets the number of lookups that did not find an entry.
+   *
+   * @return the miss count.
+   */
+  public long getMissCount() {
+    return _misses.sum();
+  }
+
+  /**
+   * Gets the fraction of lookups that found an entry.
+   *
+   * @return the hit rate in the range [0,1].
+   */
+  public double getHitRate() {
+    long hits = getHitCount();
+    long total = hits + getMissCount();
+    return (total == 0) ? 0.0 : (double) hits / total;
+  }
+
+  /**
+   * Gets the number of entries.
+   *
+   * @return the number of entries.
+   */
+  public int size() {
+    int size = 0;
+    for (int i = 0; i < _kinds.length(); ++i)
+      if (_kinds.get(i) != 0) ++size;
+    return size;
+  }
+
+  /**
+   * Removes all entries and resets the hit and miss counts.
+   */
+  public void clear() {
+    for (int i = 0; i < _kinds.length(); ++i) {
+      int version = _lock(i);
+      _kinds.set(i, 0);
+      _versions.set(i, version + 2);
+    }
+    if (_sketch != null) _sketch.clear();
+    _hits.reset();
+    _misses.reset();
+  }
+
+  @Override
+  public String toString() {
+    return "ConversionCache[size=" + size() + ", hits=" + getHitCount() +
+      ", misses=" + getMissCount() + "]";
+  }
+
+  /**
+   * Gets a cached value.
+   *
+   * @param kind the kind of conversion.
+   * @param key  the key.
+   * @return the value, or {@link #ABSENT} if none is cached.
+   */
+  long get(int kind, long key) {
+    int hash = _hash(kind, key);
+    if (_sketch != null) _sketch.increment(hash);
+    int first = _set(hash) * _ways;
+    for (int i = first; i < first + _ways; ++i) {
+      int version = _versions.get(i);
+      if ((version & 1) != 0 || _kinds.get(i) != kind + 1 || _keys.get(i) != key)
+        continue;
+      long value = _values.get(i);
+      if (_versions.get(i) != version)
+        continue;
+      _stamps[i] = ++_clock;
+      _hits.increment();
+      return value;
+    }
+    _misses.increment();
+    return ABSENT;
+  }
+
+  /**
+   * Caches a value. The value is dropped if the slot it would occupy is
+   * being written by another thread.
+   *
+   * @param kind  the kind of conversion.
+   * @param key   the key.
+   * @param value the value.
+   */
+  void put(int kind, long key, long value) {
+    int hash = _hash(kind, key);
+    int first = _set(hash) * _ways;
+    int victim = first;
+    for (int i = first; i < first + _ways; ++i) {
+      int k = _kinds.get(i);
+      if (k == kind + 1 && _keys.get(i) == key)
+        return;
+      if (k == 0) {
+        victim = i;
+        break;
+      }
+      if (_stamps[i] - _stamps[victim] < 0)
+        victim = i;
+    }
+    if (_sketch != null && _kinds.get(victim) != 0 &&
+      _sketch.frequency(hash) <=
+        _sketch.frequency(_hash(_kinds.get(victim) - 1, _keys.get(victim))))
+      return;
+    int version = _versions.get(victim);
+    if ((version & 1) != 0 || !_versions.compareAndSet(victim, version, version + 1))
+      return;
+    _kinds.set(victim, kind + 1);
+    _keys.set(victim, key);
+    _values.set(victim, value);
+    _stamps[victim] = ++_clock;
+    _versions.set(victim, version + 2);
+  }
+
+/////////////////////////////////////////////////////////////////////////////
+// private
+
+  private static int _hash(int kind, long key) {
+    long h = (key * 0x9E3779B97F4A7C15L) + kind;
+    return (int) (h ^ (h >>> 32));
+  }
+
+  private int _set(int hash) {
+    int h = hash ^ (hash >>> 16);
+    return (int) (((h & 0xFFFFFFFFL) * _sets) >>> 32);
+  }
+
+  private int _lock(int i) {
+    for (;;) {
+      int version = _versions.get(i);
+      if ((version & 1) == 0 && _versions.compareAndSet(i, version, version + 1))
+        return version;
+      Thread.yield();
+    }
+  }
+
+  /**
+   * A count-min sketch of 4-bit counters that estimates how often each key
+   * has been requested. All counters are halved after a number of
+   * increments proportional to the capacity, so old popularity decays.
+   * Counters are updated without synchronization; an increment lost to a
+   * race only makes an estimate lower.
+   */
+  private static final class FrequencySketch {
+    private static final int _depth = 4;
+    private final byte[] table;
+    private final int mask;
+    private final int sampleSize;
+    private int samples;
+
+    FrequencySketch(int capacity) {
+      int width = 16;
+      while (width < capacity * 4) width *= 2;
+      table = new byte[_depth * width];
+      mask = width - 1;
+      sampleSize = 10 * capacity;
+    }
+
+    void increment(int hash) {
+      boolean added = false;
+      for (int i = 0; i < _depth; ++i) {
+        int j = _index(hash, i);
+        if (table[j] < 15) {
+          table[j]++;
+          added = true;
+        }
+      }
+      if (added && ++samples >= sampleSize) _halve();
+    }
+
+    int frequency(int hash) {
+      int f = 15;
+      for (int i = 0; i < _depth; ++i)
+        f = Math.min(f, table[_index(hash, i)]);
+      return f;
+    }
+
+    void clear() {
+      Arrays.fill(table, (byte) 0);
+      samples = 0;
+    }
+
+    private int _index(int hash, int i) {
+      int h = hash * (0x9E3779B9 + (i << 1));
+      h ^= h >>> 17;
+      return (i * (mask + 1)) + (h & mask);
+    }
+
+    private void _halve() {
+      for (int i = 0; i < table.length; ++i)
+        table[i] >>= 1;
+      samples /= 2;
+    }
+  }
+}
@@ -15,6 +15,8 @@
  *****************************************************************************/
 package com.hypotemoose.cal.util;
 
+import com.hypotemoose.cal.astro.Accuracy;
+import com.hypotemoose.cal.astro.LunarPhaseCatalog;
 import com.hypotemoose.cal.astro.Season;
 import com.hypotemoose.cal.constants.Holiday;
 import com.hypotemoose.cal.date.GregorianCalendar;
@@ -22,7 +24,6 @@ import com.hypotemoose.cal.date.IslamicCalendar;
 import com.hypotemoose.cal.date.JulianDay;
 
 import static com.hypotemoose.cal.astro.Meeus.equinox;
-import static com.hypotemoose.cal.astro.Meeus.getMoonQuarters;
 
 /**
  * A holiday calculator.
@@ -33,45 +34,64 @@ import static com.hypotemoose.cal.astro.Meeus.getMoonQuarters;
 public class HolidayCalculator {
 
   public static JulianDay get(Holiday holiday, int year) {
+    return get(holiday, year, Accuracy.STANDARD);
+  }
+
+  /**
+   * Gets the date of a holiday in a year. The accuracy applies to the
+   * equinox and full moon that determine Easter and the holidays that
+   * follow from it. With {@link Accuracy#FAST}, both are within about an
+   * hour of the standard series, which moves Easter only in the rare years
+   * when the full moon falls within that hour of the equinox or of a
+   * Sunday.
+   *
+   * @param holiday  a holiday.
+   * @param year     a Gregorian year.
+   * @param accuracy an accuracy.
+   * @return the Julian Day of the holiday.
+   */
+  public static JulianDay get(Holiday holiday, int year, Accuracy accuracy) {
+    if (accuracy == null)
+      throw new IllegalArgumentException("Accuracy must not be null");
     JulianDay jday = new JulianDay();
     IslamicCalendar ic = null;
 
     switch (holiday) {
       case EASTER: // First Sunday after full moon on or after spring equinox
-        jday = getEaster(year);
+        jday = getEaster(year, accuracy);
         break;
 
       case GOOD_FRIDAY: // Two days before Easter
-        jday = get(Holiday.EASTER, year).minus(2);
+        jday = get(Holiday.EASTER, year, accuracy).minus(2);
         break;
 
       case HOLY_THURSDAY: // Three days before Easter
-        jday = get(Holiday.EASTER, year).minus(3);
+        jday = get(Holiday.EASTER, year, accuracy).minus(3);
         break;
 
       case PALM_SUNDAY: // Sunday before Easter
-        jday = get(Holiday.EASTER, year).minus(7);
+        jday = get(Holiday.EASTER, year, accuracy).minus(7);
         break;
 
       case ASH_WEDNESDAY: // 46 days before Easter.
-        jday = get(Holiday.EASTER, year).minus(46);
+        jday = get(Holiday.EASTER, year, accuracy).minus(46);
         break;
 
       case ASCENSION: // 40 days after Easter.
-        jday = get(Holiday.EASTER, year).plus(39);
+        jday = get(Holiday.EASTER, year, accuracy).plus(39);
         break;
 
       case PENTECOST: // 10 days after Ascension.
-        jday = get(Holiday.ASCENSION, year).plus(10);
+        jday = get(Holiday.ASCENSION, year, accuracy).plus(10);
         break;
 
       case TRINITY_SUNDAY: // First Sunday after Pentecost
-        jday = get(Holiday.PENTECOST, year);
+        jday = get(Holiday.PENTECOST, year, accuracy);
         getFollowingWeekDay(0, jday);
         break;
 
       case ADVENT: // 4th Sunday before Christmas
-        jday = get(Holiday.CHRISTMAS, year);
+        jday = get(Holiday.CHRISTMAS, year, accuracy);
         getPrecedingWeekDay(0, jday);
         jday.minus(21);
         break;
@@ -176,14 +196,14 @@ public class HolidayCalculator {
 // protected
 
   protected static JulianDay getEaster(int year) {
-    double eq = equinox(year, Season.SPRING);
-    double full = eq;
-    GregorianCalendar cal = new GregorianCalendar(new JulianDay(eq));
-    int month = cal.getMonth();
-    int day = cal.getDay();
-    while (full <= eq)
-      full = getMoonQuarters(year, month++, day)[2];
-    cal = new GregorianCalendar(new JulianDay(full));
+    return getEaster(year, Accuracy.STANDARD);
+  }
+
+  protected static JulianDay getEaster(int year, Accuracy accuracy) {
+    double eq = equinox(year, Season.SPRING, accuracy);
+    double full =
+      LunarPhaseCatalog.next(LunarPhaseCatalog.Phase.FULL_MOON, eq, accuracy);
+    GregorianCalendar cal = new GregorianCalendar(new JulianDay(full));
     if (cal.getWeekDayNumber() == 0) cal.nextDay();
     while (cal.getWeekDayNumber() > 0) cal.nextDay();
     return new JulianDay(cal);
@@ -0,0 +1,171 @@
+/*****************************************************************************
+ * Copyright 2017 Chris Engelsma
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+package com.hypotemoose.cal.util;
+
+/**
+ * An index of the epoch days on which the years of a calendar begin, over
+ * a fixed range of years.
+ * <p>
+ * The index is a sorted array of new-year days, built in full the first
+ * time it is used. The year containing a day is then found by searching
+ * the array, and the length of a year is the difference of two
+ * neighbours. Because years are so nearly equal in length, the search
+ * interpolates between the first and last new years and rarely needs
+ * more than one step from there.
+ * <p>
+ * Building is synchronized, so the array is computed once even when many
+ * threads use the index at the same time.
+ *
+ * @author Chris Engelsma
+ * @since 2017.08.11
+ */
+public abstract class NewYearIndex {
+
+  private final int _firstYear;
+  private final int _lastYear;
+  private volatile long[] _days;
+
+  /**
+   * Constructs an index.
+   *
+   * @param firstYear the first year in the index.
+   * @param lastYear  the last year in the index.
+   */
+  protected NewYearIndex(int firstYear, int lastYear) {
+    if (lastYear < firstYear)
+      throw new IllegalArgumentException("Last year precedes first year");
+    _firstYear = firstYear;
+    _lastYear = lastYear;
+  }
+
+  /**
+   * Gets the first year in this index.
+   *
+   * @return the first year.
+   */
+  public final int getFirstYear() {
+    return _firstYear;
+  }
+
+  /**
+   * Gets the last year in this index.
+   *
+   * @return the last year.
+   */
+  public final int getLastYear() {
+    return _lastYear;
+  }
+
+  /**
+   * Determines whether a year is in this index.
+   *
+   * @param year a year.
+   * @return true, if the year is in the index; false, otherwise.
+   */
+  public final boolean contains(int year) {
+    return year >= _firstYear && year <= _lastYear;
+  }
+
+  /**
+   * Determines whether a day falls within a year in this index.
+   *
+   * @param epochDay an epoch day.
+   * @return true, if the day is in the index; false, otherwise.
+   */
+  public final boolean containsDay(long epochDay) {
+    long[] days = _days();
+    return epochDay >= days[0] && epochDay < days[days.length - 1];
+  }
+
+  /**
+   * Gets the epoch day on which a year begins.
+   *
+   * @param year a year in the index.
+   * @return the epoch day of the first day of the year.
+   */
+  public final long getNewYear(int year) {
+    if (!contains(year))
+      throw new IllegalArgumentException("Year " + year + " is not in index");
+    return _days()[year - _firstYear];
+  }
+
+  /**
+   * Gets the number of days in a year.
+   *
+   * @param year a year in the index.
+   * @return the number of days in the year.
+   */
+  public final int getNumberOfDays(int year) {
+    if (!contains(year))
+      throw new IllegalArgumentException("Year " + year + " is not in index");
+    long[] days = _days();
+    int i = year - _firstYear;
+    return (int) (days[i + 1] - days[i]);
+  }
+
+  /**
+   * Gets the year containing a day.
+   *
+   * @param epochDay an epoch day in the index.
+   * @return the year.
+   */
+  public final int getYear(long epochDay) {
+    long[] days = _days();
+    int last = days.length - 1;
+    if (epochDay < days[0] || epochDay >= days[last])
+      throw new IllegalArgumentException("Day " + epochDay + " is not in index");
+    int i = (int) (((epochDay - days[0]) * last) / (days[last] - days[0]));
+    while (days[i] > epochDay) --i;
+    while (days[i + 1] <= epochDay) ++i;
+    return _firstYear + i;
+  }
+
+  /**
+   * Discards the index, so that it is built again when next used. Values
+   * requested concurrently with a call to this method may still be
+   * computed from the old state.
+   */
+  public final void clear() {
+    _days = null;
+  }
+
+  /**
+   * Computes the epoch day on which a year begins. It is called for each
+   * year in the index and for the year after the last.
+   *
+   * @param year a year.
+   * @return the epoch day of the first day of the year.
+   */
+  protected abstract long compute(int year);
+
+/////////////////////////////////////////////////////////////////////////////
+// private
+
+  private long[] _days() {
+    long[] days = _days;
+    return (days != null) ? days : _build();
+  }
+
+  private synchronized long[] _build() {
+    long[] days = _days;
+    if (days != null) return days;
+    days = new long[_lastYear - _firstYear + 2];
+    for (int i = 0; i < days.length; ++i)
+      days[i] = compute(_firstYear + i);
+    _days = days;
+    return days;
+  }
+}
@@ -0,0 +1,81 @@
+/*****************************************************************************
+ * Copyright 2017 Chris Engelsma
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+package com.hypotemoose.cal.util;
+
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * A fork/join task over a range of indices.
+ * <p>
+ * The range is split in halves until it is no longer than a threshold, and
+ * each piece is handed to the same {@link Body}. Pieces are disjoint and
+ * together cover the range exactly once.
+ *
+ * @author Chris Engelsma
+ * @since 2017.08.11
+ */
+public final class RangeTask extends RecursiveAction {
+
+  /**
+   * Work done on one piece of the range.
+   */
+  public interface Body {
+
+    /**
+     * Runs on a piece of the range.
+     *
+     * @param offset the first index.
+     * @param length the number of indices.
+     */
+    void run(int offset, int length);
+  }
+
+  private static final long serialVersionUID = 1L;
+  private final int _offset;
+  private final int _length;
+  private final int _threshold;
+  private final transient Body _body;
+
+  /**
+   * Constructs a task over a range of indices.
+   *
+   * @param offset    the first index.
+   * @param length    the number of indices.
+   * @param threshold the longest piece run without splitting.
+   * @param body      the work done on each piece.
+   * @throws IllegalArgumentException if the threshold is not positive.
+   */
+  public RangeTask(int offset, int length, int threshold, Body body) {
+    if (threshold < 1)
+      throw new IllegalArgumentException("Threshold must be positive");
+    _offset = offset;
+    _length = length;
+    _threshold = threshold;
+    _body = body;
+  }
+
+  @Override
+  protected void compute() {
+    if (_length <= _threshold) {
+      _body.run(_offset, _length);
+    } else {
+      int half = _length / 2;
+      invokeAll(
+        new RangeTask(_offset, half, _threshold, _body),
+        new RangeTask(_offset + half, _length - half, _threshold, _body));
+    }
+  }
+}
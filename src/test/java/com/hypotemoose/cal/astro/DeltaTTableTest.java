@@ -0,0 +1,99 @@
+/*****************************************************************************
+Copyright 2017 Chris Engelsma
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*****************************************************************************/
+package com.hypotemoose.cal.astro;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Tests {@link com.hypotemoose.cal.astro.DeltaTTable}.
+ * @author Chris Engelsma
+ * @since 2017.08.11
+ */
+public class DeltaTTableTest {
+  @Test
+  public void splineShouldPassThroughTable() {
+    DeltaTTable t = DeltaTTable.BUILT_IN;
+    assertEquals(t.getDeltaT(-500.0),17190.0,1.0E-9);
+    assertEquals(t.getDeltaT(1700.0),7.0,1.0E-9);
+    assertEquals(t.getDeltaT(2000.0),63.83,1.0E-9);
+    assertEquals(t.getDeltaT(2017.0),68.59,1.0E-9);
+    assertEquals(t.getDeltaT(2000.5),63.96,0.05);
+    assertEquals(t.getFirstYear(),-500.0);
+    assertEquals(t.getLastYear(),2017.0);
+  }
+
+  @Test
+  public void splineShouldBeContinuous() {
+    DeltaTTable t = DeltaTTable.BUILT_IN;
+    for (double y = -499.0; y < 2017.0; y += 0.25)
+      assertEquals(t.getDeltaT(y + 1.0E-6),t.getDeltaT(y),1.0E-3);
+  }
+
+  @Test
+  public void splineShouldNotOvershootTable() {
+    DeltaTTable t = DeltaTTable.BUILT_IN;
+    for (double y = 1500.0; y <= 1620.0; y += 0.25) {
+      double value = t.getDeltaT(y);
+      assertTrue(value >= 120.0 && value <= ((y < 1600.0) ? 200.0 : 121.0),y + ": " + value);
+    }
+  }
+
+  @Test
+  public void extrapolationShouldBeContinuous() {
+    DeltaTTable t = DeltaTTable.BUILT_IN;
+    double first = t.getFirstYear();
+    double last = t.getLastYear();
+    assertEquals(t.getDeltaT(first - 1.0E-6),t.getDeltaT(first),1.0E-3);
+    assertEquals(t.getDeltaT(last + 1.0E-6),t.getDeltaT(last),1.0E-3);
+    assertEquals(t.getDeltaT(last + 0.01),t.getDeltaT(last),0.01);
+    // The offset from the table fades out, leaving the long-term parabola.
+    assertEquals(t.getDeltaT(2150.0),328.48,1.0E-9);
+    assertEquals(t.getDeltaT(-700.0),20301.28,1.0E-9);
+  }
+
+  @Test
+  public void meeusProviderShouldMatchDeltat() {
+    for (int year = -1000; year <= 3000; year += 7)
+      assertEquals(DeltaTProvider.MEEUS.getDeltaT(year + 0.5),Meeus.deltat(year));
+    double jd = Meeus.equinox(1701,Season.SPRING);
+    assertEquals(DeltaTProvider.MEEUS.getDeltaTAtJulianDay(jd),7.0);
+  }
+
+  @Test
+  public void tableShouldLoadFromFile() throws IOException {
+    File file = File.createTempFile("deltat",".txt");
+    file.deleteOnExit();
+    try (Writer w = new FileWriter(file)) {
+      w.write("# year deltaT\n2000.0 63.83\n\n2010.0  66.07\n2020.0\t69.36\n");
+    }
+    DeltaTTable t = DeltaTTable.load(file);
+    assertEquals(t.getFirstYear(),2000.0);
+    assertEquals(t.getLastYear(),2020.0);
+    assertEquals(t.getDeltaT(2010.0),66.07,1.0E-9);
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void yearsShouldIncrease() {
+    new DeltaTTable(new double[]{2000.0,2000.0},new double[]{63.8,63.8});
+  }
+}
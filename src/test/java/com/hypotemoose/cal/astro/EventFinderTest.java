@@ -0,0 +1,85 @@
+/*****************************************************************************
+Copyright 2017 Chris Engelsma
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*****************************************************************************/
+package com.hypotemoose.cal.astro;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.testng.annotations.Test;
+
+/**
+ * Tests {@link com.hypotemoose.cal.astro.EventFinder}.
+ * @author Chris Engelsma
+ * @since 2017.08.11
+ */
+public class EventFinderTest {
+  @Test
+  public void solarLongitudeShouldFindEquinoxesAndSolstices() {
+    for (Season season : Season.values()) {
+      double expected = Meeus.equinox(2015,season);
+      double result = EventFinder.SOLAR_LONGITUDE.next(90.0 * season.getValue(),expected - 30.0);
+      // Within a quarter of an hour of the equinox series.
+      assertEquals(result,expected,0.01);
+    }
+  }
+
+  @Test
+  public void solarLongitudeShouldReachValue() {
+    double start = 2457023.5; // 2015 January 1
+    double jd = EventFinder.SOLAR_LONGITUDE.next(45.0,start);
+    assertEquals(SolarEphemeris.getApparentLongitude(jd),45.0,1.0E-5);
+    assertTrue(jd > start && jd < start + 366.0);
+    assertEquals(EventFinder.SOLAR_LONGITUDE.previous(45.0,jd + 1.0),jd,0.0);
+    assertTrue(EventFinder.SOLAR_LONGITUDE.next(45.0,jd) > jd + 360.0);
+  }
+
+  @Test
+  public void lunarElongationShouldFindQuarters() {
+    double[] quarters = Meeus.getMoonQuarters(2015,9,1);
+    for (int i = 0; i < 4; ++i) {
+      double result = EventFinder.LUNAR_ELONGATION.next(90.0 * i,quarters[i] - 3.0);
+      // Within an hour and a half of the quarters series.
+      assertEquals(result,quarters[i],0.0625);
+    }
+  }
+
+  @Test
+  public void finderShouldRememberOnlyItsCapacity() {
+    final AtomicInteger calls = new AtomicInteger();
+    EventFinder.Angle angle = new EventFinder.Angle() {
+      public double at(double jd) {
+        calls.incrementAndGet();
+        return 10.0 * jd;
+      }
+    };
+    EventFinder finder = new EventFinder(angle,10.0,1);
+    double jd = finder.next(0.0,10.0);
+    assertEquals(jd,36.0,EventFinder.TOLERANCE);
+    calls.set(0);
+    assertEquals(finder.next(0.0,10.0),jd,0.0);
+    assertEquals(calls.get(),0);
+    finder.next(90.0,10.0);
+    finder.next(0.0,10.0);
+    assertTrue(calls.get() > 0);
+
+    EventFinder forgetful = new EventFinder(angle,10.0);
+    forgetful.next(0.0,10.0);
+    calls.set(0);
+    forgetful.next(0.0,10.0);
+    assertTrue(calls.get() > 0);
+  }
+}
@@ -0,0 +1,68 @@
+/*****************************************************************************
+Copyright 2017 Chris Engelsma
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*****************************************************************************/
+package com.hypotemoose.cal.astro;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import org.testng.annotations.Test;
+
+import com.hypotemoose.cal.astro.LunarPhaseCatalog.Phase;
+
+/**
+ * Tests {@link com.hypotemoose.cal.astro.LunarPhaseCatalog}.
+ * @author Chris Engelsma
+ * @since 2017.08.11
+ */
+public class LunarPhaseCatalogTest {
+  @Test
+  public void phasesShouldMatchLunations() {
+    double[] quarters = new double[4];
+    for (int k = -40000; k <= 15000; k += 997) {
+      Meeus.getLunationQuarters(k,quarters);
+      for (Phase p : Phase.values()) {
+        double t = quarters[p.getValue()];
+        assertEquals(LunarPhaseCatalog.next(p,t - 1.0),t,0.0);
+        assertEquals(LunarPhaseCatalog.previous(p,t + 1.0),t,0.0);
+        assertTrue(LunarPhaseCatalog.next(p,t) > t);
+        assertTrue(LunarPhaseCatalog.previous(p,t) < t);
+      }
+    }
+  }
+
+  @Test
+  public void phasesShouldMatchLunationsOfEachAccuracy() {
+    double[] quarters = new double[4];
+    for (Accuracy accuracy : Accuracy.values()) {
+      for (int k = -40000; k <= 15000; k += 997) {
+        Meeus.getLunationQuarters(k,quarters,accuracy);
+        for (Phase p : Phase.values()) {
+          double t = quarters[p.getValue()];
+          assertEquals(LunarPhaseCatalog.next(p,t - 1.0,accuracy),t,0.0);
+          assertEquals(LunarPhaseCatalog.previous(p,t + 1.0,accuracy),t,0.0);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void fullMoonsOf2015ShouldBeFound() {
+    // 2015 had 13 full moons, two of them in July.
+    double[] full = LunarPhaseCatalog.between(Phase.FULL_MOON,2457023.5,2457387.5);
+    assertEquals(full.length,13);
+    for (int i = 1; i < full.length; ++i)
+      assertEquals(full[i] - full[i - 1],29.53,0.3);
+  }
+}
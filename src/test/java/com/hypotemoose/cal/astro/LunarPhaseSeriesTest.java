@@ -0,0 +1,54 @@
+/*****************************************************************************
+Copyright 2017 Chris Engelsma
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*****************************************************************************/
+package com.hypotemoose.cal.astro;
+
+import static org.testng.Assert.assertEquals;
+import org.testng.annotations.Test;
+
+/**
+ * Tests {@link com.hypotemoose.cal.astro.LunarPhaseSeries}.
+ * @author Chris Engelsma
+ * @since 2017.08.11
+ */
+public class LunarPhaseSeriesTest {
+  @Test
+  public void seriesShouldMatchMeeus() {
+    double[] steps = {1.0 / 24.0, 1.0, 7.3, 400.0};
+    for (double step : steps) {
+      double start = 1721425.5 - 1000.0 * step;
+      double[] phases = new double[3000];
+      double[] illuminations = new double[3000];
+      LunarPhaseSeries.compute(start,step,phases,illuminations);
+      for (int i = 0; i < phases.length; ++i) {
+        double phase = Meeus.getLunarPhase(start + i * step);
+        double d = Math.abs(phases[i] - phase);
+        assertEquals(Math.min(d,360.0 - d),0.0,1.0E-6);
+        assertEquals(illuminations[i],Meeus.getLunarIlluminationFromPhase(phase),1.0E-6);
+      }
+    }
+  }
+
+  @Test
+  public void parallelSeriesShouldMatchSequential() {
+    int n = 100000;
+    double[] phases = new double[n];
+    double[] parallel = new double[n];
+    double[] illuminations = new double[n];
+    LunarPhaseSeries.compute(2451545.0,0.25,phases,null);
+    LunarPhaseSeries.computeParallel(2451545.0,0.25,parallel,illuminations);
+    assertEquals(parallel,phases);
+  }
+}
@@ -16,8 +16,12 @@ limitations under the License.
 package com.hypotemoose.cal.astro;
 
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
 import org.testng.annotations.Test;
 
+import java.lang.management.ManagementFactory;
+
 /**
  * Tests {@link com.hypotemoose.cal.astro.Meeus}.
  * @author Chris Engelsma
@@ -58,6 +62,16 @@ public class MeeusTest {
     assertEquals(expected,result,1.0E-6);
   }
 
+  @Test
+  public void equinoxTableShouldMatchSeries() {
+    for (int year = -1100; year <= 3100; year += 7) {
+      for (Season season : Season.values()) {
+        double expected = Meeus.computeEquinox(year,season);
+        assertEquals(Meeus.equinox(year,season),expected,0.0);
+      }
+    }
+  }
+
   @Test
   public void deltaTShouldCompute() {
     assertEquals(1863.875977,Meeus.deltat(940), 1.0E-4);
@@ -84,6 +98,22 @@ public class MeeusTest {
     assertEquals(100.0f,Meeus.getLunarIlluminationFromPhase(360), 1.0E-4);
   }
 
+  @Test
+  public void outputBuffersShouldMatchAllocatingVersions() {
+    double[] position = new double[12];
+    double[] nutation = new double[2];
+    double[] quarters = new double[4];
+    for (int year = 1900; year <= 2100; year += 50) {
+      double jd = Meeus.equinox(year,Season.SPRING);
+      assertSame(Meeus.sunPosition(jd,position),position);
+      assertEquals(position,Meeus.sunPosition(jd));
+      assertSame(Meeus.nutation(jd,nutation),nutation);
+      assertEquals(nutation,Meeus.nutation(jd));
+      assertSame(Meeus.getMoonQuarters(year,3,1,quarters),quarters);
+      assertEquals(quarters,Meeus.getMoonQuarters(year,3,1));
+    }
+  }
+
   @Test
   public void testMean() {
     assertEquals(2446510.416613, Meeus.mean(1986, Season.SPRING), 1.0E-4);
@@ -97,5 +127,51 @@ public class MeeusTest {
     assertEquals(1904035.838062, Meeus.mean(500, Season.WINTER), 1.0E-4);
   }
 
+  @Test
+  public void accuracyTiersShouldBeWithinBounds() {
+    double[] fast = new double[4], standard = new double[4], precise = new double[4];
+    for (int year = -1000; year <= 3000; year += 13) {
+      double jd = Meeus.equinox(year,Season.SPRING);
+      assertEquals(Meeus.equinox(year,Season.SPRING,Accuracy.FAST),jd,0.015);
+      assertEquals(Meeus.equinox(year,Season.SPRING,Accuracy.PRECISE),jd);
+      assertEquals(Meeus.equationOfTime(jd,Accuracy.FAST),Meeus.equationOfTime(jd),1.0E-6);
+      Meeus.nutation(jd,fast,Accuracy.FAST);
+      Meeus.nutation(jd,standard);
+      assertEquals(fast[0],standard[0],1.1 / 3600.0);
+      assertEquals(fast[1],standard[1],0.4 / 3600.0);
+
+      int k = (int) Math.floor((year - 2000) * 12.3685);
+      Meeus.getLunationQuarters(k,fast,Accuracy.FAST);
+      Meeus.getLunationQuarters(k,standard,Accuracy.STANDARD);
+      Meeus.getLunationQuarters(k,precise,Accuracy.PRECISE);
+      for (int i = 0; i < 4; ++i) {
+        assertEquals(fast[i],standard[i],0.05);
+        assertEquals(precise[i],standard[i],40.0 / 86400.0);
+      }
+    }
+  }
 
+  @Test
+  public void bufferOverloadsShouldNotAllocate() {
+    com.sun.management.ThreadMXBean threads =
+      (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    long id = Thread.currentThread().getId();
+    double[] position = new double[12];
+    double[] nutation = new double[2];
+    double sum = 0.0;
+    for (int pass = 0; pass < 2; ++pass) {
+      // The first pass warms up; the second is measured.
+      long before = threads.getThreadAllocatedBytes(id);
+      for (int i = 0; i < 10000; ++i) {
+        double jd = Meeus.J2000 + i;
+        sum += Meeus.sunPosition(jd,position)[7];
+        sum += Meeus.nutation(jd,nutation)[0];
+        sum += Meeus.equationOfTime(jd);
+      }
+      long allocated = threads.getThreadAllocatedBytes(id) - before;
+      if (pass == 1)
+        assertTrue(allocated < 10000,"Allocated " + allocated + " bytes");
+    }
+    assertTrue(sum != 0.0);
+  }
 }
@@ -0,0 +1,76 @@
+/*****************************************************************************
+Copyright 2017 Chris Engelsma
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*****************************************************************************/
+package com.hypotemoose.cal.astro;
+
+import static org.testng.Assert.assertEquals;
+import org.testng.annotations.Test;
+
+/**
+ * Tests {@link com.hypotemoose.cal.astro.Nutation}.
+ * @author Chris Engelsma
+ * @since 2017.08.11
+ */
+public class NutationTest {
+  @Test
+  public void nutationShouldMatchDirectSeries() {
+    Nutation nutation = new Nutation();
+    double[] result = new double[2];
+    // Years -2000 to 4000
+    for (double jd = 990575.5; jd < 3182030.5; jd += 997.3) {
+      double[] expected = _direct(jd);
+      nutation.compute(jd,result);
+      assertEquals(result[0],expected[0],1.0E-12);
+      assertEquals(result[1],expected[1],1.0E-12);
+    }
+  }
+
+  @Test
+  public void interpolatedNutationShouldBeCloseToComputed() {
+    Nutation nutation = new Nutation();
+    double[] result = new double[2];
+    double[] expected = new double[2];
+    double tolerance = 0.02 / 3600.0;
+    for (double jd = 2451545.0; jd < 2451545.0 + 400.0; jd += 0.1) {
+      nutation.interpolate(jd,result);
+      new Nutation().compute(jd,expected);
+      assertEquals(result[0],expected[0],tolerance);
+      assertEquals(result[1],expected[1],tolerance);
+    }
+  }
+
+  /* The series evaluated term by term, as Meeus.nutation originally did */
+  private static double[] _direct(double jd) {
+    double t = (jd - 2451545.0) / 36525.0;
+    double t2 = t * t;
+    double t3 = t2 * t;
+    double[] ta = {
+      Math.toRadians(297.850363 + 445267.111480 * t - 0.0019142 * t2 + t3 / 189474.0),
+      Math.toRadians(357.527720 + 35999.050340 * t - 0.0001603 * t2 - t3 / 300000.0),
+      Math.toRadians(134.962980 + 477198.867398 * t + 0.0086972 * t2 + t3 / 56250.0),
+      Math.toRadians(93.271910 + 483202.017538 * t - 0.0036825 * t2 + t3 / 327170.0),
+      Math.toRadians(125.044520 - 1934.136261 * t + 0.0020708 * t2 + t3 / 450000.0)
+    };
+    double to10 = t / 10.0, dp = 0.0, de = 0.0;
+    for (int i = 0; i < 63; ++i) {
+      double ang = 0.0;
+      for (int j = 0; j < 5; ++j)
+        ang += Nutation.nutArgMult[i * 5 + j] * ta[j];
+      dp += (Nutation.nutArgCoeff[i * 4] + Nutation.nutArgCoeff[i * 4 + 1] * to10) * Math.sin(ang);
+      de += (Nutation.nutArgCoeff[i * 4 + 2] + Nutation.nutArgCoeff[i * 4 + 3] * to10) * Math.cos(ang);
+    }
+    return new double[]{dp / 3.6E7, de / 3.6E7};
+  }
+}
@@ -0,0 +1,48 @@
+/*****************************************************************************
+Copyright 2017 Chris Engelsma
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*****************************************************************************/
+package com.hypotemoose.cal.astro;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+
+/**
+ * Tests {@link com.hypotemoose.cal.astro.SolarContext}.
+ * @author Chris Engelsma
+ * @since 2017.08.11
+ */
+public class SolarContextTest {
+  @Test
+  public void contextShouldMatchMeeus() {
+    double jd = 2457288.848309;
+    SolarContext sc = new SolarContext(jd);
+    // Ask for the equation of time first so later terms come from the cache.
+    assertEquals(sc.getEquationOfTime(),Meeus.equationOfTime(jd),0.0);
+    assertTrue(Arrays.equals(sc.getSunPosition(),Meeus.sunPosition(jd)));
+    assertEquals(sc.getNutationInLongitude(),Meeus.nutation(jd)[0],0.0);
+    assertEquals(sc.getNutationInObliquity(),Meeus.nutation(jd)[1],0.0);
+    assertEquals(sc.getObliquity(),Meeus.obliquityEquation(jd),0.0);
+  }
+
+  @Test
+  public void sunShouldBeAtAutumnalEquinox() {
+    SolarContext sc = new SolarContext(Meeus.equinox(2015,Season.AUTUMN));
+    assertEquals(sc.getApparentLongitude(),180.0,1.0E-2);
+    assertEquals(sc.getApparentDeclination(),0.0,1.0E-2);
+  }
+}
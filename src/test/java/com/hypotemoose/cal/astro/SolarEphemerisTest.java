@@ -0,0 +1,55 @@
+/*****************************************************************************
+Copyright 2017 Chris Engelsma
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*****************************************************************************/
+package com.hypotemoose.cal.astro;
+
+import static org.testng.Assert.assertEquals;
+import org.testng.annotations.Test;
+
+import java.util.Random;
+
+/**
+ * Tests {@link com.hypotemoose.cal.astro.SolarEphemeris}.
+ * @author Chris Engelsma
+ * @since 2017.08.11
+ */
+public class SolarEphemerisTest {
+  @Test
+  public void ephemerisShouldMatchSolarContext() {
+    Random r = new Random(42);
+    double span = SolarEphemeris.LAST_JULIAN_DAY - SolarEphemeris.FIRST_JULIAN_DAY;
+    for (int i = 0; i < 2000; ++i) {
+      double jd = SolarEphemeris.FIRST_JULIAN_DAY + r.nextDouble() * span;
+      SolarContext sc = new SolarContext(jd);
+      assertEquals(_difference(SolarEphemeris.getApparentLongitude(jd),
+        sc.getApparentLongitude(),360.0),0.0,1.0E-9);
+      assertEquals(_difference(SolarEphemeris.getApparentRightAscension(jd),
+        sc.getApparentRightAscension(),360.0),0.0,1.0E-9);
+      assertEquals(_difference(SolarEphemeris.getEquationOfTime(jd),
+        sc.getEquationOfTime(),20.0 / 1440.0),0.0,1.0E-8);
+    }
+  }
+
+  @Test
+  public void ephemerisShouldFallBackOutsideRange() {
+    double jd = SolarEphemeris.LAST_JULIAN_DAY + 100.0;
+    assertEquals(SolarEphemeris.getEquationOfTime(jd),Meeus.equationOfTime(jd),0.0);
+  }
+
+  private static double _difference(double a, double b, double period) {
+    double d = Math.abs(a - b) % period;
+    return Math.min(d,period - d);
+  }
+}
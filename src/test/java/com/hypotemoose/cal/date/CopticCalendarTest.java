@@ -0,0 +1,43 @@
+/*****************************************************************************
+Copyright 2017 Chris Engelsma
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*****************************************************************************/
+package com.hypotemoose.cal.date;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import org.testng.annotations.Test;
+
+/**
+ * Tests {@link com.hypotemoose.cal.date.CopticCalendar}
+ * @author Chris Engelsma
+ * @since 2017.08.11
+ */
+public class CopticCalendarTest {
+
+  @Test
+  public void addingDaysShouldStepWithoutCalendarSystem() {
+    CopticCalendar expected = new CopticCalendar();
+    CopticCalendar actual = new CopticCalendar();
+    assertNull(actual.getCalendarSystem());
+    for (int i=0; i<10; ++i) expected.nextDay();
+    actual.addDays(10);
+    assertEquals(actual.getDay(),expected.getDay());
+    assertEquals(actual.getMonth(),expected.getMonth());
+    for (int i=0; i<4; ++i) expected.prevDay();
+    actual.subtractDays(4);
+    assertEquals(actual.getDay(),expected.getDay());
+    assertEquals(actual.getMonth(),expected.getMonth());
+  }
+}
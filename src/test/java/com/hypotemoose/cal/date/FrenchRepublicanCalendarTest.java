@@ -69,5 +69,15 @@ public class FrenchRepublicanCalendarTest {
       assertEquals(a,b);
     }
   }
-  
+
+  @Test
+  public void addDaysShouldMatchConversion() {
+    GregorianCalendar gc = new GregorianCalendar(1800,1,1);
+    FrenchRepublicanCalendar frc = toFrenchRepublicanCalendar(gc);
+    for (int i=0; i<100; ++i) {
+      gc.addDays(37);
+      frc.addDays(37);
+      assertEquals(frc,toFrenchRepublicanCalendar(gc));
+    }
+  }
 }
@@ -15,6 +15,9 @@ limitations under the License.
 *****************************************************************************/
 package com.hypotemoose.cal.date;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Random;
 
 import static org.testng.Assert.assertEquals;
@@ -120,5 +123,97 @@ public class GregorianCalendarTest {
       assertEquals(a,b);
     }
   }
- 
+
+  @Test
+  public void addDaysShouldMatchNextDay() {
+    GregorianCalendar date1 = new GregorianCalendar(1999,12,25);
+    GregorianCalendar date2 = new GregorianCalendar(1999,12,25);
+    for (int i=0; i<1000; ++i) {
+      date1.nextDay();
+      date2.addDays(1);
+    }
+    assertEquals(date1,date2);
+    date2.subtractDays(1000);
+    assertEquals(date2,new GregorianCalendar(1999,12,25));
+  }
+
+  @Test
+  public void addDaysShouldMatchNextDayBeforeCutover() {
+    assertEquals(new GregorianCalendar(1500,2,28).plusDays(1),
+      new GregorianCalendar(1500,2,29));
+    GregorianCalendar date1 = new GregorianCalendar(1579,1,1);
+    for (int i=1; i<=2000; ++i) {
+      date1.nextDay();
+      assertEquals(new GregorianCalendar(1579,1,1).plusDays(i),date1);
+      assertEquals(date1.minusDays(i),new GregorianCalendar(1579,1,1));
+    }
+    GregorianCalendar date2 = new GregorianCalendar(1600,1,1);
+    date2.subtractDays(100000);
+    date2.addDays(100000);
+    assertEquals(date2,new GregorianCalendar(1600,1,1));
+  }
+
+  @Test
+  public void addingNoDaysShouldKeepDate() {
+    GregorianCalendar date = new GregorianCalendar(2015,2,30);
+    date.addDays(0);
+    date.subtractDays(0);
+    assertEquals(date,new GregorianCalendar(2015,2,30));
+  }
+
+  @Test
+  public void plusDaysShouldReturnNewDate() {
+    GregorianCalendar date1 = new GregorianCalendar(2016,2,28);
+    GregorianCalendar date2 = date1.plusDays(2);
+    assertEquals(date1,new GregorianCalendar(2016,2,28));
+    assertEquals(date2,new GregorianCalendar(2016,3,1));
+    assertEquals(date2.minusDays(2),date1);
+  }
+
+  @Test
+  public void leapYearsShouldFollowCutover() {
+    assertTrue(GregorianCalendar.isLeapYear(1500));
+    assertTrue(GregorianCalendar.isLeapYear(1580));
+    assertFalse(GregorianCalendar.isLeapYear(1582));
+    assertFalse(GregorianCalendar.isLeapYear(1700));
+    assertFalse(GregorianCalendar.isLeapYear(1500,false));
+    assertEquals(GregorianCalendar.getNumberOfDaysInMonth(1500,2),29);
+    assertEquals(GregorianCalendar.getNumberOfDaysInMonth(1700,2),28);
+  }
+
+  @Test
+  public void sameDayInOtherCalendarShouldBeEqual() {
+    GregorianCalendar date1 = new GregorianCalendar(1987,3,10);
+    HebrewCalendar date2 = new HebrewCalendar(5747,12,9);
+    assertTrue(date1.isEqual(date2));
+    assertEquals(date1.compareTo(date2),0);
+    assertFalse(date1.isEqual(date2.plusDays(1)));
+  }
+
+  @Test
+  public void mixedDatesShouldSortChronologically() {
+    List<Almanac> dates = new ArrayList<>();
+    GregorianCalendar gc = new GregorianCalendar(1900,1,1);
+    Random r = new Random(42);
+    for (int i=0; i<500; ++i) {
+      GregorianCalendar date = gc.plusDays(r.nextInt(50000));
+      switch (i % 4) {
+        case 0: dates.add(date); break;
+        case 1: dates.add(toJulianCalendar(date)); break;
+        case 2: dates.add(toPersianCalendar(date)); break;
+        default: dates.add(toHebrewCalendar(date)); break;
+      }
+    }
+    List<Almanac> sorted = new ArrayList<>(dates);
+    Almanac.sortChronologically(sorted);
+    assertTrue(Almanac.datesAreChronological(sorted.toArray(new Almanac[0])));
+
+    Collections.sort(dates);
+    for (int i=0; i<dates.size(); ++i)
+      assertTrue(dates.get(i).isEqual(sorted.get(i)));
+
+    Almanac key = toIslamicCalendar(sorted.get(123));
+    int index = Collections.binarySearch(sorted,key);
+    assertTrue(sorted.get(index).isEqual(key));
+  }
 }
@@ -15,8 +15,11 @@ limitations under the License.
 *****************************************************************************/
 package com.hypotemoose.cal.date;
 
+import java.util.EnumSet;
 import java.util.Random;
+import java.util.Set;
 
+import com.hypotemoose.cal.constants.CalendarId;
 import com.hypotemoose.cal.util.AlmanacConverter;
 
 import static org.testng.Assert.assertEquals;
@@ -79,4 +82,100 @@ public class HebrewCalendarTest {
       assertEquals(jd.getValue(),converted.getValue(),0.00);
     }
   }
-}
\ No newline at end of file
+
+  @Test
+  public void yearTypesShouldDescribeYears() {
+    assertEquals(HebrewCalendar.getYearType(5777),
+      HebrewCalendar.YearType.COMMON_MONDAY_DEFICIENT);
+    assertEquals(HebrewCalendar.getYearType(5778),
+      HebrewCalendar.YearType.COMMON_THURSDAY_REGULAR);
+
+    Set<HebrewCalendar.YearType> seen =
+      EnumSet.noneOf(HebrewCalendar.YearType.class);
+    for (int year = 5000; year < 12000; year += 7) {
+      HebrewCalendar.YearType type = HebrewCalendar.getYearType(year);
+      seen.add(type);
+      long start = _newYear(year);
+      int length = (int) (_newYear(year + 1) - start);
+      assertEquals(AlmanacConverter.toEpochDay(CalendarId.HEBREW,year,7,1),start);
+      assertEquals(type.getNumberOfDays(),length);
+      assertEquals(type.getWeekDayNumber(),(int) Math.floorMod(start + 1,7));
+      assertEquals(type.isLeapYear(),_isLeapYear(year));
+
+      // Sum the month lengths from Tishri, the first month of the year.
+      int months = _isLeapYear(year) ? 13 : 12;
+      int days = 0;
+      for (int i = 0; i < months; ++i) {
+        int month = (i + 6) % months + 1;
+        assertEquals(type.getDaysBeforeMonth(month),days);
+        days += _monthLength(year,month,length);
+      }
+      assertEquals(days,length);
+    }
+    assertEquals(seen.size(),14);
+  }
+
+  @Test
+  public void datesShouldMatchPublishedDates() {
+    // Rosh Hashanah 5785 and the first day of Passover 5784.
+    assertEquals(AlmanacConverter.toEpochDay(CalendarId.HEBREW,5785,7,1),
+      AlmanacConverter.toEpochDay(CalendarId.GREGORIAN,2024,10,3));
+    assertEquals(AlmanacConverter.toEpochDay(CalendarId.HEBREW,5784,1,15),
+      AlmanacConverter.toEpochDay(CalendarId.GREGORIAN,2024,4,23));
+    // Purim falls in Adar II of the leap year 5784.
+    assertEquals(AlmanacConverter.toEpochDay(CalendarId.HEBREW,5784,13,14),
+      AlmanacConverter.toEpochDay(CalendarId.GREGORIAN,2024,3,24));
+  }
+
+  @Test
+  public void monthsShouldBeFoundFromDaysOfYear() {
+    for (HebrewCalendar.YearType type : HebrewCalendar.YearType.values()) {
+      int days = 0;
+      for (int month = 1; month <= type.getNumberOfMonths(); ++month) {
+        int first = type.getDaysBeforeMonth(month) + 1;
+        int length = type.getNumberOfDaysInMonth(month);
+        assertEquals(type.getMonthOfDay(first),month);
+        assertEquals(type.getMonthOfDay(first + length - 1),month);
+        days += length;
+      }
+      assertEquals(days,type.getNumberOfDays());
+      assertEquals(type.getMonthOfDay(1),7);
+      assertEquals(type.getMonthOfDay(days),6);
+    }
+  }
+
+/////////////////////////////////////////////////////////////////////////////
+// private
+
+  // An independent oracle from the molad of Tishri and the postponement
+  // rules (Reingold & Dershowitz, Calendrical Calculations).
+
+  private static boolean _isLeapYear(int year) {
+    return Math.floorMod(7L * year + 1,19) < 7;
+  }
+
+  private static long _elapsedDays(int year) {
+    long months = Math.floorDiv(235L * year - 234,19);
+    long parts = 12084 + 13753 * months;
+    long day = 29 * months + Math.floorDiv(parts,25920);
+    return (Math.floorMod(3 * (day + 1),7) < 3) ? day + 1 : day;
+  }
+
+  private static long _newYear(int year) {
+    long last = _elapsedDays(year - 1);
+    long self = _elapsedDays(year);
+    long next = _elapsedDays(year + 1);
+    int delay = (next - self == 356) ? 2 : (self - last == 382) ? 1 : 0;
+    return 347998 + self + delay;
+  }
+
+  private static int _monthLength(int year, int month, int length) {
+    switch (month) {
+      case 8:  return (length % 10 == 5) ? 30 : 29;
+      case 9:  return (length % 10 == 3) ? 29 : 30;
+      case 12: return _isLeapYear(year) ? 30 : 29;
+      case 13: return 29;
+      default: return (month % 2 == 1) ? 30 : 29;
+    }
+  }
+}
@@ -0,0 +1,137 @@
+/*****************************************************************************
+Copyright 2017 Chris Engelsma
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*****************************************************************************/
+package com.hypotemoose.cal.date;
+
+import com.hypotemoose.cal.constants.CalendarId;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertTrue;
+import org.testng.annotations.Test;
+
+import static com.hypotemoose.cal.util.AlmanacConverter.*;
+
+/**
+ * Tests {@link com.hypotemoose.cal.date.ImmutableAlmanac}.
+ * @author Chris Engelsma
+ * @since 2017.08.11
+ */
+public class ImmutableAlmanacTest {
+
+  @Test
+  public void sameDatesShouldBeEqual() {
+    ImmutableAlmanac date1 = ImmutableAlmanac.of(CalendarId.GREGORIAN,1987,3,10);
+    ImmutableAlmanac date2 = ImmutableAlmanac.copyOf(new GregorianCalendar(1987,3,10));
+    assertEquals(date1,date2);
+    assertEquals(date1.hashCode(),date2.hashCode());
+    assertNotEquals(date1,date1.withCalendarSystem(JulianCalendar.SYSTEM));
+  }
+
+  @Test
+  public void datesShouldBeNormalized() {
+    ImmutableAlmanac date = ImmutableAlmanac.of(CalendarId.GREGORIAN,2015,2,29);
+    assertEquals(date.getMonth(),3);
+    assertEquals(date.getDay(),1);
+  }
+
+  @Test
+  public void dateShouldConvert() {
+    ImmutableAlmanac date = ImmutableAlmanac.of(CalendarId.GREGORIAN,1987,3,10);
+    ImmutableAlmanac hebrew = date.withCalendarSystem(HebrewCalendar.SYSTEM);
+    assertEquals(hebrew.getYear(),5747);
+    assertEquals(hebrew.getMonth(),12);
+    assertEquals(hebrew.getDay(),9);
+    assertEquals(toHebrewCalendar(date),new HebrewCalendar(5747,12,9));
+    assertEquals(toJulianDay(hebrew),new JulianDay(2446864.5));
+  }
+
+  @Test
+  public void weekDayShouldMatchMutableDate() {
+    for (int i=1; i<=28; ++i) {
+      GregorianCalendar g = new GregorianCalendar(2017,2,i);
+      ImmutableAlmanac date = ImmutableAlmanac.copyOf(g);
+      assertEquals(date.getWeekDayNumber(),g.getWeekDayNumber());
+    }
+  }
+
+  @Test
+  public void datesShouldCompareAcrossCalendars() {
+    ImmutableAlmanac date1 = ImmutableAlmanac.of(CalendarId.GREGORIAN,1986,9,3);
+    ImmutableAlmanac date2 = ImmutableAlmanac.of(CalendarId.PERSIAN,1365,6,13);
+    assertTrue(date1.isBefore(date2));
+    assertTrue(date2.isAfter(date1));
+  }
+
+  @Test
+  public void datesShouldSerialize() throws Exception {
+    ImmutableAlmanac[] dates = {
+      ImmutableAlmanac.of(CalendarId.GREGORIAN,1987,3,10),
+      ImmutableAlmanac.of(CalendarId.PERSIAN,1365,12,19).plusDays(40),
+      ImmutableAlmanac.of(FrenchRepublicanCalendar.SYSTEM,195,6,19),
+      ImmutableAlmanac.of(getCalendarSystem(FrenchRepublicanCalendar.Rule.ROMME),4,13,6),
+      ImmutableAlmanac.of(getCalendarSystem(PersianCalendar.Rule.ASTRONOMICAL),1403,12,30),
+      ImmutableAlmanac.of(getCalendarSystem(PersianCalendar.Rule.ARITHMETIC),1403,12,30)
+    };
+    for (ImmutableAlmanac date : dates) {
+      ImmutableAlmanac copy = _roundTrip(date);
+      assertEquals(copy,date);
+      assertTrue(copy.getCalendarSystem() == date.getCalendarSystem());
+      assertEquals(copy.getDate(),date.getDate());
+      assertEquals(copy.plusDays(1),date.plusDays(1));
+    }
+  }
+
+  @Test(expectedExceptions = NotSerializableException.class)
+  public void datesInOtherSystemsShouldNotSerialize() throws Exception {
+    CalendarSystem system = new CalendarSystem() {
+      public String getName() { return "Days"; }
+      public long toEpochDay(int y, int m, int d) { return d; }
+      public long fromEpochDay(long ed) { return packDate(0,1,(int) ed); }
+      public boolean isLeapYear(int y) { return false; }
+      public int getNumberOfMonthsInYear(int y) { return 1; }
+      public int getNumberOfDaysInMonth(int y, int m) { return Integer.MAX_VALUE; }
+    };
+    _roundTrip(ImmutableAlmanac.of(system,0,1,10));
+  }
+
+  @Test(expectedExceptions = UnsupportedOperationException.class)
+  public void nextDayShouldThrow() {
+    ImmutableAlmanac.of(CalendarId.GREGORIAN,1987,3,10).nextDay();
+  }
+
+  @Test(expectedExceptions = UnsupportedOperationException.class)
+  public void setYearShouldThrow() {
+    ImmutableAlmanac.of(CalendarId.GREGORIAN,1987,3,10).setYear(1988);
+  }
+
+  private static ImmutableAlmanac _roundTrip(ImmutableAlmanac date)
+    throws IOException, ClassNotFoundException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    ObjectOutputStream out = new ObjectOutputStream(bytes);
+    out.writeObject(date);
+    out.close();
+    ObjectInputStream in =
+      new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+    return (ImmutableAlmanac) in.readObject();
+  }
+}
@@ -15,10 +15,24 @@ limitations under the License.
 *****************************************************************************/
 package com.hypotemoose.cal.date;
 
+import static org.testng.Assert.assertEquals;
+import org.testng.annotations.Test;
+
+import static com.hypotemoose.cal.util.AlmanacConverter.*;
+
 /**
  * Tests {@link com.hypotemoose.cal.date.MayaCalendar}
  * @author Chris Engelsma
  * @since 2017.08.24
  */
 public class MayaCalendarTest {
+
+  @Test
+  public void addDaysShouldMatchConversion() {
+    GregorianCalendar gc = new GregorianCalendar(2012,12,1);
+    MayaCalendar mc = toMayaCalendar(gc);
+    MayaCalendar later = mc.plusDays(20);
+    assertEquals(later,toMayaCalendar(gc.plusDays(20)));
+    assertEquals(later.minusDays(20),mc);
+  }
 }
@@ -15,8 +15,11 @@ limitations under the License.
 *****************************************************************************/
 package com.hypotemoose.cal.util;
 
+import com.hypotemoose.cal.constants.CalendarId;
 import com.hypotemoose.cal.date.*;
 
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertTrue;
 
 import org.testng.annotations.Test;
@@ -101,6 +104,19 @@ public class AlmanacConverterTest {
     assertTrue(actual.equals(expected));
   }
 
+  @Test
+  public void subclassesShouldConvertThroughTheirCalendar() {
+    HebrewCalendar date = new HebrewCalendar(5747,12,9) {
+      @Override
+      public long toEpochDay() {
+        throw new AssertionError("Converted through the epoch day");
+      }
+    };
+    GregorianCalendar actual = AlmanacConverter.toGregorianCalendar(date);
+    GregorianCalendar expected = new GregorianCalendar(1987,3,10);
+    assertEquals(actual,expected);
+  }
+
   @Test
   public void julianDayShouldConvertToHebrewCalendar() {
     HebrewCalendar actual = AlmanacConverter.toHebrewCalendar(EXPECTED);
@@ -129,4 +145,164 @@ public class AlmanacConverterTest {
     assertTrue(actual.equals(expected));
   }
 
+  @Test
+  public void epochDayShouldMatchJulianDay() {
+    long expected = 2446865L;
+    assertEquals(AlmanacConverter.toEpochDay(EXPECTED), expected);
+    assertEquals(AlmanacConverter.toEpochDay(CalendarId.GREGORIAN,1987,3,10), expected);
+    assertEquals(AlmanacConverter.toEpochDay(CalendarId.JULIAN,1987,2,25), expected);
+    assertEquals(AlmanacConverter.toEpochDay(CalendarId.ISLAMIC,1407,7,9), expected);
+    assertEquals(AlmanacConverter.toEpochDay(CalendarId.HEBREW,5747,12,9), expected);
+    assertEquals(AlmanacConverter.toEpochDay(CalendarId.PERSIAN,1365,12,19), expected);
+    assertEquals(AlmanacConverter.toEpochDay(CalendarId.FRENCH_REPUBLICAN,195,6,19), expected);
+  }
+
+  @Test
+  public void hebrewDatesShouldAdvanceOneDayAtATime() {
+    long prev = AlmanacConverter.fromEpochDay(CalendarId.HEBREW, 0L);
+    for (long day = 1L; day < 2900000L; ++day) {
+      long date = AlmanacConverter.fromEpochDay(CalendarId.HEBREW, day);
+      int y = AlmanacConverter.unpackYear(prev);
+      int m = AlmanacConverter.unpackMonth(prev);
+      int d = AlmanacConverter.unpackDay(prev);
+      if (AlmanacConverter.unpackDay(date) == d + 1) {
+        assertEquals(date, AlmanacConverter.packDate(y, m, d + 1));
+      } else {
+        int months = (Math.floorMod(7L * y + 1, 19) < 7) ? 13 : 12;
+        int next = (m == months) ? 1 : m + 1;
+        assertEquals(date, AlmanacConverter.packDate((m == 6) ? y + 1 : y, next, 1));
+        assertTrue(d == 29 || d == 30);
+      }
+      prev = date;
+    }
+  }
+
+  @Test
+  public void arithmeticPersianRuleShouldMatchAstronomical() {
+    CalendarSystem arithmetic =
+      AlmanacConverter.getCalendarSystem(PersianCalendar.Rule.ARITHMETIC);
+    CalendarSystem astronomical =
+      AlmanacConverter.getCalendarSystem(PersianCalendar.Rule.ASTRONOMICAL);
+    long first = astronomical.toEpochDay(1330,1,1);
+    long last = astronomical.toEpochDay(1490,1,1);
+    assertEquals(arithmetic.toEpochDay(1330,1,1),first);
+    assertEquals(arithmetic.toEpochDay(1490,1,1),last);
+    for (long ed = first; ed < last; ++ed)
+      assertEquals(arithmetic.fromEpochDay(ed),astronomical.fromEpochDay(ed));
+    for (int year = 1330; year <= 1490; ++year) {
+      assertEquals(arithmetic.isLeapYear(year),astronomical.isLeapYear(year));
+      if (year >= 1343 && year <= 1472) {
+        int r = Math.floorMod(year, 33);
+        assertEquals(arithmetic.isLeapYear(year),
+          r == 1 || r == 5 || r == 9 || r == 13 || r == 17 || r == 22 || r == 26 || r == 30);
+      }
+    }
+  }
+
+  @Test
+  public void rommeRuleShouldBeArithmetic() {
+    CalendarSystem romme =
+      AlmanacConverter.getCalendarSystem(FrenchRepublicanCalendar.Rule.ROMME);
+    CalendarSystem astronomical =
+      AlmanacConverter.getCalendarSystem(FrenchRepublicanCalendar.Rule.ASTRONOMICAL);
+    assertEquals(romme.toEpochDay(1,1,1),astronomical.toEpochDay(1,1,1));
+    assertTrue(romme.isLeapYear(4));
+    assertFalse(romme.isLeapYear(3));
+    assertTrue(romme.isLeapYear(400));
+    assertFalse(romme.isLeapYear(500));
+    assertFalse(romme.isLeapYear(4000));
+    long ed = romme.toEpochDay(-4001,1,1);
+    for (int year = -4001; year <= 4001; ++year) {
+      assertEquals(romme.toEpochDay(year,1,1),ed);
+      assertEquals(romme.fromEpochDay(ed),AlmanacConverter.packDate(year,1,1));
+      int days = romme.getNumberOfDaysInMonth(year,13);
+      assertEquals(days,romme.isLeapYear(year) ? 6 : 5);
+      ed += 360 + days;
+      assertEquals(romme.fromEpochDay(ed - 1),AlmanacConverter.packDate(year,13,days));
+    }
+  }
+
+  @Test
+  public void packedDateShouldUnpack() {
+    long date = AlmanacConverter.packDate(-4713,11,24);
+    assertEquals(AlmanacConverter.unpackYear(date), -4713);
+    assertEquals(AlmanacConverter.unpackMonth(date), 11);
+    assertEquals(AlmanacConverter.unpackDay(date), 24);
+  }
+
+  @Test
+  public void epochDayShouldRoundTrip() {
+    for (CalendarId id : CalendarId.values()) {
+      for (long day = 2299161L; day < 2470000L; day += 17) {
+        long date = AlmanacConverter.fromEpochDay(id, day);
+        long actual = AlmanacConverter.toEpochDay(id,
+          AlmanacConverter.unpackYear(date),
+          AlmanacConverter.unpackMonth(date),
+          AlmanacConverter.unpackDay(date));
+        assertEquals(actual, day);
+      }
+    }
+  }
+
+  @Test
+  public void calendarSystemMonthLengthsShouldMatchConversion() {
+    for (CalendarId id : CalendarId.values()) {
+      CalendarSystem system = AlmanacConverter.getCalendarSystem(id);
+      int first = (id == CalendarId.MAYA) ? 0 : 1;
+      long prev = system.fromEpochDay(2440000L);
+      for (long day = 2440001L; day < 2443000L; ++day) {
+        long date = system.fromEpochDay(day);
+        if (AlmanacConverter.unpackMonth(date) != AlmanacConverter.unpackMonth(prev)) {
+          int expected = system.getNumberOfDaysInMonth(
+            AlmanacConverter.unpackYear(prev), AlmanacConverter.unpackMonth(prev));
+          assertEquals(AlmanacConverter.unpackDay(prev) - first + 1, expected, id.name());
+        }
+        prev = date;
+      }
+    }
+  }
+
+  @Test
+  public void almanacWithCalendarSystemShouldConvert() {
+    Almanac custom = new Almanac() {
+      { year = 1987; month = 3; day = 10; }
+      public CalendarSystem getCalendarSystem() {
+        return GregorianCalendar.SYSTEM;
+      }
+      public String getDate() { return ""; }
+      public String getName() { return "Custom"; }
+      public int getNumberOfDaysInMonth() { return 31; }
+      public int getNumberOfDaysInWeek() { return 7; }
+      public int getNumberOfMonthsInYear() { return 12; }
+      public void set(Almanac a) { }
+    };
+    assertTrue(AlmanacConverter.toJulianDay(custom).equals(EXPECTED));
+    assertTrue(AlmanacConverter.toJulianCalendar(custom).equals(new JulianCalendar(1987,2,25)));
+  }
+
+  @Test
+  public void directConversionShouldMatchEpochDay() {
+    CalendarId[] ids = { CalendarId.GREGORIAN, CalendarId.JULIAN, CalendarId.INDIAN_CIVIL };
+    for (CalendarId from : ids) {
+      for (CalendarId to : ids) {
+        for (long ed=1000000; ed<2600000; ed+=7) {
+          long date = AlmanacConverter.fromEpochDay(from,ed);
+          long actual = AlmanacConverter.convert(from,to,
+            AlmanacConverter.unpackYear(date),
+            AlmanacConverter.unpackMonth(date),
+            AlmanacConverter.unpackDay(date));
+          assertEquals(actual,AlmanacConverter.fromEpochDay(to,ed));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void gregorianCalendarShouldConvertDirectlyToJulianCalendar() {
+    GregorianCalendar gc = new GregorianCalendar(1582,10,15);
+    assertEquals(AlmanacConverter.toJulianCalendar(gc),new JulianCalendar(1582,10,5));
+    assertEquals(AlmanacConverter.toGregorianCalendar(new JulianCalendar(1582,10,5)),gc);
+    assertEquals(AlmanacConverter.toGregorianCalendar(new IndianCivilCalendar(1909,1,1)),
+      new GregorianCalendar(1987,3,22));
+  }
 }
@@ -0,0 +1,79 @@
+/*****************************************************************************
+Copyright 2017 Chris Engelsma
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*****************************************************************************/
+package com.hypotemoose.cal.util;
+
+import com.hypotemoose.cal.constants.CalendarId;
+import com.hypotemoose.cal.date.*;
+
+import static org.testng.Assert.assertEquals;
+import org.testng.annotations.Test;
+
+/**
+ * Tests {@link BulkAlmanacConverter}.
+ * @author Chris Engelsma
+ * @since 2017.08.10
+ */
+public class BulkAlmanacConverterTest {
+
+  private static final int N = 20000;
+
+  @Test
+  public void gregorianShouldConvertToHebrew() {
+    int[] years = new int[N], months = new int[N], days = new int[N];
+    long[] epochDays = new long[N];
+    for (int i=0; i<N; ++i) epochDays[i] = 2440000L + i;
+    BulkAlmanacConverter.fromEpochDays(CalendarId.GREGORIAN,epochDays,years,months,days);
+
+    int[] hy = new int[N], hm = new int[N], hd = new int[N];
+    BulkAlmanacConverter.convert(CalendarId.GREGORIAN,CalendarId.HEBREW,
+      years,months,days,hy,hm,hd);
+
+    for (int i=0; i<N; i+=97) {
+      GregorianCalendar g = new GregorianCalendar(years[i],months[i],days[i]);
+      HebrewCalendar expected = AlmanacConverter.toHebrewCalendar(g);
+      assertEquals(new HebrewCalendar(hy[i],hm[i],hd[i]),expected);
+    }
+  }
+
+  @Test
+  public void parallelShouldMatchSequential() {
+    int[] years = new int[N], months = new int[N], days = new int[N];
+    long[] epochDays = new long[N];
+    long[] seq = new long[N], par = new long[N];
+    for (int i=0; i<N; ++i) epochDays[i] = 2400000L + 3L*i;
+    BulkAlmanacConverter.fromEpochDaysParallel(CalendarId.ISLAMIC,epochDays,years,months,days);
+    BulkAlmanacConverter.toEpochDays(CalendarId.ISLAMIC,years,months,days,seq);
+    BulkAlmanacConverter.toEpochDaysParallel(CalendarId.ISLAMIC,years,months,days,par);
+    assertEquals(seq,epochDays);
+    assertEquals(par,epochDays);
+
+    int[] py = new int[N], pm = new int[N], pd = new int[N];
+    int[] sy = new int[N], sm = new int[N], sd = new int[N];
+    BulkAlmanacConverter.convertParallel(CalendarId.ISLAMIC,CalendarId.JULIAN,
+      years,months,days,py,pm,pd);
+    BulkAlmanacConverter.convert(CalendarId.ISLAMIC,CalendarId.JULIAN,
+      years,months,days,sy,sm,sd);
+    assertEquals(py,sy);
+    assertEquals(pm,sm);
+    assertEquals(pd,sd);
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void mismatchedArraysShouldThrow() {
+    BulkAlmanacConverter.toEpochDays(CalendarId.GREGORIAN,
+      new int[2],new int[2],new int[1],new long[2]);
+  }
+}
@@ -0,0 +1,121 @@
+/*****************************************************************************
+Copyright 2017 Chris Engelsma
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*****************************************************************************/
+package com.hypotemoose.cal.util;
+
+import com.hypotemoose.cal.constants.CalendarId;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import org.testng.annotations.Test;
+
+/**
+ * Tests {@link ConversionCache}.
+ * @author Chris Engelsma
+ * @since 2017.08.11
+ */
+public class ConversionCacheTest {
+
+  @Test
+  public void cachedConversionsShouldMatch() {
+    ConversionCache cache = new ConversionCache(1000);
+    for (int pass=0; pass<2; ++pass) {
+      for (long ed=2440000; ed<2440200; ++ed) {
+        long date = cache.get(13,ed);
+        if (date == ConversionCache.ABSENT) {
+          date = AlmanacConverter.fromEpochDay(CalendarId.PERSIAN,ed);
+          cache.put(13,ed,date);
+        }
+        assertEquals(date,AlmanacConverter.fromEpochDay(CalendarId.PERSIAN,ed));
+      }
+    }
+    assertEquals(cache.getMissCount(),200);
+    assertEquals(cache.getHitCount(),200);
+    assertEquals(cache.size(),200);
+  }
+
+  @Test
+  public void concurrentLookupsShouldSeeWholeEntries() throws InterruptedException {
+    final ConversionCache cache = new ConversionCache(256);
+    final AtomicInteger errors = new AtomicInteger();
+    Thread[] threads = new Thread[4];
+    for (int t=0; t<threads.length; ++t) {
+      final long seed = t;
+      threads[t] = new Thread(new Runnable() {
+        public void run() {
+          Random r = new Random(seed);
+          for (int i=0; i<200000; ++i) {
+            int kind = r.nextInt(2);
+            long key = r.nextInt(2000);
+            long value = cache.get(kind,key);
+            if (value == ConversionCache.ABSENT)
+              cache.put(kind,key,(key*31)+kind);
+            else if (value != (key*31)+kind)
+              errors.incrementAndGet();
+          }
+        }
+      });
+      threads[t].start();
+    }
+    for (Thread thread : threads)
+      thread.join();
+    assertEquals(errors.get(),0);
+    assertTrue(cache.size() <= 256);
+    assertTrue(cache.getHitCount() > 0);
+  }
+
+  @Test
+  public void cacheShouldBeBounded() {
+    for (ConversionCache.EvictionPolicy policy : ConversionCache.EvictionPolicy.values()) {
+      ConversionCache cache = new ConversionCache(100,policy);
+      for (long i=0; i<1000; ++i) {
+        if (cache.get(0,i) == ConversionCache.ABSENT)
+          cache.put(0,i,i+1);
+      }
+      assertTrue(cache.size() <= 100);
+      cache.clear();
+      assertEquals(cache.size(),0);
+      assertEquals(cache.getMissCount(),0);
+    }
+  }
+
+  @Test
+  public void frequentEntriesShouldSurviveScan() {
+    assertEquals(_hotEntriesAfterScan(ConversionCache.EvictionPolicy.LRU),0);
+    assertEquals(_hotEntriesAfterScan(ConversionCache.EvictionPolicy.TINY_LFU),32);
+  }
+
+  private static int _hotEntriesAfterScan(ConversionCache.EvictionPolicy policy) {
+    ConversionCache cache = new ConversionCache(64,policy);
+    for (int i=0; i<20; ++i) {
+      for (long k=0; k<32; ++k) {
+        if (cache.get(0,k) == ConversionCache.ABSENT)
+          cache.put(0,k,k);
+      }
+    }
+    for (long k=1000; k<1500; ++k) {
+      if (cache.get(0,k) == ConversionCache.ABSENT)
+        cache.put(0,k,k);
+    }
+    int hits = 0;
+    for (long k=0; k<32; ++k)
+      if (cache.get(0,k) != ConversionCache.ABSENT) ++hits;
+    return hits;
+  }
+}
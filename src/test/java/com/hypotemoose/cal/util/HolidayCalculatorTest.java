@@ -15,8 +15,10 @@ limitations under the License.
 *****************************************************************************/
 package com.hypotemoose.cal.util;
 
+import static org.testng.Assert.assertEquals;
 import static org.testng.internal.junit.ArrayAsserts.assertArrayEquals;
 
+import com.hypotemoose.cal.astro.Accuracy;
 import com.hypotemoose.cal.constants.Holiday;
 import org.testng.annotations.Test;
 
@@ -35,6 +37,31 @@ public class HolidayCalculatorTest {
     test(Holiday.EASTER);
   }
 
+  @Test
+  public void easterShouldUseFirstFullMoonAfterEquinox() {
+    GregorianCalendar[] expected = {
+      new GregorianCalendar(1618,4,15),
+      new GregorianCalendar(1713,4,16),
+      new GregorianCalendar(1789,4,12)
+    };
+    GregorianCalendar[] actual = new GregorianCalendar[expected.length];
+    for (int i=0; i<expected.length; ++i)
+      actual[i] = new GregorianCalendar(
+        HolidayCalculator.get(Holiday.EASTER,expected[i].getYear()));
+    assertArrayEquals(expected,actual);
+  }
+
+  @Test
+  public void fastEasterShouldMatchStandard() {
+    for (int year=1900; year<=2100; ++year) {
+      GregorianCalendar expected = new GregorianCalendar(
+        HolidayCalculator.get(Holiday.EASTER,year,Accuracy.STANDARD));
+      GregorianCalendar actual = new GregorianCalendar(
+        HolidayCalculator.get(Holiday.EASTER,year,Accuracy.FAST));
+      assertEquals(actual,expected);
+    }
+  }
+
   @Test
   public void ramadanShouldComputeCorrectly() {
     test(Holiday.RAMADAN);
@@ -0,0 +1,79 @@
+/*****************************************************************************
+Copyright 2017 Chris Engelsma
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*****************************************************************************/
+package com.hypotemoose.cal.util;
+
+import com.hypotemoose.cal.constants.CalendarId;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import org.testng.annotations.Test;
+
+/**
+ * Tests {@link NewYearIndex}.
+ * @author Chris Engelsma
+ * @since 2017.08.11
+ */
+public class NewYearIndexTest {
+
+  @Test
+  public void yearsShouldBeFoundFromDays() {
+    // Julian years, which begin on epoch day 365y + floor(y/4).
+    NewYearIndex index = new NewYearIndex(-100,100) {
+      protected long compute(int year) {
+        return (365L*year)+Math.floorDiv(year,4);
+      }
+    };
+    assertTrue(index.containsDay(-36525));
+    assertFalse(index.containsDay(-36526));
+    assertFalse(index.containsDay(36890));
+    for (int year=-100; year<=100; ++year) {
+      long start = index.getNewYear(year);
+      int length = index.getNumberOfDays(year);
+      assertEquals(length,(Math.floorMod(year+1,4)==0)?366:365);
+      assertEquals(index.getYear(start),year);
+      assertEquals(index.getYear(start+length-1),year);
+    }
+  }
+
+  @Test
+  public void indexShouldBeRebuiltAfterClear() {
+    final int[] offset = {0};
+    NewYearIndex index = new NewYearIndex(0,10) {
+      protected long compute(int year) {
+        return (365L*year)+offset[0];
+      }
+    };
+    assertEquals(index.getNewYear(10),3650);
+    offset[0] = 7;
+    assertEquals(index.getNewYear(10),3650);
+    index.clear();
+    assertEquals(index.getNewYear(10),3657);
+  }
+
+  @Test
+  public void indexedYearsShouldMatchConversions() {
+    for (int year=1; year<=30; ++year) {
+      long start = AlmanacConverter.toEpochDay(CalendarId.FRENCH_REPUBLICAN,year,1,1);
+      long next = AlmanacConverter.toEpochDay(CalendarId.FRENCH_REPUBLICAN,year+1,1,1);
+      assertEquals(AlmanacConverter.fromEpochDay(CalendarId.FRENCH_REPUBLICAN,next-1),
+        AlmanacConverter.packDate(year,13,(int)(next-start)-360));
+      assertEquals(AlmanacConverter.getCalendarSystem(CalendarId.FRENCH_REPUBLICAN)
+        .isLeapYear(year),next-start==366);
+    }
+  }
+}
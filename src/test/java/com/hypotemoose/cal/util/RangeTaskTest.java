@@ -0,0 +1,53 @@
+/*****************************************************************************
+ * Copyright 2017 Chris Engelsma
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *****************************************************************************/
+package com.hypotemoose.cal.util;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import org.testng.annotations.Test;
+
+/**
+ * Tests {@link RangeTask}.
+ * @author Chris Engelsma
+ * @since 2017.08.11
+ */
+public class RangeTaskTest {
+
+  @Test
+  public void piecesShouldCoverRangeOnce() {
+    final int threshold = 7;
+    final AtomicIntegerArray counts = new AtomicIntegerArray(1000);
+    ForkJoinPool.commonPool().invoke(new RangeTask(0,1000,threshold,
+      new RangeTask.Body() {
+        public void run(int offset, int length) {
+          assertTrue(length <= threshold);
+          for (int i=offset; i<offset+length; ++i)
+            counts.incrementAndGet(i);
+        }
+      }));
+    for (int i=0; i<counts.length(); ++i)
+      assertEquals(counts.get(i),1);
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void nonPositiveThresholdShouldThrow() {
+    new RangeTask(0,10,0,null);
+  }
+}